@@ -0,0 +1,219 @@
+package tech.picnic.errorprone.migration.benchmarks;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Fails if the migrated form of a template pair allocates more bytes per operation than its RxJava
+ * original by more than a configurable margin, as measured by {@link TemplatePairBenchmark} with
+ * JMH's GC profiler ({@code gc.alloc.rate.norm}).
+ *
+ * <p>Template pairs whose migrated form is known to allocate more can be accepted by listing them
+ * in a baseline file. Each non-empty line of this file that does not start with {@code #} has the
+ * form {@code <template pair><TAB><after/before ratio>}, e.g. {@code
+ * RxJavaSingleToReactorTemplatesTest#testSingleFlatMap 1.25}, and accepts an allocation ratio up to
+ * the listed one (plus the margin) for that pair. In update mode the baseline is rewritten to
+ * accept the measured ratios of all pairs whose migrated form allocates more.
+ *
+ * <p>Usage: {@code AllocationGate <jmh-result.json> <baseline> [--margin <fraction>] [--update]}.
+ * The {@code allocation-gate} Maven profile of this module runs the benchmarks and this check as
+ * part of the {@code verify} phase. The check fails if the results contain no template pairs at
+ * all, e.g. because the benchmarks did not run.
+ */
+public final class AllocationGate {
+  /** The default allowed relative increase in bytes allocated per operation. */
+  public static final double DEFAULT_MARGIN = 0.10;
+
+  /**
+   * The number of bytes per operation below which allocation rates are considered equal, which
+   * avoids huge ratios for templates whose original form barely allocates.
+   */
+  private static final double NOISE_BYTES = 16;
+
+  private static final String ALLOCATION_METRIC_SUFFIX = "gc.alloc.rate.norm";
+
+  private AllocationGate() {}
+
+  /**
+   * Checks the given benchmark results against the given baseline, or updates the baseline.
+   *
+   * @param args The command-line arguments; see the class documentation.
+   * @throws IOException If the results or the baseline cannot be read or written.
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println(
+          "Usage: AllocationGate <jmh-result.json> <baseline> [--margin <fraction>] [--update]");
+      System.exit(2);
+    }
+
+    Path results = Path.of(args[0]);
+    Path baseline = Path.of(args[1]);
+    double margin = DEFAULT_MARGIN;
+    boolean update = false;
+    for (int i = 2; i < args.length; i++) {
+      if (args[i].equals("--update") || args[i].startsWith("--update=")) {
+        update = args[i].equals("--update") || Boolean.parseBoolean(args[i].substring(9));
+      } else if (args[i].equals("--margin") && i + 1 < args.length) {
+        margin = Double.parseDouble(args[++i]);
+      } else {
+        throw new IllegalArgumentException("Unknown argument: " + args[i]);
+      }
+    }
+
+    Map<String, double[]> allocations = readAllocations(results);
+    if (allocations.isEmpty()) {
+      System.err.println("No template pairs were measured in " + results);
+      System.exit(1);
+    }
+
+    if (update) {
+      writeBaseline(baseline, allocations);
+      System.out.println("Updated allocation baseline " + baseline);
+      return;
+    }
+
+    List<String> regressions = check(allocations, readBaseline(baseline), margin);
+    if (!regressions.isEmpty()) {
+      System.err.println("Migrated templates allocate more than their RxJava originals:");
+      regressions.forEach(r -> System.err.println("  " + r));
+      System.err.println("Fix the templates, or accept the regressions using --update.");
+      System.exit(1);
+    }
+    System.out.printf("Checked the allocation rates of %d template pairs%n", allocations.size());
+  }
+
+  /**
+   * Returns a description of each template pair whose migrated form allocates more than allowed.
+   */
+  static List<String> check(
+      Map<String, double[]> allocations, Map<String, Double> baseline, double margin) {
+    List<String> regressions = new ArrayList<>();
+    for (Map.Entry<String, double[]> pair : allocations.entrySet()) {
+      double before = pair.getValue()[0];
+      double after = pair.getValue()[1];
+      double acceptedRatio = Math.max(1, baseline.getOrDefault(pair.getKey(), 1.0));
+      if (ratio(before, after) > acceptedRatio * (1 + margin)) {
+        regressions.add(
+            String.format(
+                Locale.ROOT,
+                "%s: %.1f -> %.1f B/op (accepted ratio %.2f, margin %.0f%%)",
+                pair.getKey(), before, after, acceptedRatio, margin * 100));
+      }
+    }
+    return regressions;
+  }
+
+  /**
+   * Reads the bytes allocated per operation by the before and after form of each template pair
+   * from the given JMH JSON result file. Pairs for which either form is missing are ignored.
+   */
+  private static Map<String, double[]> readAllocations(Path results) throws IOException {
+    Map<String, double[]> allocations = new TreeMap<>();
+    for (JsonNode run : new ObjectMapper().readTree(results.toFile())) {
+      if (!run.path("benchmark").asText().startsWith(TemplatePairBenchmark.class.getName())) {
+        continue;
+      }
+
+      String template = run.path("params").path("template").asText();
+      int form = TemplatePairs.Form.valueOf(run.path("params").path("form").asText()).ordinal();
+      double[] bytesPerOperation =
+          allocations.computeIfAbsent(template, k -> new double[] {Double.NaN, Double.NaN});
+      run.path("secondaryMetrics")
+          .fields()
+          .forEachRemaining(
+              metric -> {
+                if (metric.getKey().endsWith(ALLOCATION_METRIC_SUFFIX)) {
+                  bytesPerOperation[form] = metric.getValue().path("score").asDouble();
+                }
+              });
+    }
+    allocations.values().removeIf(a -> Double.isNaN(a[0]) || Double.isNaN(a[1]));
+    return allocations;
+  }
+
+  private static double ratio(double before, double after) {
+    return Math.max(after, NOISE_BYTES) / Math.max(before, NOISE_BYTES);
+  }
+
+  /**
+   * Reads the accepted allocation ratio of each template pair listed in the given baseline file.
+   * A missing file is treated as an empty baseline.
+   */
+  static Map<String, Double> readBaseline(Path baseline) throws IOException {
+    Map<String, Double> ratios = new TreeMap<>();
+    if (!Files.exists(baseline)) {
+      return ratios;
+    }
+
+    for (String line : Files.readAllLines(baseline, UTF_8)) {
+      String trimmed = line.trim();
+      if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+        continue;
+      }
+      String[] fields = trimmed.split("\\s+");
+      if (fields.length != 2) {
+        throw new IOException("Malformed allocation baseline entry: " + line);
+      }
+      ratios.put(fields[0], Double.parseDouble(fields[1]));
+    }
+    return ratios;
+  }
+
+  /**
+   * Rewrites the given baseline to accept the measured ratios of all pairs whose migrated form
+   * allocates more, recording the benchmark settings and the environment in which the results were
+   * obtained, as allocation rates differ between JDKs.
+   */
+  static void writeBaseline(Path baseline, Map<String, double[]> allocations) throws IOException {
+    Fork fork = TemplatePairBenchmark.class.getAnnotation(Fork.class);
+    Warmup warmup = TemplatePairBenchmark.class.getAnnotation(Warmup.class);
+    Measurement measurement = TemplatePairBenchmark.class.getAnnotation(Measurement.class);
+    List<String> lines = new ArrayList<>();
+    lines.add("# Template pairs whose migrated form may allocate more than the RxJava original.");
+    lines.add("# Format: <template pair><TAB><accepted after/before gc.alloc.rate.norm ratio>.");
+    lines.add(
+        String.format(
+            Locale.ROOT,
+            "# Measured by TemplatePairBenchmark using `-prof gc`: %d fork(s), %d warmup and %d"
+                + " measurement iterations of %d %s each.",
+            fork.value(),
+            warmup.iterations(),
+            measurement.iterations(),
+            measurement.time(),
+            measurement.timeUnit().toString().toLowerCase(Locale.ROOT)));
+    lines.add(
+        String.format(
+            Locale.ROOT,
+            "# Environment: %s %s on %s/%s with %d processors.",
+            System.getProperty("java.vm.name"),
+            System.getProperty("java.version"),
+            System.getProperty("os.name"),
+            System.getProperty("os.arch"),
+            Runtime.getRuntime().availableProcessors()));
+    lines.add("# Regenerate using `mvn verify -Pallocation-gate -Dallocation-gate.update=true`.");
+    for (Map.Entry<String, double[]> pair : allocations.entrySet()) {
+      double before = pair.getValue()[0];
+      double after = pair.getValue()[1];
+      double ratio = ratio(before, after);
+      if (ratio > 1) {
+        lines.add(
+            String.format(Locale.ROOT, "%s\t%.2f", pair.getKey(), Math.ceil(ratio * 100) / 100));
+      }
+    }
+    Files.write(baseline, lines, UTF_8);
+  }
+}
@@ -0,0 +1,48 @@
+package tech.picnic.errorprone.migration.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks of this module, accepting the same command-line options as JMH's own {@code
+ * org.openjdk.jmh.Main}.
+ *
+ * <p>Unless specified otherwise on the command line, this runner benchmarks all {@link
+ * TemplatePairs#all() template pairs}, attaches JMH's {@link GCProfiler} so that the allocation
+ * rate of each form is reported, and writes the results in JSON format to {@value
+ * #DEFAULT_RESULT_FILE}.
+ */
+public final class BenchmarkRunner {
+  /** The file to which results are written, unless specified otherwise using {@code -rff}. */
+  public static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+  private BenchmarkRunner() {}
+
+  /**
+   * Runs the benchmarks.
+   *
+   * @param args The JMH command-line options.
+   * @throws CommandLineOptionException If the command-line options are invalid.
+   * @throws RunnerException If a benchmark fails.
+   */
+  public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+    CommandLineOptions commandLine = new CommandLineOptions(args);
+    ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+    if (!commandLine.getParameter("template").hasValue()) {
+      options.param("template", TemplatePairs.all().toArray(String[]::new));
+    }
+    if (commandLine.getProfilers().isEmpty()) {
+      options.addProfiler(GCProfiler.class);
+    }
+    if (!commandLine.getResult().hasValue()) {
+      options.resultFormat(ResultFormatType.JSON).result(DEFAULT_RESULT_FILE);
+    }
+    new Runner(options.build()).run();
+  }
+}
@@ -0,0 +1,85 @@
+package tech.picnic.errorprone.migration.benchmarks;
+
+import io.reactivex.Flowable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.adapter.rxjava.RxJava2Adapter;
+import reactor.core.publisher.Flux;
+import tech.picnic.errorprone.migration.util.RxJavaReactorBridge;
+
+/**
+ * Compares the {@link RxJava2Adapter} conversions that migrated code starts out with to the {@link
+ * RxJavaReactorBridge} conversions, for the half-migrated pipelines in which they matter most.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BridgeBenchmark {
+  private static final int GROUP_COUNT = 8;
+
+  /** The class providing the conversions. */
+  @Param({"RxJava2Adapter", "RxJavaReactorBridge"})
+  public String adapter;
+
+  /** The number of elements emitted by each pipeline. */
+  @Param({"1", "1000"})
+  public int size;
+
+  private Function<Flowable<Integer>, Flux<Integer>> flowableToFlux;
+  private Function<Flux<Integer>, Flowable<Integer>> fluxToFlowable;
+
+  /** Selects the conversions to benchmark. */
+  @Setup
+  public void setUp() {
+    if (adapter.equals("RxJavaReactorBridge")) {
+      flowableToFlux = RxJavaReactorBridge::flowableToFlux;
+      fluxToFlowable = RxJavaReactorBridge::fluxToFlowable;
+    } else {
+      flowableToFlux = RxJava2Adapter::flowableToFlux;
+      fluxToFlowable = RxJava2Adapter::fluxToFlowable;
+    }
+  }
+
+  /**
+   * Drains a fusable {@link Flowable} pipeline that is converted to a {@link Flux} and back, as
+   * happens when a migrated method is invoked from code that has not been migrated yet.
+   *
+   * @param blackhole The blackhole that consumes all emitted elements.
+   */
+  @Benchmark
+  public void roundTrip(Blackhole blackhole) {
+    fluxToFlowable
+        .apply(flowableToFlux.apply(Flowable.range(0, size).map(i -> i + 1)).filter(i -> i > 0))
+        .blockingSubscribe(blackhole::consume);
+  }
+
+  /**
+   * Drains a {@code groupBy} pipeline whose groups are converted to {@link Flux}es individually,
+   * which only runs fused if fusion is negotiated across the conversions.
+   *
+   * @param blackhole The blackhole that consumes all emitted elements.
+   */
+  @Benchmark
+  public void fusedGroupBy(Blackhole blackhole) {
+    flowableToFlux
+        .apply(Flowable.range(0, size))
+        .groupBy(i -> i % GROUP_COUNT)
+        .flatMap(group -> flowableToFlux.apply(fluxToFlowable.apply(group).map(i -> i * 2)))
+        .subscribe(blackhole::consume);
+  }
+}
@@ -0,0 +1,20 @@
+package tech.picnic.errorprone.migration.benchmarks;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Stand-in for the interface implemented by the Refaster template test cases, which allows the
+ * {@code TestInput} and {@code TestOutput} files of the {@code refaster-templates} module to be
+ * compiled as part of this module.
+ */
+public interface RefasterTemplateTestCase {
+  /**
+   * Returns the types and static imports that the test case only references to keep its imports
+   * in use.
+   *
+   * @return The elided types and static imports; irrelevant to the benchmarks.
+   */
+  default ImmutableSet<?> elidedTypesAndStaticImports() {
+    return ImmutableSet.of();
+  }
+}
@@ -0,0 +1,176 @@
+package tech.picnic.errorprone.migration.benchmarks;
+
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.CodeTransformer;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.TreePath;
+import com.sun.tools.javac.api.BasicJavacTask;
+import com.sun.tools.javac.util.Context;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import tech.picnic.errorprone.migration.driver.RuleIndex;
+import tech.picnic.errorprone.migration.driver.TemplateBundles;
+import tech.picnic.errorprone.migration.driver.TemplateProfiler;
+
+/**
+ * Measures the time it takes to match the Refaster templates of the aggregate bundle against the
+ * {@code TestInput} files of the templates, with and without selecting the rules to match using a
+ * {@link RuleIndex}.
+ *
+ * <p>The compilation units are attributed once, during setup, so that only the cost of matching is
+ * measured. At the end of each trial the templates are matched once more using a {@link
+ * TemplateProfiler}, whose report is printed to show which templates account for the difference.
+ *
+ * <p>The default locations of the bundle and the {@code TestInput} files are relative to the root
+ * of this repository; run {@code mvn package} and start the benchmark from there, or override them
+ * using {@code -p bundleDirectory=<directory>} and {@code -p testInputs=<directory>}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RuleIndexBenchmark {
+  private static final String AGGREGATE_BUNDLE = "RxJavaToReactorMigration";
+
+  /** Whether to select the rules to match using a {@link RuleIndex}. */
+  @Param({"true", "false"})
+  public boolean ruleIndex;
+
+  /** The directory containing the template bundles built by {@code refaster-templates}. */
+  @Param("refaster-templates/target/refaster")
+  public String bundleDirectory;
+
+  /** The directory containing the {@code TestInput} files to match against. */
+  @Param("refaster-templates/src/test/resources/tech/picnic/errorprone/bugpatterns")
+  public String testInputs;
+
+  private ImmutableList<CodeTransformer> rules;
+  private RuleIndex index;
+  private Context context;
+  private ImmutableList<CompilationUnitTree> units;
+
+  /**
+   * Loads the rules and attributes the {@code TestInput} files.
+   *
+   * @throws IOException If the bundle or the {@code TestInput} files cannot be read.
+   */
+  @Setup
+  public void setUp() throws IOException {
+    rules =
+        TemplateBundles.load(
+            Path.of(bundleDirectory, AGGREGATE_BUNDLE, AGGREGATE_BUNDLE + ".refaster"));
+    index = RuleIndex.create(rules);
+
+    ImmutableList<JavaFileObject> sources;
+    try (Stream<Path> files = Files.list(Path.of(testInputs))) {
+      sources =
+          files
+              .filter(file -> file.getFileName().toString().endsWith("TestInput.java"))
+              .sorted()
+              .map(RuleIndexBenchmark::testInput)
+              .collect(toImmutableList());
+    }
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    JavacTask task =
+        (JavacTask)
+            ToolProvider.getSystemJavaCompiler()
+                .getTask(
+                    null,
+                    null,
+                    diagnostics,
+                    List.of("-proc:none", "-classpath", System.getProperty("java.class.path")),
+                    null,
+                    sources);
+    units = ImmutableList.copyOf(task.parse());
+    task.analyze();
+    checkState(
+        diagnostics.getDiagnostics().stream().noneMatch(d -> d.getKind() == Diagnostic.Kind.ERROR),
+        "Failed to compile the TestInput files: %s",
+        diagnostics.getDiagnostics());
+    context = ((BasicJavacTask) task).getContext();
+  }
+
+  /**
+   * Matches the rules against all {@code TestInput} files once.
+   *
+   * @param blackhole The blackhole that consumes all reported matches.
+   */
+  @Benchmark
+  public void match(Blackhole blackhole) {
+    for (CompilationUnitTree unit : units) {
+      TreePath path = new TreePath(unit);
+      for (CodeTransformer rule : ruleIndex ? index.select(unit) : rules) {
+        rule.apply(path, context, blackhole::consume);
+      }
+    }
+  }
+
+  /** Matches the rules once more using a {@link TemplateProfiler}, and prints its report. */
+  @TearDown
+  public void profile() {
+    TemplateProfiler profiler = new TemplateProfiler();
+    for (CompilationUnitTree unit : units) {
+      TreePath path = new TreePath(unit);
+      for (CodeTransformer rule : ruleIndex ? index.select(unit) : rules) {
+        profiler.apply(rule, path, context, description -> {});
+      }
+    }
+    System.out.printf("%nTemplate profile (ruleIndex=%s):%n%s", ruleIndex, profiler.report());
+  }
+
+  /**
+   * Reads the given {@code TestInput} file, making its test case implement {@link
+   * RefasterTemplateTestCase} as the build does for the template pairs.
+   */
+  private static JavaFileObject testInput(Path file) {
+    String source;
+    try {
+      source =
+          Files.readString(file, UTF_8)
+              .replace(
+                  "implements RefasterTemplateTestCase",
+                  "implements " + RefasterTemplateTestCase.class.getName());
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read " + file, e);
+    }
+
+    URI uri = URI.create("string:///" + file.getFileName());
+    return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+      @Override
+      public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+        return source;
+      }
+    };
+  }
+}
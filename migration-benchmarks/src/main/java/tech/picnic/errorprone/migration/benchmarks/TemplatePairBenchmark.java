@@ -0,0 +1,62 @@
+package tech.picnic.errorprone.migration.benchmarks;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the throughput of creating, subscribing to and draining the expressions of each Refaster
+ * template test case, in both their RxJava original ({@code before}) and migrated ({@code after})
+ * form.
+ *
+ * <p>The {@code template} parameter has no default values; {@link BenchmarkRunner} supplies all
+ * {@link TemplatePairs#all() template pairs} unless a subset is specified using {@code -p
+ * template=...}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TemplatePairBenchmark {
+  /**
+   * The template pair to benchmark, e.g. {@code
+   * RxJavaFlowableToReactorTemplatesTest#testFlowableMap}.
+   */
+  @Param public String template;
+
+  /** The {@link TemplatePairs.Form form} of the template pair to benchmark. */
+  @Param({"BEFORE", "AFTER"})
+  public String form;
+
+  private Callable<Object> testMethod;
+
+  /** Resolves the test method to benchmark. */
+  @Setup
+  public void setUp() {
+    testMethod = TemplatePairs.resolve(template, TemplatePairs.Form.valueOf(form));
+  }
+
+  /**
+   * Invokes the test method and drains its result.
+   *
+   * @param blackhole The blackhole that consumes all emitted signals.
+   * @throws Exception If the test method throws an exception.
+   */
+  @Benchmark
+  public void subscribeAndDrain(Blackhole blackhole) throws Exception {
+    TemplatePairs.drain(TemplatePairs.invoke(testMethod), blackhole);
+  }
+}
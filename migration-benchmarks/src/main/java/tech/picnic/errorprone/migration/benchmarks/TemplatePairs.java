@@ -0,0 +1,206 @@
+package tech.picnic.errorprone.migration.benchmarks;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.reflect.ClassPath;
+import io.reactivex.BackpressureStrategy;
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import org.openjdk.jmh.infra.Blackhole;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Discovers and invokes the before/after pairs of the Refaster template test cases.
+ *
+ * <p>The build copies each {@code TestInput} file into the {@value #BEFORE_PACKAGE} package and
+ * each {@code TestOutput} file into the {@value #AFTER_PACKAGE} package. A pair consists of the
+ * equally named, non-{@code void} and parameterless {@code test*} methods of the equally named
+ * test case classes in these packages, and is identified as {@code <test case class>#<test
+ * method>}, e.g. {@code RxJavaFlowableToReactorTemplatesTest#testFlowableMap}.
+ */
+final class TemplatePairs {
+  static final String BEFORE_PACKAGE = "tech.picnic.errorprone.migration.benchmarks.pairs.before";
+  static final String AFTER_PACKAGE = "tech.picnic.errorprone.migration.benchmarks.pairs.after";
+
+  /** The form of a test method. */
+  enum Form {
+    /** The {@code TestInput} form, i.e. the RxJava original. */
+    BEFORE(BEFORE_PACKAGE),
+    /** The {@code TestOutput} form, i.e. the migrated code. */
+    AFTER(AFTER_PACKAGE);
+
+    private final String packageName;
+
+    Form(String packageName) {
+      this.packageName = packageName;
+    }
+  }
+
+  private TemplatePairs() {}
+
+  /**
+   * Returns the identifiers of all before/after pairs on the classpath.
+   *
+   * @return The pair identifiers, in alphabetical order.
+   */
+  static ImmutableSortedSet<String> all() {
+    ImmutableSortedSet.Builder<String> pairs = ImmutableSortedSet.naturalOrder();
+    ClassLoader classLoader = TemplatePairs.class.getClassLoader();
+    try {
+      for (ClassPath.ClassInfo before :
+          ClassPath.from(classLoader).getTopLevelClasses(BEFORE_PACKAGE)) {
+        Class<?> after;
+        try {
+          after = classLoader.loadClass(AFTER_PACKAGE + '.' + before.getSimpleName());
+        } catch (ClassNotFoundException e) {
+          continue;
+        }
+        for (Method method : before.load().getDeclaredMethods()) {
+          if (isBenchmarkable(method) && hasPair(after, method)) {
+            pairs.add(before.getSimpleName() + '#' + method.getName());
+          }
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to scan the classpath for template pairs", e);
+    }
+    return pairs.build();
+  }
+
+  /**
+   * Returns a callable that invokes the given form of the identified test method.
+   *
+   * @param pair The identifier of the pair, as returned by {@link #all()}.
+   * @param form The form to invoke.
+   * @return A callable returning the result of the test method.
+   */
+  static Callable<Object> resolve(String pair, Form form) {
+    int separator = pair.indexOf('#');
+    checkArgument(separator > 0, "Invalid template pair '%s'", pair);
+    try {
+      Class<?> testCase =
+          TemplatePairs.class
+              .getClassLoader()
+              .loadClass(form.packageName + '.' + pair.substring(0, separator));
+      Constructor<?> constructor = testCase.getDeclaredConstructor();
+      constructor.setAccessible(true);
+      Object instance = constructor.newInstance();
+      Method method = testCase.getDeclaredMethod(pair.substring(separator + 1));
+      method.setAccessible(true);
+      return () -> method.invoke(instance);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalArgumentException("Unknown template pair '" + pair + "'", e);
+    }
+  }
+
+  /**
+   * Subscribes to the given test method result, if it is reactive, and feeds all emitted signals to
+   * the given blackhole. Iterables, such as the {@code ImmutableSet}s returned by test methods that
+   * cover multiple expressions, are drained element by element.
+   *
+   * <p>The subscription is cancelled as soon as the subscribe call returns, so that asynchronous
+   * sources contribute only the cost of subscribing and of their synchronous emissions.
+   *
+   * @param result The result of a test method.
+   * @param blackhole The blackhole to consume all signals.
+   */
+  static void drain(Object result, Blackhole blackhole) {
+    if (result instanceof Publisher) {
+      subscribe((Publisher<?>) result, blackhole);
+    } else if (result instanceof Observable) {
+      subscribe(((Observable<?>) result).toFlowable(BackpressureStrategy.BUFFER), blackhole);
+    } else if (result instanceof Single) {
+      subscribe(((Single<?>) result).toFlowable(), blackhole);
+    } else if (result instanceof Maybe) {
+      subscribe(((Maybe<?>) result).toFlowable(), blackhole);
+    } else if (result instanceof Completable) {
+      subscribe(((Completable) result).toFlowable(), blackhole);
+    } else if (result instanceof Iterable) {
+      for (Object element : (Iterable<?>) result) {
+        drain(element, blackhole);
+      }
+    } else {
+      blackhole.consume(result);
+    }
+  }
+
+  /**
+   * Invokes the given callable, unwrapping the {@link InvocationTargetException} thrown by
+   * reflectively invoked test methods.
+   */
+  static Object invoke(Callable<Object> testMethod) throws Exception {
+    try {
+      return testMethod.call();
+    } catch (InvocationTargetException e) {
+      Throwable cause = e.getCause();
+      throw cause instanceof Exception ? (Exception) cause : e;
+    }
+  }
+
+  private static boolean isBenchmarkable(Method method) {
+    return method.getName().startsWith("test")
+        && method.getParameterCount() == 0
+        && method.getReturnType() != void.class;
+  }
+
+  private static boolean hasPair(Class<?> after, Method before) {
+    try {
+      return isBenchmarkable(after.getDeclaredMethod(before.getName()));
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  private static void subscribe(Publisher<?> publisher, Blackhole blackhole) {
+    BlackholeSubscriber subscriber = new BlackholeSubscriber(blackhole);
+    publisher.subscribe(subscriber);
+    subscriber.cancel();
+  }
+
+  private static final class BlackholeSubscriber implements Subscriber<Object> {
+    private final Blackhole blackhole;
+    private volatile Subscription subscription;
+
+    BlackholeSubscriber(Blackhole blackhole) {
+      this.blackhole = blackhole;
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+      subscription = s;
+      s.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(Object value) {
+      blackhole.consume(value);
+    }
+
+    @Override
+    public void onError(Throwable t) {
+      blackhole.consume(t);
+    }
+
+    @Override
+    public void onComplete() {
+      blackhole.consume(this);
+    }
+
+    void cancel() {
+      if (subscription != null) {
+        subscription.cancel();
+      }
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package tech.picnic.errorprone.migration.benchmarks;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+final class AllocationGateTest {
+  @Test
+  void checkAcceptsIncreaseWithinMargin() {
+    assertThat(AllocationGate.check(Map.of("A#a", new double[] {100, 105}), Map.of(), 0.10))
+        .isEmpty();
+  }
+
+  @Test
+  void checkRejectsIncreaseBeyondMargin() {
+    assertThat(AllocationGate.check(Map.of("A#a", new double[] {100, 120}), Map.of(), 0.10))
+        .containsExactly("A#a: 100.0 -> 120.0 B/op (accepted ratio 1.00, margin 10%)");
+  }
+
+  @Test
+  void checkAcceptsIncreaseListedInBaseline() {
+    assertThat(
+            AllocationGate.check(
+                Map.of("A#a", new double[] {100, 120}, "A#b", new double[] {100, 150}),
+                Map.of("A#a", 1.25, "A#b", 1.25),
+                0.10))
+        .containsExactly("A#b: 100.0 -> 150.0 B/op (accepted ratio 1.25, margin 10%)");
+  }
+
+  @Test
+  void checkIgnoresBaselineRatiosBelowOne() {
+    assertThat(
+            AllocationGate.check(Map.of("A#a", new double[] {100, 105}), Map.of("A#a", 0.5), 0.10))
+        .isEmpty();
+  }
+
+  @Test
+  void checkIgnoresNoise() {
+    assertThat(AllocationGate.check(Map.of("A#a", new double[] {0, 16}), Map.of(), 0.10))
+        .isEmpty();
+  }
+
+  @Test
+  void readBaselineOfMissingFile(@TempDir Path directory) throws IOException {
+    assertThat(AllocationGate.readBaseline(directory.resolve("missing.tsv"))).isEmpty();
+  }
+
+  @Test
+  void readBaseline(@TempDir Path directory) throws IOException {
+    Path baseline = directory.resolve("baseline.tsv");
+    Files.write(baseline, List.of("# Comment", "", "A#a\t1.25", "  A#b 2.00  "), UTF_8);
+
+    assertThat(AllocationGate.readBaseline(baseline))
+        .containsExactlyInAnyOrderEntriesOf(Map.of("A#a", 1.25, "A#b", 2.0));
+  }
+
+  @Test
+  void writeBaseline(@TempDir Path directory) throws IOException {
+    Path baseline = directory.resolve("baseline.tsv");
+    AllocationGate.writeBaseline(
+        baseline, Map.of("A#a", new double[] {100, 124.5}, "A#b", new double[] {100, 90}));
+
+    assertThat(Files.readAllLines(baseline, UTF_8))
+        .contains(
+            "# Measured by TemplatePairBenchmark using `-prof gc`: 1 fork(s), 3 warmup and 5"
+                + " measurement iterations of 1 seconds each.")
+        .endsWith("A#a\t1.25");
+    assertThat(AllocationGate.readBaseline(baseline))
+        .containsExactlyInAnyOrderEntriesOf(Map.of("A#a", 1.25));
+  }
+
+  @Test
+  void readBaselineRejectsMalformedEntry(@TempDir Path directory) throws IOException {
+    Path baseline = directory.resolve("baseline.tsv");
+    Files.write(baseline, List.of("A#a"), UTF_8);
+
+    assertThatThrownBy(() -> AllocationGate.readBaseline(baseline))
+        .isInstanceOf(IOException.class)
+        .hasMessage("Malformed allocation baseline entry: A#a");
+  }
+}
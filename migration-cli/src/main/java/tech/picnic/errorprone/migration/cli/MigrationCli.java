@@ -0,0 +1,462 @@
+package tech.picnic.errorprone.migration.cli;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.stream.Collectors.joining;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import tech.picnic.errorprone.migration.driver.MigrationCache;
+import tech.picnic.errorprone.migration.driver.PhasedMigrationDriver;
+import tech.picnic.errorprone.migration.driver.TemplateBundles;
+import tech.picnic.errorprone.migration.driver.TemplateProfiler;
+import tech.picnic.errorprone.migration.driver.TemplateRepository;
+
+/**
+ * A command-line tool that applies the RxJava to Reactor migration to a source tree.
+ *
+ * <p>Each source file is migrated using a {@link PhasedMigrationDriver}, which compiles only the
+ * file at hand and resolves the rest of the code base through the {@code -sourcepath} and {@code
+ * -classpath}. Files are therefore migrated independently: a configurable number of threads each
+ * hold a single compilation unit in memory at a time, and the files of a code base can be split
+ * into shards to be migrated by separate JVMs, e.g. on separate machines.
+ *
+ * <p>The result is either written as a unified diff, streamed to standard output or a file, or
+ * applied to the source files in place. In the latter case, the migrated content of each file is
+ * written to a temporary file next to it as soon as it is available, so that the migrated code
+ * base is never held in memory; the source files are only overwritten once all of them have been
+ * migrated successfully, each by an atomic move of its temporary file.
+ *
+ * <p>Files that do not compile are skipped, rather than treated as failures. Unless {@code
+ * --processor-path} is given, annotation processing is disabled, so this includes files that
+ * depend on generated code, e.g. code generated by Lombok or AutoValue.
+ */
+public final class MigrationCli {
+  private static final String USAGE =
+      String.join(
+          "\n",
+          "Usage: migration-cli --source-path <dir>[" + File.pathSeparator + "<dir>...]",
+          "                     --templates <bundle directory or .refaster file> [options]",
+          "",
+          "Options:",
+          "  --classpath <path>        The classpath of the code to be migrated.",
+          "  --processor-path <path>   The annotation processors, e.g. Lombok or AutoValue, to",
+          "                            run when compiling the source files; by default, files",
+          "                            that depend on generated code are skipped.",
+          "  --threads <n>             The number of files to migrate concurrently; defaults to",
+          "                            the number of available processors.",
+          "  --shard <i>/<n>           Only migrate the i-th of n (zero-based) equally sized",
+          "                            subsets of the source files.",
+          "  --in-place                Overwrite the migrated source files once all of them have",
+          "                            been migrated, rather than writing a unified diff. Until",
+          "                            then, the migrated files are stored next to the originals.",
+          "  --output <file>           The file to write the unified diff to; defaults to",
+          "                            standard output.",
+          "  --max-iterations <n>      The maximum number of rounds per migration phase.",
+          "  --profile <file>          The file to write a per-template matching cost report to.",
+          "  --cache <dir>             The directory in which to cache migration results, so that",
+          "                            subsequent runs skip unchanged files.");
+
+  private MigrationCli() {}
+
+  /**
+   * Runs the migration.
+   *
+   * @param args The command-line arguments; invoke without arguments for usage information.
+   */
+  public static void main(String[] args) {
+    System.exit(run(args));
+  }
+
+  /**
+   * Runs the migration, reporting progress and errors to standard error.
+   *
+   * @param args The command-line arguments.
+   * @return The exit code: {@code 0} if all files were migrated or skipped, {@code 1} if some
+   *     files failed to migrate, or {@code 2} if the arguments are invalid.
+   */
+  static int run(String... args) {
+    try {
+      return run(Options.parse(args));
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.println(USAGE);
+      return 2;
+    } catch (IOException | UncheckedIOException | InterruptedException e) {
+      e.printStackTrace(System.err);
+      return 1;
+    }
+  }
+
+  private static int run(Options options) throws IOException, InterruptedException {
+    Optional<Path> generatedSources =
+        options.processorPath.isPresent()
+            ? Optional.of(Files.createTempDirectory("migration-generated-sources"))
+            : Optional.empty();
+    Queue<StagedMigration> stagedMigrations = new ConcurrentLinkedQueue<>();
+    try {
+      return migrateAll(options, generatedSources, stagedMigrations);
+    } finally {
+      /* Removes the temporary files of migrations that were not moved into place. */
+      stagedMigrations.forEach(StagedMigration::discard);
+      if (generatedSources.isPresent()) {
+        MoreFiles.deleteRecursively(generatedSources.get(), RecursiveDeleteOption.ALLOW_INSECURE);
+      }
+    }
+  }
+
+  private static int migrateAll(
+      Options options, Optional<Path> generatedSources, Queue<StagedMigration> stagedMigrations)
+      throws IOException, InterruptedException {
+    PhasedMigrationDriver driver =
+        PhasedMigrationDriver.create(
+            loadTemplates(options.templates),
+            options.javacOptions(generatedSources),
+            options.maxIterations);
+    Optional<TemplateProfiler> profiler = options.profile.map(p -> new TemplateProfiler());
+    if (profiler.isPresent()) {
+      driver = driver.withProfiler(profiler.get());
+    }
+    if (options.cache.isPresent()) {
+      driver =
+          driver.withCache(
+              MigrationCache.open(
+                  options.cache.get(), TemplateBundles.fingerprint(options.templates)));
+    }
+
+    ImmutableList<SourceFile> files = options.shard(findSourceFiles(options.sourcePath));
+    AtomicInteger failures = new AtomicInteger();
+    AtomicInteger skipped = new AtomicInteger();
+    try (Writer diffOut =
+        options.output.isPresent()
+            ? Files.newBufferedWriter(options.output.get(), UTF_8)
+            : new OutputStreamWriter(new NonClosingPrintStream(System.out), UTF_8)) {
+      UnifiedDiffWriter diffWriter = new UnifiedDiffWriter(diffOut);
+      ExecutorService executor = Executors.newFixedThreadPool(options.threads);
+      PhasedMigrationDriver migrationDriver = driver;
+      for (SourceFile file : files) {
+        executor.execute(
+            () -> {
+              try {
+                String original = Files.readString(file.path, UTF_8);
+                Optional<String> migrated = migrationDriver.migrate(file.relativeName, original);
+                if (migrated.isEmpty()) {
+                  System.err.println("Skipped " + file.path + ": the file does not compile");
+                  skipped.incrementAndGet();
+                } else if (!migrated.get().equals(original)) {
+                  if (options.inPlace) {
+                    stagedMigrations.add(
+                        StagedMigration.stage(file.path, original, migrated.get()));
+                  } else {
+                    diffWriter.write(file.diffName(), original, migrated.get());
+                  }
+                }
+              } catch (Throwable t) {
+                System.err.println("Failed to migrate " + file.path + ": " + t);
+                failures.incrementAndGet();
+              }
+            });
+      }
+      executor.shutdown();
+      executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    if (options.inPlace) {
+      if (failures.get() == 0) {
+        failures.addAndGet(moveIntoPlace(stagedMigrations));
+      } else {
+        System.err.println("Not overwriting any source files, as some failed to migrate");
+      }
+    }
+    if (skipped.get() > 0) {
+      System.err.printf(
+          "Skipped %d file(s) that do not compile; if they depend on code generated by annotation"
+              + " processors, e.g. Lombok or AutoValue, pass these using --processor-path%n",
+          skipped.get());
+    }
+    if (profiler.isPresent()) {
+      profiler.get().writeReport(options.profile.get());
+    }
+    return failures.get() == 0 ? 0 : 1;
+  }
+
+  /**
+   * Overwrites the source files of the given staged migrations with their migrated content, once
+   * all files have been migrated. Each file is replaced atomically, such that an interrupted run
+   * leaves no partially written files behind, and only if it did not change since it was read.
+   *
+   * @return The number of files that could not be overwritten.
+   */
+  private static int moveIntoPlace(Queue<StagedMigration> stagedMigrations) {
+    int failures = 0;
+    for (StagedMigration migration : stagedMigrations) {
+      try {
+        migration.moveIntoPlace();
+      } catch (IOException e) {
+        System.err.println("Failed to overwrite " + migration.path + ": " + e);
+        failures++;
+      }
+    }
+    return failures;
+  }
+
+  private static TemplateRepository loadTemplates(Path templates) throws IOException {
+    return Files.isDirectory(templates)
+        ? TemplateRepository.fromDirectory(templates)
+        : TemplateRepository.of(TemplateBundles.load(templates));
+  }
+
+  private static ImmutableList<SourceFile> findSourceFiles(List<Path> sourceRoots)
+      throws IOException {
+    ImmutableList.Builder<SourceFile> files = ImmutableList.builder();
+    for (Path root : sourceRoots) {
+      try (Stream<Path> paths = Files.walk(root)) {
+        paths
+            .filter(p -> p.toString().endsWith(".java") && Files.isRegularFile(p))
+            .sorted()
+            .forEach(p -> files.add(new SourceFile(p, root.relativize(p).toString())));
+      }
+    }
+    return files.build();
+  }
+
+  /** A source file, along with its name relative to the source root in which it resides. */
+  private static final class SourceFile {
+    private final Path path;
+    private final String relativeName;
+
+    SourceFile(Path path, String relativeName) {
+      this.path = path;
+      this.relativeName = relativeName;
+    }
+
+    /** Returns the name of this file relative to the working directory, using forward slashes. */
+    String diffName() {
+      return Path.of("")
+          .toAbsolutePath()
+          .relativize(path.toAbsolutePath())
+          .toString()
+          .replace(File.separatorChar, '/');
+    }
+  }
+
+  /**
+   * A source file that was changed by the migration, whose migrated content is stored in a
+   * temporary file next to it until it can be moved into place.
+   */
+  private static final class StagedMigration {
+    private final Path path;
+    private final Path temp;
+    private final HashCode originalHash;
+
+    private StagedMigration(Path path, Path temp, HashCode originalHash) {
+      this.path = path;
+      this.temp = temp;
+      this.originalHash = originalHash;
+    }
+
+    /** Writes the migrated content of the given file to a temporary file next to it. */
+    static StagedMigration stage(Path path, String original, String migrated) throws IOException {
+      /* Unlike `Files#createTempFile`, this gives the file the default permissions. */
+      Path temp = path.resolveSibling("." + path.getFileName() + ".migration.tmp");
+      try {
+        Files.writeString(temp, migrated, UTF_8);
+      } catch (IOException e) {
+        Files.deleteIfExists(temp);
+        throw e;
+      }
+      return new StagedMigration(path, temp, hash(original));
+    }
+
+    /** Replaces the source file by the migrated one, unless it was modified in the meantime. */
+    void moveIntoPlace() throws IOException {
+      if (!hash(Files.readString(path, UTF_8)).equals(originalHash)) {
+        throw new IOException("File was modified during the migration");
+      }
+      Files.move(temp, path, ATOMIC_MOVE, REPLACE_EXISTING);
+    }
+
+    /** Deletes the temporary file, if it was not moved into place. */
+    void discard() {
+      try {
+        Files.deleteIfExists(temp);
+      } catch (IOException e) {
+        System.err.println("Failed to delete " + temp + ": " + e);
+      }
+    }
+
+    private static HashCode hash(String content) {
+      return Hashing.sha256().hashString(content, UTF_8);
+    }
+  }
+
+  private static final class Options {
+    private final List<Path> sourcePath = new ArrayList<>();
+    private Optional<String> classpath = Optional.empty();
+    private Optional<String> processorPath = Optional.empty();
+    private Path templates;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int shardIndex = 0;
+    private int shardCount = 1;
+    private boolean inPlace = false;
+    private Optional<Path> output = Optional.empty();
+    private int maxIterations = PhasedMigrationDriver.DEFAULT_MAX_ITERATIONS;
+    private Optional<Path> profile = Optional.empty();
+    private Optional<Path> cache = Optional.empty();
+
+    static Options parse(String[] args) {
+      Options options = new Options();
+      for (int i = 0; i < args.length; i++) {
+        switch (args[i]) {
+          case "--source-path":
+            for (String root : value(args, ++i).split(File.pathSeparator)) {
+              options.sourcePath.add(Path.of(root));
+            }
+            break;
+          case "--classpath":
+            options.classpath = Optional.of(value(args, ++i));
+            break;
+          case "--processor-path":
+            options.processorPath = Optional.of(value(args, ++i));
+            break;
+          case "--templates":
+            options.templates = Path.of(value(args, ++i));
+            break;
+          case "--threads":
+            options.threads = positiveInt(args, ++i);
+            break;
+          case "--shard":
+            String[] shard = value(args, ++i).split("/", -1);
+            try {
+              options.shardIndex = Integer.parseInt(shard[0]);
+              options.shardCount = Integer.parseInt(shard[shard.length - 1]);
+            } catch (NumberFormatException e) {
+              throw new IllegalArgumentException("Invalid shard: " + args[i], e);
+            }
+            if (shard.length != 2
+                || options.shardIndex < 0
+                || options.shardIndex >= options.shardCount) {
+              throw new IllegalArgumentException("Invalid shard: " + args[i]);
+            }
+            break;
+          case "--in-place":
+            options.inPlace = true;
+            break;
+          case "--output":
+            options.output = Optional.of(Path.of(value(args, ++i)));
+            break;
+          case "--max-iterations":
+            options.maxIterations = positiveInt(args, ++i);
+            break;
+          case "--profile":
+            options.profile = Optional.of(Path.of(value(args, ++i)));
+            break;
+          case "--cache":
+            options.cache = Optional.of(Path.of(value(args, ++i)));
+            break;
+          default:
+            throw new IllegalArgumentException("Unknown option: " + args[i]);
+        }
+      }
+
+      if (options.sourcePath.isEmpty() || options.templates == null) {
+        throw new IllegalArgumentException("Both --source-path and --templates are required");
+      }
+      if (options.inPlace && options.output.isPresent()) {
+        throw new IllegalArgumentException("--in-place and --output are mutually exclusive");
+      }
+      return options;
+    }
+
+    /**
+     * Returns the options with which to compile the source files. If annotation processing is
+     * enabled, the generated files are written to the given directory, rather than next to the
+     * sources.
+     */
+    ImmutableList<String> javacOptions(Optional<Path> generatedSources) {
+      ImmutableList.Builder<String> javacOptions = ImmutableList.builder();
+      javacOptions.add(
+          "-sourcepath",
+          sourcePath.stream().map(Path::toString).collect(joining(File.pathSeparator)));
+      classpath.ifPresent(cp -> javacOptions.add("-classpath", cp));
+      if (processorPath.isPresent() && generatedSources.isPresent()) {
+        javacOptions.add(
+            "-processorpath",
+            processorPath.get(),
+            "-s",
+            generatedSources.get().toString(),
+            "-d",
+            generatedSources.get().toString());
+      }
+      return javacOptions.build();
+    }
+
+    /**
+     * Returns the subset of the given files that belong to the selected shard. As the files are
+     * listed in a deterministic order, the shards of separate invocations are disjoint.
+     */
+    ImmutableList<SourceFile> shard(ImmutableList<SourceFile> files) {
+      return IntStream.range(0, files.size())
+          .filter(i -> i % shardCount == shardIndex)
+          .mapToObj(files::get)
+          .collect(toImmutableList());
+    }
+
+    private static String value(String[] args, int index) {
+      if (index >= args.length) {
+        throw new IllegalArgumentException("Missing value for option " + args[index - 1]);
+      }
+      return args[index];
+    }
+
+    private static int positiveInt(String[] args, int index) {
+      String value = value(args, index);
+      try {
+        int result = Integer.parseInt(value);
+        if (result > 0) {
+          return result;
+        }
+      } catch (NumberFormatException e) {
+        /* Reported below. */
+      }
+      throw new IllegalArgumentException(
+          "Expected a positive integer for option " + args[index - 1] + ", got " + value);
+    }
+  }
+
+  /** Prevents closing the diff writer from closing {@link System#out}. */
+  private static final class NonClosingPrintStream extends PrintStream {
+    NonClosingPrintStream(PrintStream delegate) {
+      super(delegate, /* autoFlush= */ false, UTF_8);
+    }
+
+    @Override
+    public void close() {
+      flush();
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package tech.picnic.errorprone.migration.cli;
+
+import static java.util.stream.Collectors.toList;
+
+import com.github.difflib.DiffUtils;
+import com.github.difflib.UnifiedDiffUtils;
+import com.github.difflib.patch.Patch;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes the changes made to source files as a unified diff that can be applied using {@code git
+ * apply} or {@code patch -p1}.
+ *
+ * <p>The diff of each file is written, and flushed, as soon as it is available, so that the diff
+ * of a large code base is never held in memory. This class is thread-safe: the hunks of
+ * concurrently reported files are never interleaved.
+ */
+final class UnifiedDiffWriter {
+  private static final int CONTEXT_LINES = 3;
+
+  private final Writer out;
+
+  UnifiedDiffWriter(Writer out) {
+    this.out = out;
+  }
+
+  /**
+   * Writes the diff between the given original and migrated content of a file.
+   *
+   * @param path The path of the file, relative to the root of the diff.
+   * @param original The original content of the file.
+   * @param migrated The migrated content of the file.
+   */
+  void write(String path, String original, String migrated) {
+    List<String> originalLines = original.lines().collect(toList());
+    Patch<String> patch = DiffUtils.diff(originalLines, migrated.lines().collect(toList()));
+    List<String> diff =
+        UnifiedDiffUtils.generateUnifiedDiff(
+            "a/" + path, "b/" + path, originalLines, patch, CONTEXT_LINES);
+
+    synchronized (out) {
+      try {
+        for (String line : diff) {
+          out.write(line);
+          out.write('\n');
+        }
+        out.flush();
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to write diff of " + path, e);
+      }
+    }
+  }
+}
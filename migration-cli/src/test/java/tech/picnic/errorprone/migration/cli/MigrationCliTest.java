@@ -0,0 +1,221 @@
+package tech.picnic.errorprone.migration.cli;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.joining;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import javax.tools.ToolProvider;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+final class MigrationCliTest {
+  @TempDir static Path templateDirectory;
+  private static Path bundle;
+
+  @TempDir Path workDirectory;
+
+  /** Compiles a template bundle using the Refaster rule compiler, as the build does. */
+  @BeforeAll
+  static void compileTemplates() throws IOException {
+    Path template = templateDirectory.resolve("pkg/RxJavaStringToReactorTemplates.java");
+    Files.createDirectories(template.getParent());
+    Files.writeString(
+        template,
+        source(
+            "package pkg;",
+            "",
+            "import com.google.errorprone.refaster.annotation.AfterTemplate;",
+            "import com.google.errorprone.refaster.annotation.BeforeTemplate;",
+            "",
+            "final class RxJavaStringToReactorTemplates {",
+            "  static final class StringTrim {",
+            "    @BeforeTemplate",
+            "    String before(String s) {",
+            "      return s.trim();",
+            "    }",
+            "",
+            "    @AfterTemplate",
+            "    String after(String s) {",
+            "      return s.strip();",
+            "    }",
+            "  }",
+            "}"),
+        UTF_8);
+    bundle = templateDirectory.resolve("RxJavaStringToReactorTemplates.refaster");
+
+    assertThat(
+            ToolProvider.getSystemJavaCompiler()
+                .run(
+                    null,
+                    null,
+                    null,
+                    "-proc:none",
+                    "-classpath",
+                    System.getProperty("java.class.path"),
+                    "-d",
+                    templateDirectory.toString(),
+                    "-Xplugin:RefasterRuleCompiler --out " + bundle,
+                    template.toString()))
+        .isZero();
+  }
+
+  @Test
+  void invalidArguments() {
+    assertThat(MigrationCli.run()).isEqualTo(2);
+    assertThat(MigrationCli.run("--source-path", "src")).isEqualTo(2);
+    assertThat(MigrationCli.run("--source-path", "src", "--templates")).isEqualTo(2);
+    assertThat(MigrationCli.run("--source-path", "src", "--templates", "t", "--unknown"))
+        .isEqualTo(2);
+    assertThat(MigrationCli.run("--source-path", "src", "--templates", "t", "--threads", "0"))
+        .isEqualTo(2);
+    assertThat(MigrationCli.run("--source-path", "src", "--templates", "t", "--threads", "x"))
+        .isEqualTo(2);
+    assertThat(MigrationCli.run("--source-path", "src", "--templates", "t", "--shard", "1"))
+        .isEqualTo(2);
+    assertThat(MigrationCli.run("--source-path", "src", "--templates", "t", "--shard", "2/2"))
+        .isEqualTo(2);
+    assertThat(MigrationCli.run("--source-path", "src", "--templates", "t", "--shard", "-1/2"))
+        .isEqualTo(2);
+    assertThat(MigrationCli.run("--source-path", "src", "--templates", "t", "--shard", "0/1/2"))
+        .isEqualTo(2);
+    assertThat(
+            MigrationCli.run(
+                "--source-path", "src", "--templates", "t", "--in-place", "--output", "diff"))
+        .isEqualTo(2);
+  }
+
+  @Test
+  void diffOutput() throws IOException {
+    Path sourceRoot = workDirectory.resolve("src");
+    writeSource(sourceRoot, "A", "s.trim()");
+    writeSource(sourceRoot, "B", "s.strip()");
+    Path diff = workDirectory.resolve("migration.diff");
+
+    assertThat(
+            MigrationCli.run(
+                "--source-path",
+                sourceRoot.toString(),
+                "--templates",
+                bundle.toString(),
+                "--output",
+                diff.toString()))
+        .isEqualTo(0);
+
+    assertThat(Files.readAllLines(diff, UTF_8))
+        .anySatisfy(line -> assertThat(line).startsWith("--- a/").endsWith("pkg/A.java"))
+        .anySatisfy(line -> assertThat(line).startsWith("+++ b/").endsWith("pkg/A.java"))
+        .contains("@@ -2,6 +2,6 @@", "-    return s.trim();", "+    return s.strip();")
+        .noneSatisfy(line -> assertThat(line).contains("B.java"));
+    assertThat(sourceRoot.resolve("pkg/A.java")).hasContent(sourceOf("A", "s.trim()"));
+  }
+
+  @Test
+  void shardsPartitionTheSourceFiles() throws IOException {
+    Path sourceRoot = workDirectory.resolve("src");
+    writeSource(sourceRoot, "A", "s.trim()");
+    writeSource(sourceRoot, "B", "s.trim()");
+    writeSource(sourceRoot, "C", "s.trim()");
+
+    assertThat(migratedFiles(sourceRoot, "0/2")).isEqualTo("A.java C.java");
+    assertThat(migratedFiles(sourceRoot, "1/2")).isEqualTo("B.java");
+    assertThat(migratedFiles(sourceRoot, "0/1")).isEqualTo("A.java B.java C.java");
+  }
+
+  @Test
+  void inPlace() throws IOException {
+    Path sourceRoot = workDirectory.resolve("src");
+    writeSource(sourceRoot, "A", "s.trim()");
+    writeSource(sourceRoot, "B", "s.strip()");
+
+    assertThat(
+            MigrationCli.run(
+                "--source-path",
+                sourceRoot.toString(),
+                "--templates",
+                bundle.toString(),
+                "--in-place"))
+        .isEqualTo(0);
+
+    assertThat(sourceRoot.resolve("pkg/A.java")).hasContent(sourceOf("A", "s.strip()"));
+    assertThat(sourceRoot.resolve("pkg/B.java")).hasContent(sourceOf("B", "s.strip()"));
+    assertThat(listFiles(sourceRoot.resolve("pkg"))).isEqualTo("A.java B.java");
+  }
+
+  @Test
+  void nonCompilingFilesAreSkipped() throws IOException {
+    Path sourceRoot = workDirectory.resolve("src");
+    writeSource(sourceRoot, "A", "s.trim()");
+    writeSource(sourceRoot, "B", "s.trim() + undefined");
+
+    assertThat(
+            MigrationCli.run(
+                "--source-path",
+                sourceRoot.toString(),
+                "--templates",
+                bundle.toString(),
+                "--in-place"))
+        .isEqualTo(0);
+
+    assertThat(sourceRoot.resolve("pkg/A.java")).hasContent(sourceOf("A", "s.strip()"));
+    assertThat(sourceRoot.resolve("pkg/B.java"))
+        .hasContent(sourceOf("B", "s.trim() + undefined"));
+    assertThat(listFiles(sourceRoot.resolve("pkg"))).isEqualTo("A.java B.java");
+  }
+
+  /** Returns the names of the files changed by migrating the given shard, separated by spaces. */
+  private String migratedFiles(Path sourceRoot, String shard) throws IOException {
+    Path diff = workDirectory.resolve("shard.diff");
+    assertThat(
+            MigrationCli.run(
+                "--source-path",
+                sourceRoot.toString(),
+                "--templates",
+                bundle.toString(),
+                "--shard",
+                shard,
+                "--output",
+                diff.toString()))
+        .isEqualTo(0);
+
+    try (Stream<String> lines = Files.lines(diff, UTF_8)) {
+      return lines
+          .filter(line -> line.startsWith("+++ "))
+          .map(line -> line.substring(line.lastIndexOf('/') + 1))
+          .sorted()
+          .collect(joining(" "));
+    }
+  }
+
+  private static String listFiles(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.map(file -> file.getFileName().toString()).sorted().collect(joining(" "));
+    }
+  }
+
+  private static void writeSource(Path sourceRoot, String className, String expression)
+      throws IOException {
+    Path file = sourceRoot.resolve("pkg/" + className + ".java");
+    Files.createDirectories(file.getParent());
+    Files.writeString(file, sourceOf(className, expression), UTF_8);
+  }
+
+  private static String sourceOf(String className, String expression) {
+    return source(
+        "package pkg;",
+        "",
+        "class " + className + " {",
+        "  String m(String s) {",
+        "    return " + expression + ";",
+        "  }",
+        "}");
+  }
+
+  private static String source(String... lines) {
+    return Stream.of(lines).collect(joining("\n", "", "\n"));
+  }
+}
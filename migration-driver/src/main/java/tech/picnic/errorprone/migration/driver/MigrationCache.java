@@ -0,0 +1,158 @@
+package tech.picnic.errorprone.migration.driver;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An on-disk cache of migration results, which allows repeated migrations of a code base to skip
+ * the files that did not change since the previous run.
+ *
+ * <p>Entries are keyed on the content of a source file, its name, the configuration of the driver
+ * and the version of the applied templates. For a file that the templates do not change, an empty
+ * marker file is stored; otherwise the migrated content of the file is stored.
+ *
+ * <p>Only migrations of files that were found to compile are stored: a file that does not compile
+ * is migrated again on the next run, as is a file that no template can match, which is cheap to
+ * migrate, as it is not compiled at all.
+ *
+ * <p>Changes to other files of the code base do not invalidate an entry, even though they may
+ * affect whether the file's code matches a template. Changes to the templates do, as do changes to
+ * the classpath: both its entries and the size and modification time of each JAR file on it are
+ * part of the key. The content of directories on the classpath, e.g. the class output of another
+ * module, is not; should such a directory or the rest of the source tree change substantially,
+ * clear the cache directory.
+ *
+ * <p>Entries are written atomically, so that a cache directory may be shared by concurrent
+ * migrations.
+ */
+public final class MigrationCache {
+  private static final String UNCHANGED_SUFFIX = ".unchanged";
+  private static final String MIGRATED_SUFFIX = ".migrated";
+  private static final ImmutableSet<String> CLASSPATH_OPTIONS =
+      ImmutableSet.of("-classpath", "-cp", "--class-path");
+
+  private final Path directory;
+  private final String templateVersion;
+
+  private MigrationCache(Path directory, String templateVersion) {
+    this.directory = directory;
+    this.templateVersion = templateVersion;
+  }
+
+  /**
+   * Opens the cache in the given directory, creating the directory if necessary.
+   *
+   * @param directory The directory in which to store cache entries.
+   * @param templateVersion A string that identifies the applied templates, e.g. as computed using
+   *     {@link TemplateBundles#fingerprint(Path)}; entries stored for other template versions are
+   *     ignored.
+   * @return The cache.
+   * @throws IOException If the directory cannot be created.
+   */
+  public static MigrationCache open(Path directory, String templateVersion) throws IOException {
+    Files.createDirectories(directory);
+    return new MigrationCache(directory, templateVersion);
+  }
+
+  /**
+   * Looks up the result of migrating the given source file.
+   *
+   * @param fileName The name of the file.
+   * @param source The content of the file.
+   * @param configuration A description of the configuration with which the file is migrated.
+   * @return The migrated content of the file, if cached.
+   */
+  Optional<String> lookup(String fileName, String source, String configuration) {
+    Path entry = entry(fileName, source, configuration);
+    try {
+      if (Files.exists(entry.resolveSibling(entry.getFileName() + UNCHANGED_SUFFIX))) {
+        return Optional.of(source);
+      }
+      Path migrated = entry.resolveSibling(entry.getFileName() + MIGRATED_SUFFIX);
+      return Files.exists(migrated)
+          ? Optional.of(Files.readString(migrated, UTF_8))
+          : Optional.empty();
+    } catch (IOException e) {
+      /* A corrupt or concurrently removed entry is treated as a cache miss. */
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Stores the result of successfully migrating the given source file, which must have been found
+   * to compile.
+   *
+   * @param fileName The name of the file.
+   * @param source The original content of the file.
+   * @param configuration A description of the configuration with which the file was migrated.
+   * @param migrated The migrated content of the file.
+   */
+  void store(String fileName, String source, String configuration, String migrated) {
+    Path entry = entry(fileName, source, configuration);
+    boolean unchanged = migrated.equals(source);
+    String suffix = unchanged ? UNCHANGED_SUFFIX : MIGRATED_SUFFIX;
+    Path target = entry.resolveSibling(entry.getFileName() + suffix);
+    try {
+      Files.createDirectories(target.getParent());
+      Path temp = Files.createTempFile(target.getParent(), "entry", ".tmp");
+      Files.writeString(temp, unchanged ? "" : migrated, UTF_8);
+      Files.move(temp, target, ATOMIC_MOVE, REPLACE_EXISTING);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to store cache entry for " + fileName, e);
+    }
+  }
+
+  /**
+   * Describes the JAR files on the classpath specified by the given compiler options, such that the
+   * description changes whenever one of them is replaced or modified.
+   *
+   * @param javacOptions The options with which source files are compiled.
+   * @return A description of the size and modification time of each JAR file on the classpath.
+   */
+  static String describeClasspath(List<String> javacOptions) {
+    StringBuilder description = new StringBuilder();
+    for (int i = 0; i < javacOptions.size() - 1; i++) {
+      if (CLASSPATH_OPTIONS.contains(javacOptions.get(i))) {
+        for (String entry : javacOptions.get(i + 1).split(File.pathSeparator, -1)) {
+          Path path = Path.of(entry);
+          try {
+            if (Files.isRegularFile(path)) {
+              description
+                  .append(entry)
+                  .append(':')
+                  .append(Files.size(path))
+                  .append(':')
+                  .append(Files.getLastModifiedTime(path).toMillis())
+                  .append('\n');
+            }
+          } catch (IOException e) {
+            throw new UncheckedIOException("Failed to inspect classpath entry " + entry, e);
+          }
+        }
+      }
+    }
+    return description.toString();
+  }
+
+  /** Returns the path of the cache entry, without suffix, for the given migration input. */
+  private Path entry(String fileName, String source, String configuration) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    for (String part : new String[] {templateVersion, configuration, fileName, source}) {
+      hasher.putInt(part.length()).putString(part, UTF_8);
+    }
+    String key = hasher.hash().toString();
+    return directory.resolve(key.substring(0, 2)).resolve(key.substring(2));
+  }
+}
@@ -0,0 +1,75 @@
+package tech.picnic.errorprone.migration.driver;
+
+import com.google.errorprone.CodeTransformer;
+import com.google.errorprone.refaster.RefasterRule;
+
+/**
+ * The phases in which the Refaster templates of the RxJava to Reactor migration are applied.
+ *
+ * <p>Each phase consumes the output of the previous one: the unwrap templates only match the code
+ * produced by the migration templates, and the cleanup templates only match the code produced by
+ * the unwrap templates. The {@link #BRIDGE} phase is special: as it rewrites the conversions that
+ * the other phases match, it is only applied once the other phases have reached a fixpoint.
+ */
+public enum MigrationPhase {
+  /** The {@code RxJava*ToReactorTemplates}, which replace RxJava operators with Reactor ones. */
+  MIGRATION,
+  /** The {@code RxJavaUnwrapTemplates}, which remove the conversions introduced by migration. */
+  UNWRAP,
+  /**
+   * The assorted {@code RxJavaToReactorTemplates} and {@code RxJavaToReactorForkTemplates}, which
+   * simplify the migrated code.
+   */
+  CLEANUP,
+  /**
+   * The {@code RxJavaReactorBridgeTemplates}, which replace the remaining {@code RxJava2Adapter}
+   * conversions with {@code RxJavaReactorBridge} ones.
+   */
+  BRIDGE;
+
+  /**
+   * Returns the phase in which the given Refaster rule is applied, based on the name of its
+   * template class.
+   *
+   * @param transformer The Refaster rule, as loaded from a compiled template bundle.
+   * @return The phase in which the rule is applied.
+   */
+  public static MigrationPhase of(CodeTransformer transformer) {
+    return transformer instanceof RefasterRule
+        ? of(templateClassName((RefasterRule<?, ?>) transformer))
+        : CLEANUP;
+  }
+
+  /**
+   * Returns the phase to which the templates of the given template class belong.
+   *
+   * @param templateClassName The simple name of the template class, e.g. {@code
+   *     RxJavaFlowableToReactorTemplates}.
+   * @return The phase in which the templates are applied.
+   */
+  public static MigrationPhase of(String templateClassName) {
+    if (templateClassName.equals("RxJavaUnwrapTemplates")) {
+      return UNWRAP;
+    }
+    if (templateClassName.equals("RxJavaToReactorTemplates")
+        || templateClassName.equals("RxJavaToReactorForkTemplates")) {
+      return CLEANUP;
+    }
+    if (templateClassName.equals("RxJavaReactorBridgeTemplates")) {
+      return BRIDGE;
+    }
+    return MIGRATION;
+  }
+
+  /**
+   * Returns the simple name of the class enclosing the given rule's template, e.g. {@code
+   * RxJavaFlowableToReactorTemplates} for {@code
+   * tech.picnic.errorprone.refastertemplates.RxJavaFlowableToReactorTemplates.FlowableMap}.
+   */
+  static String templateClassName(RefasterRule<?, ?> rule) {
+    String name = rule.qualifiedTemplateClass();
+    int end = name.lastIndexOf('.');
+    int start = name.lastIndexOf('.', end - 1);
+    return end < 0 ? name : name.substring(start + 1, end);
+  }
+}
@@ -0,0 +1,460 @@
+package tech.picnic.errorprone.migration.driver;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.errorprone.CodeTransformer;
+import com.google.errorprone.DescriptionListener;
+import com.google.errorprone.apply.DescriptionBasedDiff;
+import com.google.errorprone.apply.ImportOrganizer;
+import com.google.errorprone.apply.SourceFile;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.TreePath;
+import com.sun.tools.javac.api.BasicJavacTask;
+import com.sun.tools.javac.tree.JCTree.JCCompilationUnit;
+import com.sun.tools.javac.util.Context;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * Applies the Refaster templates of the RxJava to Reactor migration to a source file in phases,
+ * re-applying each phase until it reaches a fixpoint.
+ *
+ * <p>The templates of a later {@link MigrationPhase} only match the output of an earlier one, and
+ * some templates only match the output of other templates in the same phase. Rather than running
+ * a full build per round of template application, this driver keeps the source in memory: after
+ * each round it re-parses and re-attributes only the edited file, and it applies the same phase
+ * again until the source no longer changes or {@link #maxIterations()} rounds have been done.
+ *
+ * <p>If a round produces source that no longer compiles, the rules responsible are identified by
+ * applying each of the round's matching rules on its own; these rules are excluded from further
+ * rounds for the file, and the round is redone without them. Should no single rule be at fault,
+ * all rules that matched in the round are excluded instead. Once all phases are done, they are
+ * applied again for as long as that changes the source, as the output of a later phase may be
+ * matched by the templates of an earlier one. Finally, the {@link MigrationPhase#BRIDGE} phase
+ * replaces the remaining {@code RxJava2Adapter} conversions.
+ */
+public final class PhasedMigrationDriver {
+  /** The default maximum number of rounds per phase, and of passes over all phases. */
+  public static final int DEFAULT_MAX_ITERATIONS = 5;
+
+  /** The javac options, other than {@code -proc:}, that configure annotation processing. */
+  private static final ImmutableSet<String> ANNOTATION_PROCESSING_OPTIONS =
+      ImmutableSet.of(
+          "-processor", "-processorpath", "--processor-path", "--processor-module-path");
+
+  private final TemplateRepository templates;
+  private final ImmutableList<String> javacOptions;
+  private final int maxIterations;
+  private final Optional<TemplateProfiler> profiler;
+  private final Optional<MigrationCache> cache;
+  private final Supplier<String> cacheConfiguration;
+
+  private PhasedMigrationDriver(
+      TemplateRepository templates,
+      ImmutableList<String> javacOptions,
+      int maxIterations,
+      Optional<TemplateProfiler> profiler,
+      Optional<MigrationCache> cache) {
+    this.templates = templates;
+    this.javacOptions = javacOptions;
+    this.maxIterations = maxIterations;
+    this.profiler = profiler;
+    this.cache = cache;
+    this.cacheConfiguration = Suppliers.memoize(this::describeConfiguration);
+  }
+
+  /**
+   * Creates a driver for the given Refaster rules.
+   *
+   * @param rules The rules to apply, e.g. as loaded using {@link TemplateBundles#load(
+   *     java.nio.file.Path)}. Each rule is assigned a phase using {@link
+   *     MigrationPhase#of(CodeTransformer)}, and is considered for every compilation unit.
+   * @param javacOptions The options with which to compile the migrated sources, typically
+   *     including {@code -classpath} and {@code -sourcepath}. Annotation processing is disabled
+   *     unless these options configure it, e.g. using {@code -processorpath}.
+   * @param maxIterations The maximum number of rounds per phase, and of passes over all phases.
+   * @return A new driver.
+   */
+  public static PhasedMigrationDriver create(
+      Iterable<CodeTransformer> rules, List<String> javacOptions, int maxIterations) {
+    return create(TemplateRepository.of(rules), javacOptions, maxIterations);
+  }
+
+  /**
+   * Creates a driver for the rules provided by the given repository.
+   *
+   * @param templates The repository providing the rules to apply, e.g. as created using {@link
+   *     TemplateRepository#fromDirectory(java.nio.file.Path)}.
+   * @param javacOptions The options with which to compile the migrated sources, typically
+   *     including {@code -classpath} and {@code -sourcepath}. Annotation processing is disabled
+   *     unless these options configure it, e.g. using {@code -processorpath}.
+   * @param maxIterations The maximum number of rounds per phase, and of passes over all phases.
+   * @return A new driver.
+   */
+  public static PhasedMigrationDriver create(
+      TemplateRepository templates, List<String> javacOptions, int maxIterations) {
+    checkArgument(maxIterations > 0, "The maximum number of iterations must be positive");
+    return new PhasedMigrationDriver(
+        templates,
+        configuresAnnotationProcessing(javacOptions)
+            ? ImmutableList.copyOf(javacOptions)
+            : ImmutableList.<String>builder().add("-proc:none").addAll(javacOptions).build(),
+        maxIterations,
+        Optional.empty(),
+        Optional.empty());
+  }
+
+  private static boolean configuresAnnotationProcessing(List<String> javacOptions) {
+    return javacOptions.stream()
+        .anyMatch(
+            option ->
+                option.startsWith("-proc:") || ANNOTATION_PROCESSING_OPTIONS.contains(option));
+  }
+
+  /**
+   * Returns a driver that behaves like this one, but records the cost of matching each template
+   * using the given profiler.
+   *
+   * @param profiler The profiler in which to record statistics.
+   * @return A new driver.
+   */
+  public PhasedMigrationDriver withProfiler(TemplateProfiler profiler) {
+    return new PhasedMigrationDriver(
+        templates, javacOptions, maxIterations, Optional.of(profiler), cache);
+  }
+
+  /**
+   * Returns a driver that behaves like this one, but that reuses the results of earlier
+   * migrations of identical source files stored in the given cache, and stores its own results
+   * there. Only the results of source files that were found to compile are cached; neither those
+   * that fail to compile nor those that no template can match, and that are therefore not
+   * compiled, are.
+   *
+   * @param cache The cache to use.
+   * @return A new driver.
+   */
+  public PhasedMigrationDriver withCache(MigrationCache cache) {
+    return new PhasedMigrationDriver(
+        templates, javacOptions, maxIterations, profiler, Optional.of(cache));
+  }
+
+  /**
+   * Returns the maximum number of rounds of template application per phase, which also bounds the
+   * number of passes over all phases.
+   *
+   * @return The maximum number of rounds.
+   */
+  public int maxIterations() {
+    return maxIterations;
+  }
+
+  /**
+   * Migrates the given source file.
+   *
+   * @param fileName The name of the file, e.g. {@code com/example/Service.java}.
+   * @param source The content of the file.
+   * @return The migrated content of the file, which is equal to {@code source} if no templates
+   *     apply; or {@link Optional#empty()} if {@code source} does not compile and thus cannot be
+   *     migrated. As a source file is only compiled if some template can possibly match it, a
+   *     source file that no template can match is returned unchanged, even if it does not compile.
+   */
+  public Optional<String> migrate(String fileName, String source) {
+    if (cache.isEmpty()) {
+      return migrateUncached(fileName, source).map(round -> round.source);
+    }
+
+    Optional<String> cached = cache.get().lookup(fileName, source, cacheConfiguration.get());
+    if (cached.isPresent()) {
+      return cached;
+    }
+
+    Optional<Round> migrated = migrateUncached(fileName, source);
+    if (migrated.isPresent() && migrated.get().isKnownToCompile()) {
+      cache.get().store(fileName, source, cacheConfiguration.get(), migrated.get().source);
+    }
+    return migrated.map(round -> round.source);
+  }
+
+  /**
+   * Describes the configuration of this driver for the purpose of keying cache entries, including
+   * the state of the class path, which is computed once per driver.
+   */
+  private String describeConfiguration() {
+    return maxIterations
+        + "\0"
+        + String.join("\0", javacOptions)
+        + "\0"
+        + MigrationCache.describeClasspath(javacOptions);
+  }
+
+  /**
+   * Migrates the given source file, returning the last round, or {@link Optional#empty()} if the
+   * source file does not compile.
+   *
+   * <p>The phases are applied in order, each until it reaches a fixpoint. As a later phase may
+   * enable templates of an earlier one, e.g. when a cleanup template exposes an RxJava operator
+   * that can now be migrated, all phases are applied again until a full pass over them no longer
+   * changes the source, or {@link #maxIterations()} passes have been done. The output of each
+   * round is compiled before it is accepted; since the next round needs an attributed compilation
+   * unit anyway, this check adds little cost. The {@link MigrationPhase#BRIDGE} phase is applied
+   * last, as it rewrites the conversions matched by the other phases.
+   */
+  private Optional<Round> migrateUncached(String fileName, String source) {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, UTF_8)) {
+      Round current = new Round(compiler, fileManager, fileName, source);
+      Set<CodeTransformer> excludedRules = new HashSet<>();
+      boolean changed = true;
+      for (int pass = 0; changed && pass < maxIterations; pass++) {
+        String passSource = current.source;
+        for (MigrationPhase phase : MigrationPhase.values()) {
+          if (phase != MigrationPhase.BRIDGE) {
+            Optional<Round> next = applyToFixpoint(current, phase, excludedRules);
+            if (next.isEmpty()) {
+              return Optional.empty();
+            }
+            current = next.get();
+          }
+        }
+        changed = !current.source.equals(passSource);
+      }
+      return applyToFixpoint(current, MigrationPhase.BRIDGE, excludedRules);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to compile " + fileName, e);
+    }
+  }
+
+  /**
+   * Applies the given phase, starting from the given round, until the source no longer changes or
+   * {@link #maxIterations()} rounds have been done. Returns the last compiling round, or {@link
+   * Optional#empty()} if the source of the given round does not compile.
+   *
+   * <p>Rules whose changes make the source fail to compile are added to the given set of excluded
+   * rules, which are not applied in this or later rounds.
+   */
+  private Optional<Round> applyToFixpoint(
+      Round round, MigrationPhase phase, Set<CodeTransformer> excludedRules) throws IOException {
+    Round current = round;
+    for (int i = 0; i < maxIterations; i++) {
+      ImmutableList<CodeTransformer> rules =
+          current.selectRules(phase).stream()
+              .filter(rule -> !excludedRules.contains(rule))
+              .collect(toImmutableList());
+      if (current.hasErrors()) {
+        /* Only the original source can fail to compile; later rounds have been checked. */
+        return Optional.empty();
+      }
+
+      Optional<Application> next = current.apply(rules);
+      if (next.isEmpty()) {
+        break;
+      }
+
+      Round candidate = current.withSource(next.get().source);
+      if (candidate.compiles()) {
+        current = candidate;
+      } else {
+        /* Redo this round without the rules that broke compilation. */
+        ImmutableSet<CodeTransformer> offendingRules =
+            offendingRules(current, next.get().matchedRules);
+        excludedRules.addAll(offendingRules.isEmpty() ? next.get().matchedRules : offendingRules);
+      }
+    }
+    return Optional.of(current);
+  }
+
+  /**
+   * Returns those of the given rules that, when applied to the given round on their own, produce
+   * source that does not compile.
+   */
+  private static ImmutableSet<CodeTransformer> offendingRules(
+      Round round, ImmutableSet<CodeTransformer> rules) throws IOException {
+    if (rules.size() == 1) {
+      return rules;
+    }
+
+    ImmutableSet.Builder<CodeTransformer> offendingRules = ImmutableSet.builder();
+    for (CodeTransformer rule : rules) {
+      Optional<Application> application = round.apply(ImmutableList.of(rule));
+      if (application.isPresent() && !round.withSource(application.get().source).compiles()) {
+        offendingRules.add(rule);
+      }
+    }
+    return offendingRules.build();
+  }
+
+  private ImmutableList<CodeTransformer> selectRules(
+      MigrationPhase phase, Set<TemplateFamily> families, CompilationUnitTree unit) {
+    return templates.rules(phase, families).stream()
+        .flatMap(index -> index.select(unit).stream())
+        .collect(toImmutableList());
+  }
+
+  /**
+   * A version of the source file being migrated, which is parsed eagerly, but only attributed once
+   * template families or compilation errors are of interest.
+   */
+  private final class Round {
+    private final JavaCompiler compiler;
+    private final StandardJavaFileManager fileManager;
+    private final String fileName;
+    private final String source;
+    private final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    private final JavacTask task;
+    private final CompilationUnitTree unit;
+    private boolean attributed = false;
+    private boolean hasErrors = false;
+
+    Round(
+        JavaCompiler compiler, StandardJavaFileManager fileManager, String fileName, String source)
+        throws IOException {
+      this.compiler = compiler;
+      this.fileManager = fileManager;
+      this.fileName = fileName;
+      this.source = source;
+      this.task =
+          (JavacTask)
+              compiler.getTask(
+                  null,
+                  fileManager,
+                  diagnostics,
+                  javacOptions,
+                  null,
+                  List.of(new InMemorySource(fileName, source)));
+      this.unit = Iterables.getOnlyElement(task.parse());
+    }
+
+    /** Returns a round for the given next version of the source file. */
+    Round withSource(String nextSource) throws IOException {
+      return new Round(compiler, fileManager, fileName, nextSource);
+    }
+
+    /** Attributes the source, if not done before, and tells whether it compiles. */
+    boolean compiles() throws IOException {
+      if (!attributed) {
+        task.analyze();
+        attributed = true;
+        hasErrors =
+            diagnostics.getDiagnostics().stream()
+                .anyMatch(d -> d.getKind() == Diagnostic.Kind.ERROR);
+      }
+      return !hasErrors;
+    }
+
+    /** Tells whether the source has been attributed and found not to compile. */
+    boolean hasErrors() {
+      return hasErrors;
+    }
+
+    /** Tells whether the source has been attributed and found to compile. */
+    boolean isKnownToCompile() {
+      return attributed && !hasErrors;
+    }
+
+    /**
+     * Returns the rules of the given phase that can possibly match the source, attributing the
+     * source if necessary. If the source turns out not to compile, no rules are returned.
+     *
+     * <p>Only the rules of the {@link TemplateFamily template families} used by the source, and of
+     * those only the ones selected by their {@link RuleIndex}, are returned. As the rule indexes
+     * only require a parsed source, the source is not even attributed if none of the rules of any
+     * family is selected.
+     */
+    ImmutableList<CodeTransformer> selectRules(MigrationPhase phase) throws IOException {
+      ImmutableList<CodeTransformer> candidates =
+          PhasedMigrationDriver.this.selectRules(phase, templates.families(), unit);
+      if (candidates.isEmpty() || !compiles()) {
+        return ImmutableList.of();
+      }
+
+      return templates.isUnconditional()
+          ? candidates
+          : PhasedMigrationDriver.this.selectRules(phase, TemplateFamily.presentIn(unit), unit);
+    }
+
+    /**
+     * Applies the given rules, which must have been obtained using {@link
+     * #selectRules(MigrationPhase)}, to the source once.
+     *
+     * @return The resulting source along with the rules that matched, or {@link Optional#empty()}
+     *     if the source is left unchanged.
+     */
+    Optional<Application> apply(List<CodeTransformer> rules) {
+      if (rules.isEmpty()) {
+        return Optional.empty();
+      }
+
+      Context context = ((BasicJavacTask) task).getContext();
+      DescriptionBasedDiff diff =
+          DescriptionBasedDiff.createIgnoringOverlaps(
+              (JCCompilationUnit) unit, ImportOrganizer.STATIC_FIRST_ORGANIZER);
+      TreePath path = new TreePath(unit);
+      Set<CodeTransformer> matchedRules = new LinkedHashSet<>();
+      for (CodeTransformer rule : rules) {
+        DescriptionListener listener =
+            description -> {
+              matchedRules.add(rule);
+              diff.onDescribed(description);
+            };
+        if (profiler.isPresent()) {
+          profiler.get().apply(rule, path, context, listener);
+        } else {
+          rule.apply(path, context, listener);
+        }
+      }
+
+      SourceFile sourceFile = new SourceFile(fileName, source);
+      diff.applyDifferences(sourceFile);
+      String migrated = sourceFile.getSourceText();
+      return migrated.equals(source)
+          ? Optional.empty()
+          : Optional.of(new Application(migrated, ImmutableSet.copyOf(matchedRules)));
+    }
+  }
+
+  /** The result of applying a set of rules to a version of the source file. */
+  private static final class Application {
+    private final String source;
+    private final ImmutableSet<CodeTransformer> matchedRules;
+
+    Application(String source, ImmutableSet<CodeTransformer> matchedRules) {
+      this.source = source;
+      this.matchedRules = matchedRules;
+    }
+  }
+
+  private static final class InMemorySource extends SimpleJavaFileObject {
+    private final String source;
+
+    InMemorySource(String fileName, String source) {
+      super(URI.create("string:///" + fileName.replace('\\', '/')), Kind.SOURCE);
+      this.source = source;
+    }
+
+    @Override
+    public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+      return source;
+    }
+  }
+}
@@ -0,0 +1,181 @@
+package tech.picnic.errorprone.migration.driver;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.errorprone.CodeTransformer;
+import com.google.errorprone.refaster.RefasterRule;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.MemberReferenceTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.util.TreeScanner;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * An index of Refaster rules keyed on the name of the method invoked at the root of their
+ * before-templates, used to select the rules that can possibly match a compilation unit.
+ *
+ * <p>Most templates in this project match a method invocation such as {@code flowable.map(f)} or
+ * {@code Single.just(v)}; such a template can only match a compilation unit that invokes a method
+ * of that name. Rules for which no such root method can be determined, e.g. because their
+ * before-template is a block template, are always selected.
+ *
+ * <p>The index keys on the method name only, not on the type declaring the method nor on the number
+ * of arguments: a rule for {@code flowable.map(f)} is also selected for a compilation unit that
+ * only invokes {@code Optional#map}. The selection is thus a superset of the rules that match, and
+ * is most effective for rules rooted in a distinctive method name.
+ *
+ * <p>Error Prone does not expose the before-templates of a {@link RefasterRule}, so they are
+ * accessed reflectively. Should that fail, e.g. because of a change in Error Prone's internals,
+ * the affected rules are always selected, so that the index never changes the migration result.
+ */
+public final class RuleIndex {
+  private final ImmutableSetMultimap<String, CodeTransformer> rulesByRootMethod;
+  private final ImmutableList<CodeTransformer> unindexedRules;
+  private final ImmutableList<CodeTransformer> allRules;
+
+  private RuleIndex(
+      ImmutableSetMultimap<String, CodeTransformer> rulesByRootMethod,
+      ImmutableList<CodeTransformer> unindexedRules,
+      ImmutableList<CodeTransformer> allRules) {
+    this.rulesByRootMethod = rulesByRootMethod;
+    this.unindexedRules = unindexedRules;
+    this.allRules = allRules;
+  }
+
+  /**
+   * Creates an index of the given rules.
+   *
+   * @param rules The rules to index.
+   * @return A new index.
+   */
+  public static RuleIndex create(Iterable<CodeTransformer> rules) {
+    ImmutableSetMultimap.Builder<String, CodeTransformer> rulesByRootMethod =
+        ImmutableSetMultimap.builder();
+    ImmutableList.Builder<CodeTransformer> unindexedRules = ImmutableList.builder();
+    for (CodeTransformer rule : rules) {
+      Optional<Set<String>> rootMethods = rootMethods(rule);
+      if (rootMethods.isPresent()) {
+        rootMethods.get().forEach(name -> rulesByRootMethod.put(name, rule));
+      } else {
+        unindexedRules.add(rule);
+      }
+    }
+    return new RuleIndex(
+        rulesByRootMethod.build(), unindexedRules.build(), ImmutableList.copyOf(rules));
+  }
+
+  /**
+   * Returns the rules that can possibly match the given compilation unit, in their original order.
+   *
+   * @param compilationUnit The compilation unit to be matched.
+   * @return The subset of the indexed rules that are worth applying.
+   */
+  public ImmutableList<CodeTransformer> select(CompilationUnitTree compilationUnit) {
+    Set<String> invokedMethods = invokedMethods(compilationUnit);
+    Set<CodeTransformer> selected = new HashSet<>(unindexedRules);
+    for (String name : invokedMethods) {
+      selected.addAll(rulesByRootMethod.get(name));
+    }
+    return allRules.stream().filter(selected::contains).collect(ImmutableList.toImmutableList());
+  }
+
+  /** Returns the names of all methods invoked or referenced in the given compilation unit. */
+  private static Set<String> invokedMethods(CompilationUnitTree compilationUnit) {
+    Set<String> names = new HashSet<>();
+    new TreeScanner<Void, Void>() {
+      @Override
+      public Void visitMethodInvocation(MethodInvocationTree node, Void unused) {
+        methodName(node).ifPresent(names::add);
+        return super.visitMethodInvocation(node, unused);
+      }
+
+      @Override
+      public Void visitMemberReference(MemberReferenceTree node, Void unused) {
+        names.add(node.getName().toString());
+        return super.visitMemberReference(node, unused);
+      }
+    }.scan(compilationUnit, null);
+    return names;
+  }
+
+  /**
+   * Returns the names of the methods of which at least one must be invoked for the given rule to
+   * match, or {@link Optional#empty()} if these cannot be determined.
+   */
+  private static Optional<Set<String>> rootMethods(CodeTransformer rule) {
+    if (!(rule instanceof RefasterRule)) {
+      return Optional.empty();
+    }
+
+    Set<String> names = new LinkedHashSet<>();
+    Iterable<?> templates =
+        (Iterable<?>) invoke(rule, "beforeTemplates").orElse(ImmutableSet.of());
+    for (Object template : templates) {
+      Optional<Set<String>> templateRoots =
+          invoke(template, "expression").flatMap(RuleIndex::rootMethodsOf);
+      if (templateRoots.isEmpty()) {
+        return Optional.empty();
+      }
+      names.addAll(templateRoots.get());
+    }
+    return names.isEmpty() ? Optional.empty() : Optional.of(names);
+  }
+
+  private static Optional<Set<String>> rootMethodsOf(Object expression) {
+    if (expression instanceof MethodInvocationTree) {
+      return methodName((MethodInvocationTree) expression).map(Set::of);
+    }
+
+    /* `Refaster.anyOf(...)` alternatives are represented by a `UAnyOf` expression. */
+    if (expression.getClass().getSimpleName().contains("UAnyOf")) {
+      Set<String> names = new LinkedHashSet<>();
+      for (Object alternative :
+          (Iterable<?>) invoke(expression, "expressions").orElse(ImmutableSet.of())) {
+        Optional<Set<String>> alternativeRoots = rootMethodsOf(alternative);
+        if (alternativeRoots.isEmpty()) {
+          return Optional.empty();
+        }
+        names.addAll(alternativeRoots.get());
+      }
+      return names.isEmpty() ? Optional.empty() : Optional.of(names);
+    }
+
+    return Optional.empty();
+  }
+
+  private static Optional<String> methodName(MethodInvocationTree invocation) {
+    ExpressionTree methodSelect = invocation.getMethodSelect();
+    if (methodSelect instanceof MemberSelectTree) {
+      return Optional.of(((MemberSelectTree) methodSelect).getIdentifier().toString());
+    }
+    if (methodSelect instanceof IdentifierTree) {
+      return Optional.of(((IdentifierTree) methodSelect).getName().toString());
+    }
+    return Optional.empty();
+  }
+
+  /** Reflectively invokes the no-argument method with the given name, if it exists. */
+  private static Optional<Object> invoke(Object target, String methodName) {
+    for (Class<?> clazz = target.getClass(); clazz != null; clazz = clazz.getSuperclass()) {
+      try {
+        Method method = clazz.getDeclaredMethod(methodName);
+        method.setAccessible(true);
+        return Optional.ofNullable(method.invoke(target));
+      } catch (NoSuchMethodException e) {
+        /* Try the superclass. */
+      } catch (IllegalAccessException | InvocationTargetException | RuntimeException e) {
+        return Optional.empty();
+      }
+    }
+    return Optional.empty();
+  }
+}
@@ -0,0 +1,93 @@
+package tech.picnic.errorprone.migration.driver;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.errorprone.CodeTransformer;
+import com.google.errorprone.refaster.CompositeCodeTransformer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/** Utility methods for loading compiled Refaster template bundles ({@code .refaster} files). */
+public final class TemplateBundles {
+  private TemplateBundles() {}
+
+  /**
+   * Loads the Refaster rules contained in the given compiled template bundle.
+   *
+   * @param bundle The path to a {@code .refaster} file, as produced by Error Prone's {@code
+   *     RefasterRuleCompiler}.
+   * @return The individual rules in the bundle; composite transformers are flattened.
+   * @throws IOException If the bundle cannot be read or does not contain a {@link CodeTransformer}.
+   */
+  public static ImmutableList<CodeTransformer> load(Path bundle) throws IOException {
+    try (InputStream in = Files.newInputStream(bundle)) {
+      return load(in);
+    }
+  }
+
+  /**
+   * Loads the Refaster rules contained in the given compiled template bundle.
+   *
+   * @param bundle A stream containing a serialized {@link CodeTransformer}.
+   * @return The individual rules in the bundle; composite transformers are flattened.
+   * @throws IOException If the bundle cannot be read or does not contain a {@link CodeTransformer}.
+   */
+  public static ImmutableList<CodeTransformer> load(InputStream bundle) throws IOException {
+    try (ObjectInputStream in = new ObjectInputStream(bundle)) {
+      ImmutableList.Builder<CodeTransformer> rules = ImmutableList.builder();
+      flatten((CodeTransformer) in.readObject(), rules);
+      return rules.build();
+    } catch (ClassNotFoundException | ClassCastException e) {
+      throw new IOException("Not a valid Refaster template bundle", e);
+    }
+  }
+
+  /**
+   * Computes a fingerprint of the given template bundle, or of all template bundles in the given
+   * directory, which changes whenever any of the bundles does.
+   *
+   * @param bundleOrDirectory The path to a {@code .refaster} file, or to a directory containing
+   *     such files.
+   * @return A hexadecimal string identifying the content of the bundle(s).
+   * @throws IOException If a bundle cannot be read.
+   */
+  public static String fingerprint(Path bundleOrDirectory) throws IOException {
+    ImmutableList<Path> bundles;
+    if (Files.isDirectory(bundleOrDirectory)) {
+      try (Stream<Path> files = Files.list(bundleOrDirectory)) {
+        bundles =
+            files
+                .filter(p -> p.getFileName().toString().endsWith(".refaster"))
+                .sorted()
+                .collect(toImmutableList());
+      }
+    } else {
+      bundles = ImmutableList.of(bundleOrDirectory);
+    }
+
+    Hasher hasher = Hashing.sha256().newHasher();
+    for (Path bundle : bundles) {
+      hasher.putString(bundle.getFileName().toString(), UTF_8).putBytes(Files.readAllBytes(bundle));
+    }
+    return hasher.hash().toString();
+  }
+
+  private static void flatten(
+      CodeTransformer transformer, ImmutableList.Builder<CodeTransformer> rules) {
+    if (transformer instanceof CompositeCodeTransformer) {
+      for (CodeTransformer child : ((CompositeCodeTransformer) transformer).transformers()) {
+        flatten(child, rules);
+      }
+    } else {
+      rules.add(transformer);
+    }
+  }
+}
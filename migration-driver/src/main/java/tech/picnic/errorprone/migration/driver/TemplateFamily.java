@@ -0,0 +1,115 @@
+package tech.picnic.errorprone.migration.driver;
+
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+
+import com.google.common.collect.ImmutableSet;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.code.Type;
+import com.sun.tools.javac.tree.JCTree;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The families into which the Refaster templates of this project are grouped, each corresponding
+ * to a single template class and thus to a single compiled template bundle.
+ *
+ * <p>The templates of a family can only match code that involves at least one of the family's
+ * trigger types, which makes it possible to skip matching them against compilation units that do
+ * not use these types.
+ */
+public enum TemplateFamily {
+  COMPLETABLE("RxJavaCompletableToReactorTemplates", ImmutableSet.of("io.reactivex.Completable")),
+  FLOWABLE(
+      "RxJavaFlowableToReactorTemplates",
+      ImmutableSet.of("io.reactivex.Flowable", "io.reactivex.flowables.GroupedFlowable")),
+  MAYBE("RxJavaMaybeToReactorTemplates", ImmutableSet.of("io.reactivex.Maybe")),
+  OBSERVABLE("RxJavaObservableToReactorTemplates", ImmutableSet.of("io.reactivex.Observable")),
+  SINGLE("RxJavaSingleToReactorTemplates", ImmutableSet.of("io.reactivex.Single")),
+  UNWRAP(
+      "RxJavaUnwrapTemplates",
+      ImmutableSet.of(
+          "reactor.adapter.rxjava.RxJava2Adapter",
+          "tech.picnic.errorprone.migration.util.RxJavaReactorMigrationUtil")),
+  BRIDGE("RxJavaReactorBridgeTemplates", ImmutableSet.of("reactor.adapter.rxjava.RxJava2Adapter")),
+  ASSORTED(
+      "RxJavaToReactorTemplates",
+      ImmutableSet.of(
+          "io.reactivex.Completable",
+          "io.reactivex.Flowable",
+          "io.reactivex.Maybe",
+          "io.reactivex.Observable",
+          "io.reactivex.Single",
+          "reactor.adapter.rxjava.RxJava2Adapter",
+          "reactor.core.publisher.Flux",
+          "reactor.core.publisher.Mono",
+          "tech.picnic.errorprone.migration.util.RxJavaReactorBridge",
+          "tech.picnic.errorprone.migration.util.RxJavaReactorMigrationUtil"));
+
+  private static final ImmutableSet<String> ALL_TRIGGER_TYPES =
+      Arrays.stream(values())
+          .flatMap(family -> family.triggerTypes.stream())
+          .collect(toImmutableSet());
+
+  private final String templateClassName;
+  private final ImmutableSet<String> triggerTypes;
+
+  TemplateFamily(String templateClassName, ImmutableSet<String> triggerTypes) {
+    this.templateClassName = templateClassName;
+    this.triggerTypes = triggerTypes;
+  }
+
+  /**
+   * Returns the simple name of the template class that defines this family's templates, which is
+   * also the base name of its compiled template bundle.
+   *
+   * @return The name of the template class.
+   */
+  public String templateClassName() {
+    return templateClassName;
+  }
+
+  /**
+   * Returns the template families that can possibly match the given compilation unit.
+   *
+   * <p>Rather than relying on the compilation unit's imports, this inspects the types of all
+   * attributed trees: RxJava values are often obtained from methods declared elsewhere, in which
+   * case the type in question need not be imported.
+   *
+   * @param compilationUnit An attributed compilation unit.
+   * @return The families whose trigger types are referenced by the compilation unit.
+   */
+  public static Set<TemplateFamily> presentIn(CompilationUnitTree compilationUnit) {
+    Set<String> referencedTypes = referencedTypes(compilationUnit);
+    Set<TemplateFamily> families = EnumSet.noneOf(TemplateFamily.class);
+    for (TemplateFamily family : values()) {
+      if (family.triggerTypes.stream().anyMatch(referencedTypes::contains)) {
+        families.add(family);
+      }
+    }
+    return families;
+  }
+
+  private static Set<String> referencedTypes(CompilationUnitTree compilationUnit) {
+    Set<String> referenced = new HashSet<>();
+    new TreeScanner<Void, Void>() {
+      @Override
+      public Void scan(Tree tree, Void unused) {
+        if (tree instanceof JCTree) {
+          Type type = ((JCTree) tree).type;
+          if (type != null && type.tsym != null) {
+            String name = type.tsym.getQualifiedName().toString();
+            if (ALL_TRIGGER_TYPES.contains(name)) {
+              referenced.add(name);
+            }
+          }
+        }
+        return super.scan(tree, unused);
+      }
+    }.scan(compilationUnit, null);
+    return referenced;
+  }
+}
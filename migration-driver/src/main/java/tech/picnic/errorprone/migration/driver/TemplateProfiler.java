@@ -0,0 +1,118 @@
+package tech.picnic.errorprone.migration.driver;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.errorprone.CodeTransformer;
+import com.google.errorprone.DescriptionListener;
+import com.google.errorprone.refaster.RefasterRule;
+import com.sun.source.util.TreePath;
+import com.sun.tools.javac.util.Context;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how much time is spent matching each Refaster template, so as to identify the templates
+ * that slow down a migration.
+ *
+ * <p>For each template, e.g. {@code RxJavaFlowableToReactorTemplates.FlowableFlatMap}, the profiler
+ * tracks the number of compilation units the template was matched against, the number of matches
+ * it reported and the cumulative time spent doing so. Compilation units that the {@link RuleIndex}
+ * or the {@link TemplateFamily} check rule out for a template do not count as attempts.
+ *
+ * <p>Profiling is opt-in; see {@link PhasedMigrationDriver#withProfiler(TemplateProfiler)}. A
+ * profiler may be shared by drivers running concurrently.
+ */
+public final class TemplateProfiler {
+  private final Map<String, Stats> statsByTemplate = new ConcurrentHashMap<>();
+
+  /**
+   * Applies the given rule to the given compilation unit, recording the time spent and the number
+   * of matches reported.
+   *
+   * @param rule The rule to apply.
+   * @param path The path to the compilation unit to match.
+   * @param context The context of the compilation in which the compilation unit was attributed.
+   * @param listener The listener to which the matches are reported.
+   */
+  public void apply(
+      CodeTransformer rule, TreePath path, Context context, DescriptionListener listener) {
+    Stats stats = statsByTemplate.computeIfAbsent(templateName(rule), k -> new Stats());
+    long start = System.nanoTime();
+    try {
+      rule.apply(
+          path,
+          context,
+          description -> {
+            stats.matches.increment();
+            listener.onDescribed(description);
+          });
+    } finally {
+      stats.nanos.add(System.nanoTime() - start);
+      stats.attempts.increment();
+    }
+  }
+
+  /**
+   * Returns a report of the statistics recorded so far, listing the most expensive templates
+   * first.
+   *
+   * @return A human-readable table with one line per template.
+   */
+  public String report() {
+    StringBuilder report =
+        new StringBuilder(
+            String.format("%12s %10s %10s  %s%n", "time (ms)", "attempts", "matches", "template"));
+    statsByTemplate.entrySet().stream()
+        .sorted(
+            Comparator.comparingLong((Map.Entry<String, Stats> e) -> e.getValue().nanos.sum())
+                .reversed()
+                .thenComparing(Map.Entry::getKey))
+        .forEachOrdered(
+            e ->
+                report.append(
+                    String.format(
+                        "%12.3f %10d %10d  %s%n",
+                        e.getValue().nanos.sum() / 1_000_000.0,
+                        e.getValue().attempts.sum(),
+                        e.getValue().matches.sum(),
+                        e.getKey())));
+    return report.toString();
+  }
+
+  /**
+   * Writes the {@link #report() report} of the statistics recorded so far to the given file.
+   *
+   * @param file The file to write; overwritten if it exists.
+   * @throws IOException If the file cannot be written.
+   */
+  public void writeReport(Path file) throws IOException {
+    Files.writeString(file, report(), UTF_8);
+  }
+
+  /**
+   * Returns the name under which the given rule is reported: the name of its template class
+   * relative to the enclosing package, e.g. {@code
+   * RxJavaUnwrapTemplates.SingleFlatMapMaybeUnwrapLambda}.
+   */
+  private static String templateName(CodeTransformer rule) {
+    if (!(rule instanceof RefasterRule)) {
+      return rule.getClass().getName();
+    }
+
+    String name = ((RefasterRule<?, ?>) rule).qualifiedTemplateClass();
+    String templateClassName = MigrationPhase.templateClassName((RefasterRule<?, ?>) rule);
+    int start = name.lastIndexOf(templateClassName + '.');
+    return start < 0 ? name : name.substring(start);
+  }
+
+  private static final class Stats {
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder matches = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+  }
+}
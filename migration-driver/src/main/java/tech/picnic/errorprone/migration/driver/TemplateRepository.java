@@ -0,0 +1,124 @@
+package tech.picnic.errorprone.migration.driver;
+
+import static com.google.common.collect.ImmutableListMultimap.toImmutableListMultimap;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.errorprone.CodeTransformer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Provides the Refaster rules to be applied to a compilation unit, grouped by {@link
+ * MigrationPhase}.
+ *
+ * <p>A repository created using {@link #fromDirectory(Path)} only loads the template bundles in
+ * the directory once the rules of a {@link TemplateFamily} are first requested, i.e. once the first
+ * compilation unit is migrated.
+ */
+public final class TemplateRepository {
+  private final Optional<ImmutableMap<MigrationPhase, RuleIndex>> unconditionalRules;
+  private final Map<TemplateFamily, Supplier<ImmutableMap<MigrationPhase, RuleIndex>>> familyRules;
+
+  private TemplateRepository(
+      Optional<ImmutableMap<MigrationPhase, RuleIndex>> unconditionalRules,
+      Map<TemplateFamily, Supplier<ImmutableMap<MigrationPhase, RuleIndex>>> familyRules) {
+    this.unconditionalRules = unconditionalRules;
+    this.familyRules = familyRules;
+  }
+
+  /**
+   * Creates a repository of the given rules, which are considered for every compilation unit.
+   *
+   * @param rules The rules to be applied.
+   * @return A new repository.
+   */
+  public static TemplateRepository of(Iterable<CodeTransformer> rules) {
+    return new TemplateRepository(
+        Optional.of(indexByPhase(rules)), new EnumMap<>(TemplateFamily.class));
+  }
+
+  /**
+   * Creates a repository that lazily loads the template bundles in the given directory.
+   *
+   * @param bundleDirectory A directory containing a {@code <template class name>.refaster} bundle
+   *     for some or all {@link TemplateFamily template families}; families without a bundle are
+   *     ignored.
+   * @return A new repository.
+   */
+  public static TemplateRepository fromDirectory(Path bundleDirectory) {
+    Map<TemplateFamily, Supplier<ImmutableMap<MigrationPhase, RuleIndex>>> familyRules =
+        new EnumMap<>(TemplateFamily.class);
+    for (TemplateFamily family : TemplateFamily.values()) {
+      Path bundle = bundleDirectory.resolve(family.templateClassName() + ".refaster");
+      if (Files.isRegularFile(bundle)) {
+        familyRules.put(family, Suppliers.memoize(() -> indexByPhase(load(bundle))));
+      }
+    }
+    return new TemplateRepository(Optional.empty(), familyRules);
+  }
+
+  /**
+   * Returns the rule indexes of the given phase that are relevant to a compilation unit that uses
+   * the given template families, loading the associated template bundles if necessary.
+   *
+   * @param phase The phase of interest.
+   * @param families The template families used by the compilation unit.
+   * @return The relevant rule indexes; possibly empty.
+   */
+  ImmutableList<RuleIndex> rules(MigrationPhase phase, Set<TemplateFamily> families) {
+    ImmutableList.Builder<RuleIndex> indexes = ImmutableList.builder();
+    unconditionalRules.map(rules -> rules.get(phase)).ifPresent(indexes::add);
+    for (TemplateFamily family : families) {
+      Supplier<ImmutableMap<MigrationPhase, RuleIndex>> rules = familyRules.get(family);
+      if (rules != null && rules.get().containsKey(phase)) {
+        indexes.add(rules.get().get(phase));
+      }
+    }
+    return indexes.build();
+  }
+
+  /**
+   * Returns the template families for which this repository provides rules; empty if the
+   * repository {@link #isUnconditional() is unconditional}.
+   */
+  Set<TemplateFamily> families() {
+    return familyRules.keySet();
+  }
+
+  /**
+   * Tells whether the template families are irrelevant to this repository, in which case {@link
+   * #rules(MigrationPhase, Set)} returns the same rules for every compilation unit.
+   */
+  boolean isUnconditional() {
+    return familyRules.isEmpty();
+  }
+
+  private static ImmutableMap<MigrationPhase, RuleIndex> indexByPhase(
+      Iterable<CodeTransformer> rules) {
+    ImmutableListMultimap<MigrationPhase, CodeTransformer> rulesByPhase =
+        ImmutableList.copyOf(rules).stream()
+            .collect(toImmutableListMultimap(MigrationPhase::of, Function.identity()));
+    return rulesByPhase.asMap().entrySet().stream()
+        .collect(toImmutableMap(Map.Entry::getKey, e -> RuleIndex.create(e.getValue())));
+  }
+
+  private static ImmutableList<CodeTransformer> load(Path bundle) {
+    try {
+      return TemplateBundles.load(bundle);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to load template bundle " + bundle, e);
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package tech.picnic.errorprone.migration.driver;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static tech.picnic.errorprone.migration.driver.RefasterRules.source;
+
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.CodeTransformer;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+final class MigrationCacheTest {
+  private static final ImmutableList<CodeTransformer> MIGRATION_RULES =
+      RefasterRules.compile(
+          "RxJavaStringToReactorTemplates",
+          "package pkg;",
+          "",
+          "import com.google.errorprone.refaster.annotation.AfterTemplate;",
+          "import com.google.errorprone.refaster.annotation.BeforeTemplate;",
+          "",
+          "final class RxJavaStringToReactorTemplates {",
+          "  static final class StringTrim {",
+          "    @BeforeTemplate",
+          "    String before(String s) {",
+          "      return s.trim();",
+          "    }",
+          "",
+          "    @AfterTemplate",
+          "    String after(String s) {",
+          "      return s.strip();",
+          "    }",
+          "  }",
+          "}");
+
+  @TempDir Path directory;
+
+  @Test
+  void lookupHit() throws IOException {
+    MigrationCache cache = MigrationCache.open(directory, "v1");
+    cache.store("A.java", "original", "config", "migrated");
+
+    assertThat(cache.lookup("A.java", "original", "config")).hasValue("migrated");
+    assertThat(MigrationCache.open(directory, "v1").lookup("A.java", "original", "config"))
+        .hasValue("migrated");
+  }
+
+  @Test
+  void lookupMiss() throws IOException {
+    MigrationCache cache = MigrationCache.open(directory, "v1");
+    cache.store("A.java", "original", "config", "migrated");
+
+    assertThat(cache.lookup("B.java", "original", "config")).isEmpty();
+    assertThat(cache.lookup("A.java", "modified", "config")).isEmpty();
+    assertThat(cache.lookup("A.java", "original", "other config")).isEmpty();
+    assertThat(MigrationCache.open(directory, "v2").lookup("A.java", "original", "config"))
+        .isEmpty();
+  }
+
+  @Test
+  void unchangedSourceIsStoredAsMarker() throws IOException {
+    MigrationCache cache = MigrationCache.open(directory, "v1");
+    cache.store("A.java", "original", "config", "original");
+
+    assertThat(cache.lookup("A.java", "original", "config")).hasValue("original");
+    ImmutableList<Path> entries = entries(directory);
+    assertThat(entries).hasSize(1);
+    assertThat(entries.get(0).getFileName().toString()).endsWith(".unchanged");
+    assertThat(Files.size(entries.get(0))).isZero();
+  }
+
+  @Test
+  void classpathDescriptionTracksJarFiles() throws IOException {
+    Path jar = Files.writeString(directory.resolve("lib.jar"), "content", UTF_8);
+    Path classes = Files.createDirectory(directory.resolve("classes"));
+    ImmutableList<String> javacOptions =
+        ImmutableList.of("-sourcepath", "src", "-classpath", jar + File.pathSeparator + classes);
+
+    String description = MigrationCache.describeClasspath(javacOptions);
+    assertThat(description).contains(jar.toString()).doesNotContain(classes.toString());
+
+    Files.writeString(classes.resolve("A.class"), "content", UTF_8);
+    assertThat(MigrationCache.describeClasspath(javacOptions)).isEqualTo(description);
+
+    Files.setLastModifiedTime(
+        jar, FileTime.fromMillis(Files.getLastModifiedTime(jar).toMillis() + 1000));
+    String touchedDescription = MigrationCache.describeClasspath(javacOptions);
+    assertThat(touchedDescription).isNotEqualTo(description);
+
+    Files.writeString(jar, "other content", UTF_8);
+    assertThat(MigrationCache.describeClasspath(javacOptions)).isNotEqualTo(touchedDescription);
+  }
+
+  @Test
+  void migrationResultIsReused() throws IOException {
+    Path cacheDirectory = directory.resolve("cache");
+    String source =
+        source("class A {", "  String m(String s) {", "    return s.trim();", "  }", "}");
+    String migrated =
+        source("class A {", "  String m(String s) {", "    return s.strip();", "  }", "}");
+
+    assertThat(driver(MIGRATION_RULES, cacheDirectory).migrate("A.java", source))
+        .hasValue(migrated);
+    /* Without any rules, only the cache can produce the migrated source. */
+    assertThat(driver(ImmutableList.of(), cacheDirectory).migrate("A.java", source))
+        .hasValue(migrated);
+  }
+
+  @Test
+  void nonCompilingSourceIsNotCached() throws IOException {
+    Path cacheDirectory = directory.resolve("cache");
+    PhasedMigrationDriver driver = driver(MIGRATION_RULES, cacheDirectory);
+
+    assertThat(
+            driver.migrate(
+                "A.java",
+                source(
+                    "class A {",
+                    "  String m(String s) {",
+                    "    return s.trim() + undefined;",
+                    "  }",
+                    "}")))
+        .isEmpty();
+    /* No template matches this source, so it is returned without being compiled. */
+    String unmatchedSource =
+        source("class A {", "  String m(String s) {", "    return undefined;", "  }", "}");
+    assertThat(driver.migrate("A.java", unmatchedSource)).hasValue(unmatchedSource);
+
+    assertThat(entries(cacheDirectory)).isEmpty();
+  }
+
+  private static ImmutableList<Path> entries(Path cacheDirectory) throws IOException {
+    try (Stream<Path> files = Files.walk(cacheDirectory)) {
+      return files.filter(Files::isRegularFile).collect(toImmutableList());
+    }
+  }
+
+  private static PhasedMigrationDriver driver(
+      ImmutableList<CodeTransformer> rules, Path cacheDirectory) throws IOException {
+    return PhasedMigrationDriver.create(
+            rules, ImmutableList.of(), PhasedMigrationDriver.DEFAULT_MAX_ITERATIONS)
+        .withCache(MigrationCache.open(cacheDirectory, "v1"));
+  }
+}
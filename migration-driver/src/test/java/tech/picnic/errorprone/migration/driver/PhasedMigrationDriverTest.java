@@ -0,0 +1,290 @@
+package tech.picnic.errorprone.migration.driver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static tech.picnic.errorprone.migration.driver.RefasterRules.source;
+
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.CodeTransformer;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+final class PhasedMigrationDriverTest {
+  private static final ImmutableList<CodeTransformer> MIGRATION_RULES =
+      RefasterRules.compile(
+          "RxJavaStringToReactorTemplates",
+          "package pkg;",
+          "",
+          "import com.google.errorprone.refaster.annotation.AfterTemplate;",
+          "import com.google.errorprone.refaster.annotation.BeforeTemplate;",
+          "",
+          "final class RxJavaStringToReactorTemplates {",
+          "  static final class StringTrim {",
+          "    @BeforeTemplate",
+          "    String before(String s) {",
+          "      return s.trim();",
+          "    }",
+          "",
+          "    @AfterTemplate",
+          "    String after(String s) {",
+          "      return s.strip();",
+          "    }",
+          "  }",
+          "",
+          "  static final class StringConcatEmpty {",
+          "    @BeforeTemplate",
+          "    String before(String s) {",
+          "      return s.concat(\"\");",
+          "    }",
+          "",
+          "    @AfterTemplate",
+          "    String after(String s) {",
+          "      return s;",
+          "    }",
+          "  }",
+          "}");
+  private static final ImmutableList<CodeTransformer> UNWRAP_RULES =
+      RefasterRules.compile(
+          "RxJavaUnwrapTemplates",
+          "package pkg;",
+          "",
+          "import com.google.errorprone.refaster.annotation.AfterTemplate;",
+          "import com.google.errorprone.refaster.annotation.BeforeTemplate;",
+          "",
+          "final class RxJavaUnwrapTemplates {",
+          "  static final class StringStripIsEmpty {",
+          "    @BeforeTemplate",
+          "    boolean before(String s) {",
+          "      return s.strip().isEmpty();",
+          "    }",
+          "",
+          "    @AfterTemplate",
+          "    boolean after(String s) {",
+          "      return s.isBlank();",
+          "    }",
+          "  }",
+          "}");
+  private static final ImmutableList<CodeTransformer> CLEANUP_RULES =
+      RefasterRules.compile(
+          "RxJavaToReactorTemplates",
+          "package pkg;",
+          "",
+          "import com.google.errorprone.refaster.annotation.AfterTemplate;",
+          "import com.google.errorprone.refaster.annotation.BeforeTemplate;",
+          "",
+          "final class RxJavaToReactorTemplates {",
+          "  static final class StringToString {",
+          "    @BeforeTemplate",
+          "    String before(String s) {",
+          "      return s.toString();",
+          "    }",
+          "",
+          "    @AfterTemplate",
+          "    String after(String s) {",
+          "      return s.trim();",
+          "    }",
+          "  }",
+          "}");
+  /** A rule whose replacement does not compile in a context that requires a {@link String}. */
+  private static final ImmutableList<CodeTransformer> NON_COMPILING_RULES =
+      RefasterRules.compile(
+          "RxJavaObjectToReactorTemplates",
+          "package pkg;",
+          "",
+          "import com.google.errorprone.refaster.annotation.AfterTemplate;",
+          "import com.google.errorprone.refaster.annotation.BeforeTemplate;",
+          "",
+          "final class RxJavaObjectToReactorTemplates {",
+          "  static final class StringToUpperCase {",
+          "    @BeforeTemplate",
+          "    Object before(String s) {",
+          "      return s.toUpperCase();",
+          "    }",
+          "",
+          "    @AfterTemplate",
+          "    Object after(String s) {",
+          "      return (Object) s.toLowerCase();",
+          "    }",
+          "  }",
+          "}");
+
+  @Test
+  void phasesAreAppliedInOrder() {
+    assertThat(
+            migrate(
+                ImmutableList.<CodeTransformer>builder()
+                    .addAll(UNWRAP_RULES)
+                    .addAll(MIGRATION_RULES)
+                    .build(),
+                "class A {",
+                "  boolean m(String s) {",
+                "    return s.trim().isEmpty();",
+                "  }",
+                "}"))
+        .hasValue(
+            source(
+                "class A {",
+                "  boolean m(String s) {",
+                "    return s.isBlank();",
+                "  }",
+                "}"));
+  }
+
+  @Test
+  void phasesAreReappliedWhileTheSourceChanges() {
+    assertThat(
+            migrate(
+                ImmutableList.<CodeTransformer>builder()
+                    .addAll(MIGRATION_RULES)
+                    .addAll(UNWRAP_RULES)
+                    .addAll(CLEANUP_RULES)
+                    .build(),
+                "class A {",
+                "  boolean m(String s) {",
+                "    return s.toString().isEmpty();",
+                "  }",
+                "}"))
+        .hasValue(
+            source(
+                "class A {",
+                "  boolean m(String s) {",
+                "    return s.isBlank();",
+                "  }",
+                "}"));
+  }
+
+  @Test
+  void phaseIsAppliedToFixpoint() {
+    assertThat(
+            migrate(
+                MIGRATION_RULES,
+                "class A {",
+                "  String m(String s) {",
+                "    return s.concat(\"\").concat(\"\").concat(\"\");",
+                "  }",
+                "}"))
+        .hasValue(source("class A {", "  String m(String s) {", "    return s;", "  }", "}"));
+  }
+
+  @Test
+  void maxIterationsBoundsRounds() {
+    assertThat(
+            PhasedMigrationDriver.create(MIGRATION_RULES, ImmutableList.of(), 1)
+                .migrate(
+                    "A.java",
+                    source(
+                        "class A {",
+                        "  String m(String s) {",
+                        "    return s.concat(\"\").concat(\"\").concat(\"\");",
+                        "  }",
+                        "}")))
+        .hasValue(
+            source(
+                "class A {",
+                "  String m(String s) {",
+                "    return s.concat(\"\").concat(\"\");",
+                "  }",
+                "}"));
+  }
+
+  @Test
+  void rulesThatBreakCompilationAreExcluded() {
+    assertThat(
+            migrate(
+                ImmutableList.<CodeTransformer>builder()
+                    .addAll(NON_COMPILING_RULES)
+                    .addAll(MIGRATION_RULES)
+                    .build(),
+                "class A {",
+                "  String m(String s) {",
+                "    String upper = s.toUpperCase();",
+                "    Object lower = s.toUpperCase();",
+                "    return upper.trim();",
+                "  }",
+                "}"))
+        .hasValue(
+            source(
+                "class A {",
+                "  String m(String s) {",
+                "    String upper = s.toUpperCase();",
+                "    Object lower = s.toUpperCase();",
+                "    return upper.strip();",
+                "  }",
+                "}"));
+  }
+
+  @Test
+  void nonCompilingSourceIsNotMigrated() {
+    assertThat(
+            migrate(
+                MIGRATION_RULES,
+                "class A {",
+                "  String m(String s) {",
+                "    return s.trim() + undefined;",
+                "  }",
+                "}"))
+        .isEmpty();
+  }
+
+  @Test
+  void familiesAreDeterminedAfterAttribution(@TempDir Path bundleDirectory) throws IOException {
+    RefasterRules.writeBundle(
+        bundleDirectory.resolve("RxJavaSingleToReactorTemplates.refaster"),
+        RefasterRules.compile(
+            "RxJavaSingleToReactorTemplates",
+            "package pkg;",
+            "",
+            "import com.google.errorprone.refaster.annotation.AfterTemplate;",
+            "import com.google.errorprone.refaster.annotation.BeforeTemplate;",
+            "import io.reactivex.Single;",
+            "",
+            "final class RxJavaSingleToReactorTemplates {",
+            "  static final class SingleBlockingGet<T> {",
+            "    @BeforeTemplate",
+            "    T before(Single<T> single) {",
+            "      return single.blockingGet();",
+            "    }",
+            "",
+            "    @AfterTemplate",
+            "    T after(Single<T> single) {",
+            "      return single.toFlowable().blockingFirst();",
+            "    }",
+            "  }",
+            "}"));
+
+    /* The source only uses `Single` implicitly, without mentioning it. */
+    assertThat(
+            PhasedMigrationDriver.create(
+                    TemplateRepository.fromDirectory(bundleDirectory),
+                    ImmutableList.of("-classpath", System.getProperty("java.class.path")),
+                    PhasedMigrationDriver.DEFAULT_MAX_ITERATIONS)
+                .migrate(
+                    "A.java",
+                    source(
+                        "import io.reactivex.Flowable;",
+                        "",
+                        "class A {",
+                        "  Integer m() {",
+                        "    return Flowable.just(1).singleOrError().blockingGet();",
+                        "  }",
+                        "}")))
+        .hasValue(
+            source(
+                "import io.reactivex.Flowable;",
+                "",
+                "class A {",
+                "  Integer m() {",
+                "    return Flowable.just(1).singleOrError().toFlowable().blockingFirst();",
+                "  }",
+                "}"));
+  }
+
+  private static Optional<String> migrate(
+      ImmutableList<CodeTransformer> rules, String... lines) {
+    return PhasedMigrationDriver.create(
+            rules, ImmutableList.of(), PhasedMigrationDriver.DEFAULT_MAX_ITERATIONS)
+        .migrate("A.java", source(lines));
+  }
+}
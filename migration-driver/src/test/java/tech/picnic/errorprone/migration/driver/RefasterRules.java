@@ -0,0 +1,123 @@
+package tech.picnic.errorprone.migration.driver;
+
+import static java.util.stream.Collectors.joining;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.errorprone.CodeTransformer;
+import com.google.errorprone.refaster.CompositeCodeTransformer;
+import com.google.errorprone.refaster.RefasterRuleBuilderScanner;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.api.BasicJavacTask;
+import com.sun.tools.javac.util.Context;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+/**
+ * Compiles Refaster templates into rules, as the Refaster rule compiler would, and parses the
+ * source files to match them against.
+ */
+final class RefasterRules {
+  private RefasterRules() {}
+
+  /**
+   * Compiles the given template class in package {@code pkg}; the name of the class determines the
+   * {@link MigrationPhase} of its rules.
+   *
+   * @param templateClassName The simple name of the template class, e.g. {@code
+   *     RxJavaUnwrapTemplates}.
+   * @param lines The lines of the source file declaring the template class.
+   * @return The compiled rules.
+   */
+  static ImmutableList<CodeTransformer> compile(String templateClassName, String... lines) {
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    JavacTask task =
+        (JavacTask)
+            ToolProvider.getSystemJavaCompiler()
+                .getTask(
+                    null,
+                    null,
+                    diagnostics,
+                    ImmutableList.of(
+                        "-proc:none", "-classpath", System.getProperty("java.class.path")),
+                    null,
+                    ImmutableList.of(new Source("pkg/" + templateClassName + ".java", lines)));
+    Iterable<? extends CompilationUnitTree> units = task.parse();
+    task.analyze();
+    assertThat(diagnostics.getDiagnostics()).isEmpty();
+
+    Context context = ((BasicJavacTask) task).getContext();
+    ImmutableList.Builder<CodeTransformer> rules = ImmutableList.builder();
+    new TreeScanner<Void, Void>() {
+      @Override
+      public Void visitClass(ClassTree node, Void unused) {
+        rules.addAll(RefasterRuleBuilderScanner.extractRules(node, context));
+        return super.visitClass(node, unused);
+      }
+    }.scan(units, null);
+    return rules.build();
+  }
+
+  /**
+   * Writes the given rules to a template bundle, as the Refaster rule compiler would.
+   *
+   * @param bundle The path of the {@code .refaster} file to write.
+   * @param rules The rules to write.
+   */
+  static void writeBundle(Path bundle, ImmutableList<CodeTransformer> rules) throws IOException {
+    try (ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(bundle))) {
+      out.writeObject(CompositeCodeTransformer.compose(rules));
+    }
+  }
+
+  /**
+   * Parses the given source file named {@code A.java}, without attributing it.
+   *
+   * @param lines The lines of the source file.
+   * @return The parsed compilation unit.
+   */
+  static CompilationUnitTree parse(String... lines) throws IOException {
+    JavacTask task =
+        (JavacTask)
+            ToolProvider.getSystemJavaCompiler()
+                .getTask(
+                    null,
+                    null,
+                    null,
+                    ImmutableList.of("-proc:none"),
+                    null,
+                    ImmutableList.of(new Source("A.java", lines)));
+    return Iterables.getOnlyElement(task.parse());
+  }
+
+  /** Returns the given lines as the content of a source file. */
+  static String source(String... lines) {
+    return Stream.of(lines).collect(joining("\n", "", "\n"));
+  }
+
+  private static final class Source extends SimpleJavaFileObject {
+    private final String content;
+
+    Source(String fileName, String... lines) {
+      super(URI.create("string:///" + fileName), Kind.SOURCE);
+      this.content = source(lines);
+    }
+
+    @Override
+    public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+      return content;
+    }
+  }
+}
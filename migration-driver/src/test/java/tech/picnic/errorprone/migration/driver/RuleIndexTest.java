@@ -0,0 +1,151 @@
+package tech.picnic.errorprone.migration.driver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableClassToInstanceMap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.errorprone.CodeTransformer;
+import com.google.errorprone.DescriptionListener;
+import com.google.errorprone.refaster.RefasterRule;
+import com.sun.source.util.TreePath;
+import com.sun.tools.javac.util.Context;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import org.junit.jupiter.api.Test;
+
+final class RuleIndexTest {
+  private static final ImmutableList<CodeTransformer> REFASTER_RULES =
+      RefasterRules.compile(
+          "RxJavaStringToReactorTemplates",
+          "package pkg;",
+          "",
+          "import com.google.errorprone.refaster.Refaster;",
+          "import com.google.errorprone.refaster.annotation.AfterTemplate;",
+          "import com.google.errorprone.refaster.annotation.BeforeTemplate;",
+          "",
+          "final class RxJavaStringToReactorTemplates {",
+          "  static final class StringTrimOrStrip {",
+          "    @BeforeTemplate",
+          "    String before(String s) {",
+          "      return Refaster.anyOf(s.trim(), s.strip());",
+          "    }",
+          "",
+          "    @AfterTemplate",
+          "    String after(String s) {",
+          "      return s.strip();",
+          "    }",
+          "  }",
+          "",
+          "  static final class StringIsEmpty {",
+          "    @BeforeTemplate",
+          "    boolean before(String s) {",
+          "      return s.isEmpty();",
+          "    }",
+          "",
+          "    @AfterTemplate",
+          "    boolean after(String s) {",
+          "      return s.length() == 0;",
+          "    }",
+          "  }",
+          "",
+          "  static final class PrintlnToErr {",
+          "    @BeforeTemplate",
+          "    void before(String s) {",
+          "      System.out.println(s);",
+          "    }",
+          "",
+          "    @AfterTemplate",
+          "    void after(String s) {",
+          "      System.err.println(s);",
+          "    }",
+          "  }",
+          "",
+          "  static final class StringConcatenation {",
+          "    @BeforeTemplate",
+          "    String before(String s, String t) {",
+          "      return s + t;",
+          "    }",
+          "",
+          "    @AfterTemplate",
+          "    String after(String s, String t) {",
+          "      return s.concat(t);",
+          "    }",
+          "  }",
+          "}");
+  private static final CodeTransformer ANY_OF_RULE = rule("StringTrimOrStrip");
+  private static final CodeTransformer METHOD_RULE = rule("StringIsEmpty");
+  private static final CodeTransformer BLOCK_RULE = rule("PrintlnToErr");
+  private static final CodeTransformer BINARY_RULE = rule("StringConcatenation");
+  private static final CodeTransformer NON_REFASTER_RULE =
+      new CodeTransformer() {
+        @Override
+        public void apply(TreePath path, Context context, DescriptionListener listener) {}
+
+        @Override
+        public ImmutableClassToInstanceMap<Annotation> annotations() {
+          return ImmutableClassToInstanceMap.of();
+        }
+      };
+  private static final RuleIndex INDEX =
+      RuleIndex.create(
+          ImmutableList.of(NON_REFASTER_RULE, ANY_OF_RULE, METHOD_RULE, BLOCK_RULE, BINARY_RULE));
+
+  @Test
+  void selectsRulesByInvokedMethod() throws IOException {
+    assertThat(
+            INDEX.select(
+                RefasterRules.parse(
+                    "class A {", "  boolean m(String s) {", "    return s.isEmpty();", "  }", "}")))
+        .containsExactly(NON_REFASTER_RULE, METHOD_RULE, BLOCK_RULE, BINARY_RULE);
+  }
+
+  @Test
+  void selectsAnyOfRulesByEachAlternative() throws IOException {
+    assertThat(
+            INDEX.select(
+                RefasterRules.parse(
+                    "class A {", "  String m(String s) {", "    return s.strip();", "  }", "}")))
+        .containsExactly(NON_REFASTER_RULE, ANY_OF_RULE, BLOCK_RULE, BINARY_RULE);
+    assertThat(
+            INDEX.select(
+                RefasterRules.parse(
+                    "import java.util.stream.Stream;",
+                    "",
+                    "class A {",
+                    "  Stream<String> m(Stream<String> s) {",
+                    "    return s.map(String::trim);",
+                    "  }",
+                    "}")))
+        .containsExactly(NON_REFASTER_RULE, ANY_OF_RULE, BLOCK_RULE, BINARY_RULE);
+  }
+
+  @Test
+  void alwaysSelectsUnindexableRules() throws IOException {
+    assertThat(INDEX.select(RefasterRules.parse("class A {}")))
+        .containsExactly(NON_REFASTER_RULE, BLOCK_RULE, BINARY_RULE);
+  }
+
+  @Test
+  void selectsRulesByMethodNameOnly() throws IOException {
+    assertThat(
+            INDEX.select(
+                RefasterRules.parse(
+                    "import java.util.List;",
+                    "",
+                    "class A {",
+                    "  boolean m(List<String> list) {",
+                    "    return list.isEmpty();",
+                    "  }",
+                    "}")))
+        .contains(METHOD_RULE);
+  }
+
+  private static CodeTransformer rule(String templateName) {
+    return Iterables.getOnlyElement(
+        Iterables.filter(
+            REFASTER_RULES,
+            rule ->
+                ((RefasterRule<?, ?>) rule).qualifiedTemplateClass().endsWith('.' + templateName)));
+  }
+}
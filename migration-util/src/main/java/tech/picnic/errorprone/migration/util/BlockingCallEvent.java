@@ -0,0 +1,29 @@
+package tech.picnic.errorprone.migration.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * A Java Flight Recorder event emitted when a blocking call made through {@link
+ * RxJavaReactorMigrationUtil} takes longer than the configured threshold.
+ *
+ * <p>The threshold defaults to 20 milliseconds and can be changed through the JFR settings of the
+ * {@code tech.picnic.errorprone.migration.BlockingCall} event.
+ */
+@Name("tech.picnic.errorprone.migration.BlockingCall")
+@Label("Blocking Call")
+@Category("RxJava to Reactor Migration")
+@Description("A migrated blocking call waited for a Reactor publisher")
+@Threshold("20 ms")
+final class BlockingCallEvent extends Event {
+  @Label("Operation")
+  String operation;
+
+  BlockingCallEvent(String operation) {
+    this.operation = operation;
+  }
+}
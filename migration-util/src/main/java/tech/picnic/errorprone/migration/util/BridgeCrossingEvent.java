@@ -0,0 +1,33 @@
+package tech.picnic.errorprone.migration.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** A Java Flight Recorder event emitted when a bridge adapter is created. */
+@Name("tech.picnic.errorprone.migration.BridgeCrossing")
+@Label("Bridge Crossing")
+@Category("RxJava to Reactor Migration")
+@Description("An RxJava publisher was adapted to a Reactor publisher or vice versa")
+final class BridgeCrossingEvent extends Event {
+  private static final EventType TYPE = EventType.getEventType(BridgeCrossingEvent.class);
+
+  @Label("Adapter")
+  String adapter;
+
+  /**
+   * Emits an event for the given adapter, if the event is enabled. Bridge crossings are frequent,
+   * so the event type rather than a new event instance is consulted, such that no event is
+   * allocated unless a recording captures it.
+   */
+  static void emit(String adapter) {
+    if (TYPE.isEnabled()) {
+      BridgeCrossingEvent event = new BridgeCrossingEvent();
+      event.adapter = adapter;
+      event.commit();
+    }
+  }
+}
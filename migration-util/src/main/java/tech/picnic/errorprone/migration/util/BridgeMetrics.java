@@ -0,0 +1,234 @@
+package tech.picnic.errorprone.migration.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MXBean;
+import javax.management.ObjectName;
+
+/**
+ * Opt-in counters of the number of times an RxJava publisher is converted into a Reactor publisher
+ * or vice versa by {@link RxJavaReactorBridge} and {@link RxJavaReactorMigrationUtil}.
+ *
+ * <p>Conversions made by {@code RxJava2Adapter} are not counted. The migration templates emit such
+ * conversions, which the {@code RxJavaReactorBridgeTemplates} subsequently rewrite into {@link
+ * RxJavaReactorBridge} calls; code migrated without the latter templates is thus not covered.
+ *
+ * <p>Counting is enabled by setting the {@value #ENABLED_PROPERTY} system property to {@code true}.
+ * Counting per call site, which requires a stack walk per conversion, is additionally enabled by
+ * setting {@value #CALL_SITES_PROPERTY} to {@code true}. When disabled, counting a conversion
+ * amounts to the JFR check described below and a read of a {@code static final} field, which the
+ * JIT compiler folds away.
+ *
+ * <p>Independently of these counters, each conversion emits a {@code
+ * tech.picnic.errorprone.migration.BridgeCrossing} Java Flight Recorder event if that event is
+ * enabled. Whether it is enabled is checked before the event is created, so without a recording
+ * that captures the event a conversion does not allocate on its behalf.
+ */
+public final class BridgeMetrics {
+  /** The system property that enables counting of conversions per adapter kind. */
+  public static final String ENABLED_PROPERTY = "tech.picnic.errorprone.migration.util.metrics";
+
+  /** The system property that enables counting of conversions per call site. */
+  public static final String CALL_SITES_PROPERTY =
+      "tech.picnic.errorprone.migration.util.metrics.callSites";
+
+  static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+  private static final boolean CALL_SITES = ENABLED && Boolean.getBoolean(CALL_SITES_PROPERTY);
+  private static final String OBJECT_NAME =
+      "tech.picnic.errorprone.migration.util:type=BridgeMetrics";
+  private static final Set<String> CONVERTING_CLASSES =
+      Set.of(
+          BridgeMetrics.class.getName(),
+          RxJavaReactorBridge.class.getName(),
+          RxJavaReactorMigrationUtil.class.getName());
+
+  private static final Map<AdapterKind, LongAdder> CROSSINGS = new EnumMap<>(AdapterKind.class);
+  private static final Map<String, LongAdder> CALL_SITE_CROSSINGS = new ConcurrentHashMap<>();
+  private static final LongAccumulator OBSERVABLE_BUFFER_HIGH_WATER_MARK =
+      new LongAccumulator(Math::max, 0);
+
+  static {
+    for (AdapterKind kind : AdapterKind.values()) {
+      CROSSINGS.put(kind, new LongAdder());
+    }
+  }
+
+  private BridgeMetrics() {}
+
+  /** The kinds of conversion that are counted. */
+  public enum AdapterKind {
+    FLUX_TO_FLOWABLE("fluxToFlowable"),
+    FLOWABLE_TO_FLUX("flowableToFlux"),
+    MONO_TO_SINGLE("monoToSingle"),
+    SINGLE_TO_MONO("singleToMono"),
+    MONO_TO_MAYBE("monoToMaybe"),
+    MAYBE_TO_MONO("maybeToMono"),
+    MONO_TO_COMPLETABLE("monoToCompletable"),
+    COMPLETABLE_TO_MONO("completableToMono"),
+    OBSERVABLE_TO_FLUX("observableToFlux"),
+    GROUPED_FLUX_TO_GROUPED_FLOWABLE("groupedFluxToGroupedFlowable"),
+    GROUPED_FLOWABLE_TO_GROUPED_FLUX("groupedFlowableToGroupedFlux");
+
+    private final String methodName;
+
+    AdapterKind(String methodName) {
+      this.methodName = methodName;
+    }
+
+    /**
+     * Returns the name of the conversion method counted by this kind.
+     *
+     * @return The method name, e.g. {@code fluxToFlowable}.
+     */
+    public String methodName() {
+      return methodName;
+    }
+  }
+
+  /** A JMX view on the collected counters. */
+  @MXBean
+  public interface CountersMXBean {
+    /**
+     * Returns the number of conversions per adapter kind.
+     *
+     * @return A map from conversion method name to count.
+     */
+    Map<String, Long> getCrossings();
+
+    /**
+     * Returns the number of conversions per adapter kind and call site.
+     *
+     * @return A map from conversion method name and call site to count.
+     */
+    Map<String, Long> getCallSiteCrossings();
+
+    /**
+     * Returns the largest number of elements buffered by a bounded {@code observableToFlux}
+     * conversion.
+     *
+     * @return The high-water mark of the buffer size.
+     */
+    long getObservableBufferHighWaterMark();
+
+    /** Resets all counters to zero. */
+    void reset();
+  }
+
+  static void record(AdapterKind kind) {
+    BridgeCrossingEvent.emit(kind.methodName());
+    if (!ENABLED) {
+      return;
+    }
+
+    CROSSINGS.get(kind).increment();
+    if (CALL_SITES) {
+      CALL_SITE_CROSSINGS
+          .computeIfAbsent(kind.methodName() + " @ " + callSite(), k -> new LongAdder())
+          .increment();
+    }
+  }
+
+  static void recordObservableBufferLevel(int level) {
+    OBSERVABLE_BUFFER_HIGH_WATER_MARK.accumulate(level);
+  }
+
+  /**
+   * Returns the number of conversions per adapter kind since startup or the last {@link #reset()}.
+   *
+   * @return A map from conversion method name to count, in declaration order of {@link
+   *     AdapterKind}.
+   */
+  public static Map<String, Long> snapshot() {
+    Map<String, Long> snapshot = new LinkedHashMap<>();
+    CROSSINGS.forEach((kind, count) -> snapshot.put(kind.methodName(), count.sum()));
+    return Collections.unmodifiableMap(snapshot);
+  }
+
+  /**
+   * Returns the number of conversions per adapter kind and call site since startup or the last
+   * {@link #reset()}. This map is empty unless {@value #CALL_SITES_PROPERTY} is set.
+   *
+   * @return A map from conversion method name and call site to count, sorted by key.
+   */
+  public static Map<String, Long> callSiteSnapshot() {
+    Map<String, Long> snapshot = new TreeMap<>();
+    CALL_SITE_CROSSINGS.forEach((site, count) -> snapshot.put(site, count.sum()));
+    return Collections.unmodifiableMap(snapshot);
+  }
+
+  /**
+   * Returns the largest number of elements buffered by a bounded {@link
+   * RxJavaReactorBridge#observableToFlux} conversion since startup or the last {@link #reset()}.
+   * This is always zero unless {@value #ENABLED_PROPERTY} is set.
+   *
+   * @return The high-water mark of the buffer size.
+   */
+  public static long observableBufferHighWaterMark() {
+    return OBSERVABLE_BUFFER_HIGH_WATER_MARK.get();
+  }
+
+  /** Resets all counters to zero. */
+  public static void reset() {
+    CROSSINGS.values().forEach(LongAdder::reset);
+    CALL_SITE_CROSSINGS.clear();
+    OBSERVABLE_BUFFER_HIGH_WATER_MARK.reset();
+  }
+
+  /**
+   * Registers a {@link CountersMXBean} with the platform MBean server.
+   *
+   * @throws JMException If the bean cannot be registered, e.g. because it already is.
+   */
+  public static void registerMBean() throws JMException {
+    ManagementFactory.getPlatformMBeanServer()
+        .registerMBean(new Counters(), new ObjectName(OBJECT_NAME));
+  }
+
+  private static String callSite() {
+    return StackWalker.getInstance()
+        .walk(
+            frames ->
+                frames
+                    .filter(f -> !isConvertingFrame(f.getClassName()))
+                    .findFirst()
+                    .map(f -> f.getClassName() + '.' + f.getMethodName() + ':' + f.getLineNumber())
+                    .orElse("<unknown>"));
+  }
+
+  /** Tells whether the given class, or the class enclosing it, performs conversions. */
+  private static boolean isConvertingFrame(String className) {
+    int nested = className.indexOf('$');
+    return CONVERTING_CLASSES.contains(nested < 0 ? className : className.substring(0, nested));
+  }
+
+  private static final class Counters implements CountersMXBean {
+    @Override
+    public Map<String, Long> getCrossings() {
+      return snapshot();
+    }
+
+    @Override
+    public Map<String, Long> getCallSiteCrossings() {
+      return callSiteSnapshot();
+    }
+
+    @Override
+    public long getObservableBufferHighWaterMark() {
+      return observableBufferHighWaterMark();
+    }
+
+    @Override
+    public void reset() {
+      BridgeMetrics.reset();
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package tech.picnic.errorprone.migration.util;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * The way in which the converters of {@link RxJavaReactorMigrationUtil} surface exceptions thrown
+ * by the wrapped RxJava functional interfaces.
+ *
+ * <p>The default strategy can be selected using the {@value #PROPERTY} system property, and changed
+ * at runtime using {@link RxJavaReactorMigrationUtil#setCheckedExceptionStrategy}.
+ */
+public enum CheckedExceptionStrategy {
+  /**
+   * Wraps the exception in a new {@link IllegalArgumentException}. This is the historic behavior;
+   * it captures a stack trace per failure and hides the original exception type from {@code
+   * onErrorResume} handlers.
+   */
+  WRAP,
+  /**
+   * Passes the exception through {@link reactor.core.Exceptions#propagate}: unchecked exceptions
+   * are rethrown as-is and checked exceptions are wrapped in a Reactor-specific exception that
+   * Reactor operators unwrap again before invoking error handlers.
+   */
+  PROPAGATE,
+  /**
+   * Rethrows the original exception without wrapping it, even if it is a checked exception. This
+   * does not allocate, and error handlers observe the original exception type.
+   */
+  SNEAKY_THROW;
+
+  /** The system property from which the initial strategy is read. */
+  public static final String PROPERTY =
+      "tech.picnic.errorprone.migration.util.checkedExceptionStrategy";
+
+  /**
+   * Returns the strategy configured using the {@value #PROPERTY} system property.
+   *
+   * <p>An absent property selects {@link #WRAP}. An invalid value also selects {@link #WRAP},
+   * after logging a warning that lists the supported values: this method is invoked from a static
+   * initializer, so throwing would make every converter fail with an {@link
+   * ExceptionInInitializerError}.
+   */
+  static CheckedExceptionStrategy fromSystemProperty() {
+    String value = System.getProperty(PROPERTY);
+    if (value == null) {
+      return WRAP;
+    }
+
+    try {
+      return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      System.getLogger(CheckedExceptionStrategy.class.getName())
+          .log(
+              System.Logger.Level.WARNING,
+              "Invalid value ''{0}'' for system property {1}; expected one of {2}. Using {3}.",
+              value,
+              PROPERTY,
+              Arrays.toString(values()),
+              WRAP);
+      return WRAP;
+    }
+  }
+}
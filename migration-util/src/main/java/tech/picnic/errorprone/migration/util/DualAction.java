@@ -0,0 +1,14 @@
+package tech.picnic.errorprone.migration.util;
+
+/**
+ * An action that is both an RxJava {@link io.reactivex.functions.Action} and a {@link Runnable}.
+ *
+ * <p>Instances can be passed to RxJava and Reactor operators alike. {@link
+ * RxJavaReactorMigrationUtil#toRunnable} returns them unchanged, so no adapter is allocated and
+ * no exception translation is applied per element.
+ */
+@FunctionalInterface
+public interface DualAction extends io.reactivex.functions.Action, Runnable {
+  @Override
+  void run();
+}
@@ -0,0 +1,20 @@
+package tech.picnic.errorprone.migration.util;
+
+/**
+ * A function that is both an RxJava {@link io.reactivex.functions.BiFunction} and a JDK {@link
+ * java.util.function.BiFunction}.
+ *
+ * <p>Instances can be passed to RxJava and Reactor operators alike. {@link
+ * RxJavaReactorMigrationUtil#toJdkBiFunction} returns them unchanged, so no adapter is allocated and
+ * no exception translation is applied per element.
+ *
+ * @param <T> The type of the first input.
+ * @param <U> The type of the second input.
+ * @param <R> The type of the result.
+ */
+@FunctionalInterface
+public interface DualBiFunction<T, U, R>
+    extends io.reactivex.functions.BiFunction<T, U, R>, java.util.function.BiFunction<T, U, R> {
+  @Override
+  R apply(T t, U u);
+}
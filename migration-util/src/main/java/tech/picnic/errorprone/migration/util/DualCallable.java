@@ -0,0 +1,24 @@
+package tech.picnic.errorprone.migration.util;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * A supplier that is both a {@link Callable} and a {@link Supplier}.
+ *
+ * <p>Instances can be passed to RxJava and Reactor operators alike. {@link
+ * RxJavaReactorMigrationUtil#callableAsSupplier} returns them unchanged, so no adapter is
+ * allocated and no exception translation is applied per element.
+ *
+ * @param <T> The type of the result.
+ */
+@FunctionalInterface
+public interface DualCallable<T> extends Callable<T>, Supplier<T> {
+  @Override
+  T get();
+
+  @Override
+  default T call() {
+    return get();
+  }
+}
@@ -0,0 +1,18 @@
+package tech.picnic.errorprone.migration.util;
+
+/**
+ * A consumer that is both an RxJava {@link io.reactivex.functions.Consumer} and a JDK {@link
+ * java.util.function.Consumer}.
+ *
+ * <p>Instances can be passed to RxJava and Reactor operators alike. {@link
+ * RxJavaReactorMigrationUtil#toJdkConsumer} returns them unchanged, so no adapter is allocated and
+ * no exception translation is applied per element.
+ *
+ * @param <T> The type of the input.
+ */
+@FunctionalInterface
+public interface DualConsumer<T>
+    extends io.reactivex.functions.Consumer<T>, java.util.function.Consumer<T> {
+  @Override
+  void accept(T t);
+}
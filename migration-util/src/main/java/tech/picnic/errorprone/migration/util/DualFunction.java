@@ -0,0 +1,19 @@
+package tech.picnic.errorprone.migration.util;
+
+/**
+ * A function that is both an RxJava {@link io.reactivex.functions.Function} and a JDK {@link
+ * java.util.function.Function}.
+ *
+ * <p>Instances can be passed to RxJava and Reactor operators alike. {@link
+ * RxJavaReactorMigrationUtil#toJdkFunction} returns them unchanged, so no adapter is allocated and
+ * no exception translation is applied per element.
+ *
+ * @param <T> The type of the input.
+ * @param <R> The type of the result.
+ */
+@FunctionalInterface
+public interface DualFunction<T, R>
+    extends io.reactivex.functions.Function<T, R>, java.util.function.Function<T, R> {
+  @Override
+  R apply(T t);
+}
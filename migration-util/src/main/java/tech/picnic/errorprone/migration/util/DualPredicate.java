@@ -0,0 +1,18 @@
+package tech.picnic.errorprone.migration.util;
+
+/**
+ * A predicate that is both an RxJava {@link io.reactivex.functions.Predicate} and a JDK {@link
+ * java.util.function.Predicate}.
+ *
+ * <p>Instances can be passed to RxJava and Reactor operators alike. {@link
+ * RxJavaReactorMigrationUtil#toJdkPredicate} returns them unchanged, so no adapter is allocated and
+ * no exception translation is applied per element.
+ *
+ * @param <T> The type of the input.
+ */
+@FunctionalInterface
+public interface DualPredicate<T>
+    extends io.reactivex.functions.Predicate<T>, java.util.function.Predicate<T> {
+  @Override
+  boolean test(T t);
+}
@@ -0,0 +1,44 @@
+package tech.picnic.errorprone.migration.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event emitted when a converter of {@link RxJavaReactorMigrationUtil}
+ * translates an exception thrown by the wrapped RxJava functional interface.
+ */
+@Name("tech.picnic.errorprone.migration.ExceptionTranslated")
+@Label("Exception Translated")
+@Category("RxJava to Reactor Migration")
+@Description("An exception thrown by a converted RxJava functional interface was translated")
+final class ExceptionTranslatedEvent extends Event {
+  private static final EventType TYPE = EventType.getEventType(ExceptionTranslatedEvent.class);
+
+  @Label("Converter")
+  String converter;
+
+  @Label("Exception Type")
+  Class<?> exceptionType;
+
+  @Label("Strategy")
+  String strategy;
+
+  /**
+   * Emits an event for the given translation, if the event is enabled. Like {@link
+   * BridgeCrossingEvent}, this consults the event type, such that no event is allocated unless a
+   * recording captures it.
+   */
+  static void emit(String converter, Exception exception, CheckedExceptionStrategy strategy) {
+    if (TYPE.isEnabled()) {
+      ExceptionTranslatedEvent event = new ExceptionTranslatedEvent();
+      event.converter = converter;
+      event.exceptionType = exception.getClass();
+      event.strategy = strategy.name();
+      event.commit();
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package tech.picnic.errorprone.migration.util;
+
+import io.reactivex.internal.fuseable.QueueFuseable;
+import reactor.core.Fuseable;
+
+/**
+ * Translates queue fusion modes between RxJava's {@link QueueFuseable} and Reactor's {@link
+ * Fuseable}.
+ *
+ * <p>Both libraries happen to use the same bit values today, but the modes are translated flag by
+ * flag so that the negotiation does not silently depend on that. The bridge subscribers do not
+ * introduce a thread boundary themselves, so a {@link QueueFuseable#BOUNDARY} request is forwarded
+ * as a {@link Fuseable#THREAD_BARRIER} request, allowing the upstream to decline fusion when it
+ * runs user code that must not move threads.
+ */
+final class FusionModes {
+  private FusionModes() {}
+
+  /**
+   * Translates an RxJava fusion mode into the equivalent Reactor fusion mode.
+   *
+   * @param rxJavaMode A combination of {@link QueueFuseable} flags.
+   * @return The equivalent combination of {@link Fuseable} flags.
+   */
+  static int toReactor(int rxJavaMode) {
+    int mode = Fuseable.NONE;
+    if ((rxJavaMode & QueueFuseable.SYNC) != 0) {
+      mode |= Fuseable.SYNC;
+    }
+    if ((rxJavaMode & QueueFuseable.ASYNC) != 0) {
+      mode |= Fuseable.ASYNC;
+    }
+    if ((rxJavaMode & QueueFuseable.BOUNDARY) != 0) {
+      mode |= Fuseable.THREAD_BARRIER;
+    }
+    return mode;
+  }
+
+  /**
+   * Translates a Reactor fusion mode into the equivalent RxJava fusion mode.
+   *
+   * @param reactorMode A combination of {@link Fuseable} flags.
+   * @return The equivalent combination of {@link QueueFuseable} flags.
+   */
+  static int toRxJava(int reactorMode) {
+    int mode = QueueFuseable.NONE;
+    if ((reactorMode & Fuseable.SYNC) != 0) {
+      mode |= QueueFuseable.SYNC;
+    }
+    if ((reactorMode & Fuseable.ASYNC) != 0) {
+      mode |= QueueFuseable.ASYNC;
+    }
+    if ((reactorMode & Fuseable.THREAD_BARRIER) != 0) {
+      mode |= QueueFuseable.BOUNDARY;
+    }
+    return mode;
+  }
+
+  /**
+   * Asks a Reactor upstream for the fusion mode requested by an RxJava downstream.
+   *
+   * @param upstream The Reactor upstream subscription, or {@code null} if it cannot fuse.
+   * @param requestedMode The {@link QueueFuseable} mode requested by the downstream.
+   * @return The {@link QueueFuseable} mode granted by the upstream; {@link QueueFuseable#NONE} if
+   *     the upstream cannot fuse or granted a mode that was not requested.
+   */
+  static int negotiateWithReactor(Fuseable.QueueSubscription<?> upstream, int requestedMode) {
+    if (upstream == null) {
+      return QueueFuseable.NONE;
+    }
+    int granted = toRxJava(upstream.requestFusion(toReactor(requestedMode)));
+    return granted & requestedMode & QueueFuseable.ANY;
+  }
+
+  /**
+   * Asks an RxJava upstream for the fusion mode requested by a Reactor downstream.
+   *
+   * @param upstream The RxJava upstream subscription, or {@code null} if it cannot fuse.
+   * @param requestedMode The {@link Fuseable} mode requested by the downstream.
+   * @return The {@link Fuseable} mode granted by the upstream; {@link Fuseable#NONE} if the
+   *     upstream cannot fuse or granted a mode that was not requested.
+   */
+  static int negotiateWithRxJava(
+      io.reactivex.internal.fuseable.QueueSubscription<?> upstream, int requestedMode) {
+    if (upstream == null) {
+      return Fuseable.NONE;
+    }
+    int granted = toReactor(upstream.requestFusion(toRxJava(requestedMode)));
+    return granted & requestedMode & Fuseable.ANY;
+  }
+}
@@ -0,0 +1,773 @@
+package tech.picnic.errorprone.migration.util;
+
+import static java.util.Objects.requireNonNull;
+
+import io.reactivex.BackpressureStrategy;
+import io.reactivex.Completable;
+import io.reactivex.CompletableObserver;
+import io.reactivex.Flowable;
+import io.reactivex.FlowableSubscriber;
+import io.reactivex.Maybe;
+import io.reactivex.MaybeObserver;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import io.reactivex.SingleObserver;
+import io.reactivex.internal.fuseable.ConditionalSubscriber;
+import io.reactivex.internal.fuseable.QueueSubscription;
+import io.reactivex.internal.fuseable.ScalarCallable;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.adapter.rxjava.RxJava2Adapter;
+import reactor.core.CoreSubscriber;
+import reactor.core.Exceptions;
+import reactor.core.Fuseable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
+
+/**
+ * Conversions between RxJava and Reactor types that undo an earlier conversion instead of stacking
+ * another adapter on top of it.
+ *
+ * <p>Each method mirrors the {@link RxJava2Adapter} method of the same name. When the given source
+ * was itself produced by the inverse method of this class, the original publisher is returned
+ * as-is, so a half-migrated chain such as {@code fluxToFlowable(flowableToFlux(flowable))} does not
+ * cross the library boundary at runtime.
+ *
+ * <p>The {@link Flux} and {@link Flowable} adapters additionally negotiate queue fusion across the
+ * boundary and preserve conditional subscribers, so fused operator chains such as {@code
+ * range().map().filter()} keep running fused on both sides.
+ *
+ * <p>Scalar and {@link Callable} sources, such as {@code Mono.just(value)} or {@code
+ * Flowable.fromCallable(callable)}, are converted into the equivalent scalar or callable source of
+ * the other library, so that operators on either side can still apply their scalar shortcuts.
+ */
+public final class RxJavaReactorBridge {
+  /**
+   * The system property that opts {@link #observableToFlux(Observable)} into a bounded buffer of
+   * the configured size. By default the buffer is unbounded.
+   */
+  public static final String OBSERVABLE_BUFFER_SIZE_PROPERTY =
+      "tech.picnic.errorprone.migration.util.observableBufferSize";
+
+  /** The configured {@link #observableToFlux(Observable)} buffer size; zero means unbounded. */
+  private static final int OBSERVABLE_BUFFER_SIZE =
+      Math.max(0, Integer.getInteger(OBSERVABLE_BUFFER_SIZE_PROPERTY, 0));
+
+  private RxJavaReactorBridge() {}
+
+  /**
+   * Converts a {@link Flux} into a {@link Flowable}.
+   *
+   * @param source The {@link Flux} to convert.
+   * @param <T> The type of the emitted elements.
+   * @return The {@link Flowable} from which {@code source} was created, or a new adapter.
+   */
+  public static <T> Flowable<T> fluxToFlowable(Flux<T> source) {
+    if (source instanceof FlowableAsFlux) {
+      return ((FlowableAsFlux<T>) source).source;
+    }
+    BridgeMetrics.record(BridgeMetrics.AdapterKind.FLUX_TO_FLOWABLE);
+    if (source instanceof Fuseable.ScalarCallable) {
+      return scalarFlowable(asCallable(source));
+    }
+    return new FluxAsFlowable<>(source);
+  }
+
+  /**
+   * Converts a {@link Flowable} into a {@link Flux}.
+   *
+   * @param source The {@link Flowable} to convert.
+   * @param <T> The type of the emitted elements.
+   * @return The {@link Flux} from which {@code source} was created, or a new adapter.
+   */
+  public static <T> Flux<T> flowableToFlux(Flowable<T> source) {
+    if (source instanceof FluxAsFlowable) {
+      return ((FluxAsFlowable<T>) source).source;
+    }
+    BridgeMetrics.record(BridgeMetrics.AdapterKind.FLOWABLE_TO_FLUX);
+    if (source instanceof ScalarCallable) {
+      return Mono.justOrEmpty(((ScalarCallable<T>) source).call()).flux();
+    }
+    if (source instanceof Callable) {
+      Callable<T> callable = asCallable(source);
+      return Mono.fromCallable(
+              () -> requireNonNull(callable.call(), "The callable returned a null value"))
+          .flux();
+    }
+    return new FlowableAsFlux<>(source);
+  }
+
+  /**
+   * Converts a {@link Mono} into a {@link Single}.
+   *
+   * @param source The {@link Mono} to convert.
+   * @param <T> The type of the emitted element.
+   * @return The {@link Single} from which {@code source} was created, or a new adapter.
+   */
+  public static <T> Single<T> monoToSingle(Mono<T> source) {
+    if (source instanceof SingleAsMono) {
+      return ((SingleAsMono<T>) source).source;
+    }
+    BridgeMetrics.record(BridgeMetrics.AdapterKind.MONO_TO_SINGLE);
+    if (source instanceof Fuseable.ScalarCallable) {
+      return scalarSingle(asCallable(source));
+    }
+    return new MonoAsSingle<>(source);
+  }
+
+  /**
+   * Converts a {@link Single} into a {@link Mono}.
+   *
+   * @param source The {@link Single} to convert.
+   * @param <T> The type of the emitted element.
+   * @return The {@link Mono} from which {@code source} was created, or a new adapter.
+   */
+  public static <T> Mono<T> singleToMono(Single<T> source) {
+    if (source instanceof MonoAsSingle) {
+      return ((MonoAsSingle<T>) source).source;
+    }
+    BridgeMetrics.record(BridgeMetrics.AdapterKind.SINGLE_TO_MONO);
+    return new SingleAsMono<>(source);
+  }
+
+  /**
+   * Converts a {@link Mono} into a {@link Maybe}.
+   *
+   * @param source The {@link Mono} to convert.
+   * @param <T> The type of the emitted element.
+   * @return The {@link Maybe} from which {@code source} was created, or a new adapter.
+   */
+  public static <T> Maybe<T> monoToMaybe(Mono<T> source) {
+    if (source instanceof MaybeAsMono) {
+      return ((MaybeAsMono<T>) source).source;
+    }
+    BridgeMetrics.record(BridgeMetrics.AdapterKind.MONO_TO_MAYBE);
+    if (source instanceof Callable) {
+      return Maybe.fromCallable(asCallable(source));
+    }
+    return new MonoAsMaybe<>(source);
+  }
+
+  /**
+   * Converts a {@link Maybe} into a {@link Mono}.
+   *
+   * @param source The {@link Maybe} to convert.
+   * @param <T> The type of the emitted element.
+   * @return The {@link Mono} from which {@code source} was created, or a new adapter.
+   */
+  public static <T> Mono<T> maybeToMono(Maybe<T> source) {
+    if (source instanceof MonoAsMaybe) {
+      return ((MonoAsMaybe<T>) source).source;
+    }
+    BridgeMetrics.record(BridgeMetrics.AdapterKind.MAYBE_TO_MONO);
+    if (source instanceof ScalarCallable) {
+      return Mono.justOrEmpty(((ScalarCallable<T>) source).call());
+    }
+    if (source instanceof Callable) {
+      return Mono.fromCallable(asCallable(source));
+    }
+    return new MaybeAsMono<>(source);
+  }
+
+  /**
+   * Converts a {@link Mono} into a {@link Completable}, ignoring the emitted element, if any.
+   *
+   * @param source The {@link Mono} to convert.
+   * @return The {@link Completable} from which {@code source} was created, or a new adapter.
+   */
+  public static Completable monoToCompletable(Mono<?> source) {
+    if (source instanceof CompletableAsMono) {
+      return ((CompletableAsMono) source).source;
+    }
+    BridgeMetrics.record(BridgeMetrics.AdapterKind.MONO_TO_COMPLETABLE);
+    if (source instanceof Fuseable.ScalarCallable) {
+      return Completable.fromCallable(asCallable(source));
+    }
+    return new MonoAsCompletable(source);
+  }
+
+  /**
+   * Converts a {@link Completable} into a {@link Mono}.
+   *
+   * @param source The {@link Completable} to convert.
+   * @return The {@link Mono} from which {@code source} was created, or a new adapter.
+   */
+  public static Mono<Void> completableToMono(Completable source) {
+    if (source instanceof MonoAsCompletable) {
+      Mono<?> mono = ((MonoAsCompletable) source).source;
+      return mono.then();
+    }
+    BridgeMetrics.record(BridgeMetrics.AdapterKind.COMPLETABLE_TO_MONO);
+    return new CompletableAsMono(source);
+  }
+
+  /**
+   * Converts an {@link Observable} into a {@link Flux}, buffering all elements that the downstream
+   * has not yet requested, like {@code RxJava2Adapter.observableToFlux(observable,
+   * BackpressureStrategy.BUFFER)}.
+   *
+   * <p>Setting the {@value #OBSERVABLE_BUFFER_SIZE_PROPERTY} system property to a positive number
+   * opts into a buffer of that size, beyond which the returned {@link Flux} signals an overflow
+   * error. This bounds the heap usage of a slow downstream, but fails streams that the unbounded
+   * buffer would deliver, so it should only be enabled after confirming, e.g. using {@link
+   * BridgeMetrics#observableBufferHighWaterMark()}, that the chosen size suffices. Use {@link
+   * #observableToFlux(Observable, int, BufferOverflowStrategy)} to bound individual conversions
+   * instead.
+   *
+   * @param source The {@link Observable} to convert.
+   * @param <T> The type of the emitted elements.
+   * @return A {@link Flux} emitting the elements of {@code source}.
+   */
+  public static <T> Flux<T> observableToFlux(Observable<T> source) {
+    if (OBSERVABLE_BUFFER_SIZE > 0) {
+      return observableToFlux(source, OBSERVABLE_BUFFER_SIZE, BufferOverflowStrategy.ERROR);
+    }
+
+    BridgeMetrics.record(BridgeMetrics.AdapterKind.OBSERVABLE_TO_FLUX);
+    return new FlowableAsFlux<>(source.toFlowable(BackpressureStrategy.BUFFER));
+  }
+
+  /**
+   * Converts an {@link Observable} into a {@link Flux}, buffering at most {@code capacity} elements
+   * that the downstream has not yet requested. Unlike {@code BackpressureStrategy.BUFFER}, this
+   * applies the given overflow strategy once the buffer is full.
+   *
+   * @param source The {@link Observable} to convert.
+   * @param capacity The maximum number of buffered elements.
+   * @param overflowStrategy What to do when an element arrives while the buffer is full.
+   * @param <T> The type of the emitted elements.
+   * @return A {@link Flux} emitting the elements of {@code source}.
+   */
+  public static <T> Flux<T> observableToFlux(
+      Observable<T> source, int capacity, BufferOverflowStrategy overflowStrategy) {
+    BridgeMetrics.record(BridgeMetrics.AdapterKind.OBSERVABLE_TO_FLUX);
+    Flux<T> flux = new FlowableAsFlux<>(source.toFlowable(BackpressureStrategy.MISSING));
+    if (!BridgeMetrics.ENABLED) {
+      return flux.onBackpressureBuffer(capacity, e -> {}, overflowStrategy);
+    }
+
+    return Flux.defer(
+        () -> {
+          AtomicInteger buffered = new AtomicInteger();
+          return flux.doOnNext(
+                  e -> BridgeMetrics.recordObservableBufferLevel(buffered.incrementAndGet()))
+              .onBackpressureBuffer(capacity, e -> buffered.decrementAndGet(), overflowStrategy)
+              .doOnNext(e -> buffered.decrementAndGet());
+        });
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> Callable<T> asCallable(Object source) {
+    return (Callable<T>) source;
+  }
+
+  @SuppressWarnings("IllegalCatch")
+  private static <T> Flowable<T> scalarFlowable(Callable<T> callable) {
+    try {
+      T value = callable.call();
+      return value == null ? Flowable.empty() : Flowable.just(value);
+    } catch (Exception e) {
+      return Flowable.error(Exceptions.unwrap(e));
+    }
+  }
+
+  @SuppressWarnings("IllegalCatch")
+  private static <T> Single<T> scalarSingle(Callable<T> callable) {
+    try {
+      T value = callable.call();
+      return value == null ? Single.error(new NoSuchElementException()) : Single.just(value);
+    } catch (Exception e) {
+      return Single.error(Exceptions.unwrap(e));
+    }
+  }
+
+  private static final class FluxAsFlowable<T> extends Flowable<T> {
+    private final Flux<T> source;
+
+    FluxAsFlowable(Flux<T> source) {
+      this.source = source;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super T> s) {
+      if (s instanceof ConditionalSubscriber) {
+        source.subscribe(
+            new FluxAsFlowableConditionalSubscriber<>((ConditionalSubscriber<? super T>) s));
+      } else {
+        source.subscribe(new FluxAsFlowableSubscriber<>(s));
+      }
+    }
+  }
+
+  private static final class FlowableAsFlux<T> extends Flux<T> implements Fuseable {
+    private final Flowable<T> source;
+
+    FlowableAsFlux(Flowable<T> source) {
+      this.source = source;
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+      if (actual instanceof Fuseable.ConditionalSubscriber) {
+        source.subscribe(
+            new FlowableAsFluxConditionalSubscriber<>(
+                (Fuseable.ConditionalSubscriber<? super T>) actual));
+      } else {
+        source.subscribe(new FlowableAsFluxSubscriber<>(actual));
+      }
+    }
+  }
+
+  private static final class MonoAsSingle<T> extends Single<T> {
+    private final Mono<T> source;
+    private final Single<T> delegate;
+
+    MonoAsSingle(Mono<T> source) {
+      this.source = source;
+      this.delegate = RxJava2Adapter.monoToSingle(source);
+    }
+
+    @Override
+    protected void subscribeActual(SingleObserver<? super T> observer) {
+      delegate.subscribe(observer);
+    }
+  }
+
+  private static final class SingleAsMono<T> extends Mono<T> {
+    private final Single<T> source;
+    private final Mono<T> delegate;
+
+    SingleAsMono(Single<T> source) {
+      this.source = source;
+      this.delegate = RxJava2Adapter.singleToMono(source);
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+      delegate.subscribe(actual);
+    }
+  }
+
+  private static final class MonoAsMaybe<T> extends Maybe<T> {
+    private final Mono<T> source;
+    private final Maybe<T> delegate;
+
+    MonoAsMaybe(Mono<T> source) {
+      this.source = source;
+      this.delegate = RxJava2Adapter.monoToMaybe(source);
+    }
+
+    @Override
+    protected void subscribeActual(MaybeObserver<? super T> observer) {
+      delegate.subscribe(observer);
+    }
+  }
+
+  private static final class MaybeAsMono<T> extends Mono<T> {
+    private final Maybe<T> source;
+    private final Mono<T> delegate;
+
+    MaybeAsMono(Maybe<T> source) {
+      this.source = source;
+      this.delegate = RxJava2Adapter.maybeToMono(source);
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+      delegate.subscribe(actual);
+    }
+  }
+
+  private static final class MonoAsCompletable extends Completable {
+    private final Mono<?> source;
+    private final Completable delegate;
+
+    MonoAsCompletable(Mono<?> source) {
+      this.source = source;
+      this.delegate = RxJava2Adapter.monoToCompletable(source);
+    }
+
+    @Override
+    protected void subscribeActual(CompletableObserver observer) {
+      delegate.subscribe(observer);
+    }
+  }
+
+  private static final class CompletableAsMono extends Mono<Void> {
+    private final Completable source;
+    private final Mono<Void> delegate;
+
+    CompletableAsMono(Completable source) {
+      this.source = source;
+      this.delegate = RxJava2Adapter.completableToMono(source);
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super Void> actual) {
+      delegate.subscribe(actual);
+    }
+  }
+  /**
+   * Subscribes an RxJava {@link Subscriber} to a Reactor publisher, exposing a Reactor {@link
+   * Fuseable.QueueSubscription} as an RxJava {@link QueueSubscription}.
+   */
+  static final class FluxAsFlowableSubscriber<T>
+      implements CoreSubscriber<T>, QueueSubscription<T> {
+    private final Subscriber<? super T> actual;
+
+    private Subscription s;
+    private Fuseable.QueueSubscription<T> qs;
+
+    FluxAsFlowableSubscriber(Subscriber<? super T> actual) {
+      this.actual = actual;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void onSubscribe(Subscription s) {
+      if (Operators.validate(this.s, s)) {
+        this.s = s;
+        if (s instanceof Fuseable.QueueSubscription) {
+          this.qs = (Fuseable.QueueSubscription<T>) s;
+        }
+
+        actual.onSubscribe(this);
+      }
+    }
+
+    @Override
+    public void onNext(T t) {
+      actual.onNext(t);
+    }
+
+    @Override
+    public void onError(Throwable t) {
+      actual.onError(t);
+    }
+
+    @Override
+    public void onComplete() {
+      actual.onComplete();
+    }
+
+    @Override
+    public void request(long n) {
+      s.request(n);
+    }
+
+    @Override
+    public void cancel() {
+      s.cancel();
+    }
+
+    @Override
+    public T poll() {
+      return qs.poll();
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return qs.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+      qs.clear();
+    }
+
+    @Override
+    public int requestFusion(int requestedMode) {
+      return FusionModes.negotiateWithReactor(qs, requestedMode);
+    }
+
+    @Override
+    public boolean offer(T value) {
+      throw new UnsupportedOperationException("Should not be called");
+    }
+
+    @Override
+    public boolean offer(T v1, T v2) {
+      throw new UnsupportedOperationException("Should not be called");
+    }
+  }
+
+  /**
+   * Subscribes an RxJava {@link ConditionalSubscriber} to a Reactor publisher, forwarding {@code
+   * tryOnNext} calls and exposing a Reactor {@link Fuseable.QueueSubscription} as an RxJava {@link
+   * QueueSubscription}.
+   */
+  static final class FluxAsFlowableConditionalSubscriber<T>
+      implements Fuseable.ConditionalSubscriber<T>, QueueSubscription<T> {
+    private final ConditionalSubscriber<? super T> actual;
+
+    private Subscription s;
+    private Fuseable.QueueSubscription<T> qs;
+
+    FluxAsFlowableConditionalSubscriber(ConditionalSubscriber<? super T> actual) {
+      this.actual = actual;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void onSubscribe(Subscription s) {
+      if (Operators.validate(this.s, s)) {
+        this.s = s;
+        if (s instanceof Fuseable.QueueSubscription) {
+          this.qs = (Fuseable.QueueSubscription<T>) s;
+        }
+
+        actual.onSubscribe(this);
+      }
+    }
+
+    @Override
+    public void onNext(T t) {
+      actual.onNext(t);
+    }
+
+    @Override
+    public boolean tryOnNext(T t) {
+      return actual.tryOnNext(t);
+    }
+
+    @Override
+    public void onError(Throwable t) {
+      actual.onError(t);
+    }
+
+    @Override
+    public void onComplete() {
+      actual.onComplete();
+    }
+
+    @Override
+    public void request(long n) {
+      s.request(n);
+    }
+
+    @Override
+    public void cancel() {
+      s.cancel();
+    }
+
+    @Override
+    public T poll() {
+      return qs.poll();
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return qs.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+      qs.clear();
+    }
+
+    @Override
+    public int requestFusion(int requestedMode) {
+      return FusionModes.negotiateWithReactor(qs, requestedMode);
+    }
+
+    @Override
+    public boolean offer(T v1) {
+      throw new UnsupportedOperationException("Should not be called!");
+    }
+
+    @Override
+    public boolean offer(T v1, T v2) {
+      throw new UnsupportedOperationException("Should not be called!");
+    }
+  }
+
+  /**
+   * Subscribes a Reactor {@link CoreSubscriber} to an RxJava publisher, exposing an RxJava {@link
+   * QueueSubscription} as a Reactor {@link Fuseable.QueueSubscription}.
+   */
+  static final class FlowableAsFluxSubscriber<T>
+      implements FlowableSubscriber<T>, Fuseable.QueueSubscription<T> {
+    private final CoreSubscriber<? super T> actual;
+
+    private Subscription s;
+    private QueueSubscription<T> qs;
+
+    FlowableAsFluxSubscriber(CoreSubscriber<? super T> actual) {
+      this.actual = actual;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void onSubscribe(Subscription s) {
+      if (SubscriptionHelper.validate(this.s, s)) {
+        this.s = s;
+        if (s instanceof QueueSubscription) {
+          this.qs = (QueueSubscription<T>) s;
+        }
+
+        actual.onSubscribe(this);
+      }
+    }
+
+    @Override
+    public void onNext(T t) {
+      actual.onNext(t);
+    }
+
+    @Override
+    public void onError(Throwable t) {
+      actual.onError(t);
+    }
+
+    @Override
+    public void onComplete() {
+      actual.onComplete();
+    }
+
+    @Override
+    public void request(long n) {
+      s.request(n);
+    }
+
+    @Override
+    public void cancel() {
+      s.cancel();
+    }
+
+    @Override
+    @SuppressWarnings("IllegalCatch")
+    public T poll() {
+      try {
+        return qs.poll();
+      } catch (Throwable ex) {
+        throw Exceptions.propagate(ex);
+      }
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return qs.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+      qs.clear();
+    }
+
+    /**
+     * Returns an estimate of the number of queued elements: RxJava queue subscriptions do not
+     * expose their size, but Reactor's {@code Scannable#scan(Attr.BUFFERED)} of fused operators
+     * relies on this method not failing.
+     */
+    @Override
+    public int size() {
+      return isEmpty() ? 0 : 1;
+    }
+
+    @Override
+    public int requestFusion(int requestedMode) {
+      return FusionModes.negotiateWithRxJava(qs, requestedMode);
+    }
+  }
+
+  /**
+   * Subscribes a Reactor {@link Fuseable.ConditionalSubscriber} to an RxJava publisher, forwarding
+   * {@code tryOnNext} calls and exposing an RxJava {@link QueueSubscription} as a Reactor {@link
+   * Fuseable.QueueSubscription}.
+   */
+  static final class FlowableAsFluxConditionalSubscriber<T>
+      implements ConditionalSubscriber<T>, Fuseable.QueueSubscription<T> {
+    private final Fuseable.ConditionalSubscriber<? super T> actual;
+
+    private Subscription s;
+    private QueueSubscription<T> qs;
+
+    FlowableAsFluxConditionalSubscriber(Fuseable.ConditionalSubscriber<? super T> actual) {
+      this.actual = actual;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void onSubscribe(Subscription s) {
+      if (SubscriptionHelper.validate(this.s, s)) {
+        this.s = s;
+        if (s instanceof QueueSubscription) {
+          this.qs = (QueueSubscription<T>) s;
+        }
+
+        actual.onSubscribe(this);
+      }
+    }
+
+    @Override
+    public void onNext(T t) {
+      actual.onNext(t);
+    }
+
+    @Override
+    public boolean tryOnNext(T t) {
+      return actual.tryOnNext(t);
+    }
+
+    @Override
+    public void onError(Throwable t) {
+      actual.onError(t);
+    }
+
+    @Override
+    public void onComplete() {
+      actual.onComplete();
+    }
+
+    @Override
+    public void request(long n) {
+      s.request(n);
+    }
+
+    @Override
+    public void cancel() {
+      s.cancel();
+    }
+
+    @Override
+    @SuppressWarnings("IllegalCatch")
+    public T poll() {
+      try {
+        return qs.poll();
+      } catch (Throwable ex) {
+        throw Exceptions.propagate(ex);
+      }
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return qs.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+      qs.clear();
+    }
+
+    /**
+     * Returns an estimate of the number of queued elements: RxJava queue subscriptions do not
+     * expose their size, but Reactor's {@code Scannable#scan(Attr.BUFFERED)} of fused operators
+     * relies on this method not failing.
+     */
+    @Override
+    public int size() {
+      return isEmpty() ? 0 : 1;
+    }
+
+    @Override
+    public int requestFusion(int requestedMode) {
+      return FusionModes.negotiateWithRxJava(qs, requestedMode);
+    }
+  }
+}
@@ -3,20 +3,31 @@ package tech.picnic.errorprone.migration.util;
 import io.reactivex.flowables.GroupedFlowable;
 import io.reactivex.functions.Action;
 import io.reactivex.internal.fuseable.ConditionalSubscriber;
-import io.reactivex.internal.fuseable.QueueSubscription;
 import java.util.concurrent.Callable;
 import java.util.function.Supplier;
 import org.reactivestreams.Subscriber;
-import org.reactivestreams.Subscription;
 import reactor.core.CoreSubscriber;
 import reactor.core.Exceptions;
 import reactor.core.Fuseable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.GroupedFlux;
-import reactor.core.publisher.Operators;
+import reactor.core.publisher.Mono;
 
 public final class RxJavaReactorMigrationUtil {
+  private static volatile CheckedExceptionStrategy checkedExceptionStrategy =
+      CheckedExceptionStrategy.fromSystemProperty();
+
   private RxJavaReactorMigrationUtil() {}
 
+  /**
+   * Sets the way in which exceptions thrown by converted functional interfaces are surfaced.
+   *
+   * @param strategy The strategy to apply from now on.
+   */
+  public static void setCheckedExceptionStrategy(CheckedExceptionStrategy strategy) {
+    checkedExceptionStrategy = strategy;
+  }
+
   /**
    * Convert {@code Callable<T>} to T
    *
@@ -31,7 +42,7 @@ public final class RxJavaReactorMigrationUtil {
     try {
       return callable.call();
     } catch (Exception e) {
-      throw new IllegalArgumentException("Callable threw checked exception", e);
+      throw translateException("Callable threw checked exception", e);
     }
   }
 
@@ -48,11 +59,14 @@ public final class RxJavaReactorMigrationUtil {
   @SuppressWarnings("IllegalCatch")
   public static <T, R> java.util.function.Function<T, R> toJdkFunction(
       io.reactivex.functions.Function<T, R> function) {
+    if (function instanceof DualFunction) {
+      return (DualFunction<T, R>) function;
+    }
     return (t) -> {
       try {
         return function.apply(t);
       } catch (Exception e) {
-        throw new IllegalArgumentException("BiFunction threw checked exception", e);
+        throw translateException("BiFunction threw checked exception", e);
       }
     };
   }
@@ -69,11 +83,14 @@ public final class RxJavaReactorMigrationUtil {
   @SuppressWarnings("IllegalCatch")
   public static <T, U, R> java.util.function.BiFunction<T, U, R> toJdkBiFunction(
       io.reactivex.functions.BiFunction<T, U, R> biFunction) {
+    if (biFunction instanceof DualBiFunction) {
+      return (DualBiFunction<T, U, R>) biFunction;
+    }
     return (t, u) -> {
       try {
         return biFunction.apply(t, u);
       } catch (Exception e) {
-        throw new IllegalArgumentException("BiFunction threw checked exception", e);
+        throw translateException("BiFunction threw checked exception", e);
       }
     };
   }
@@ -87,11 +104,14 @@ public final class RxJavaReactorMigrationUtil {
    */
   @SuppressWarnings("IllegalCatch")
   public static <T> Supplier<T> callableAsSupplier(Callable<T> callable) {
+    if (callable instanceof DualCallable) {
+      return (DualCallable<T>) callable;
+    }
     return () -> {
       try {
         return callable.call();
       } catch (Exception e) {
-        throw new IllegalArgumentException("Callable threw checked exception", e);
+        throw translateException("Callable threw checked exception", e);
       }
     };
   }
@@ -108,11 +128,14 @@ public final class RxJavaReactorMigrationUtil {
   @SuppressWarnings("IllegalCatch")
   public static <T> java.util.function.Predicate<T> toJdkPredicate(
       io.reactivex.functions.Predicate<T> predicate) {
+    if (predicate instanceof DualPredicate) {
+      return (DualPredicate<T>) predicate;
+    }
     return (t) -> {
       try {
         return predicate.test(t);
       } catch (Exception e) {
-        throw new IllegalArgumentException("Predicate threw checked exception", e);
+        throw translateException("Predicate threw checked exception", e);
       }
     };
   }
@@ -129,11 +152,14 @@ public final class RxJavaReactorMigrationUtil {
   @SuppressWarnings("IllegalCatch")
   public static <T> java.util.function.Consumer<T> toJdkConsumer(
       io.reactivex.functions.Consumer<T> consumer) {
+    if (consumer instanceof DualConsumer) {
+      return (DualConsumer<T>) consumer;
+    }
     return (t) -> {
       try {
         consumer.accept(t);
       } catch (Exception e) {
-        throw new IllegalArgumentException("Consumer threw checked exception", e);
+        throw translateException("Consumer threw checked exception", e);
       }
     };
   }
@@ -146,15 +172,76 @@ public final class RxJavaReactorMigrationUtil {
    */
   @SuppressWarnings("IllegalCatch")
   public static Runnable toRunnable(Action action) {
+    if (action instanceof DualAction) {
+      return (DualAction) action;
+    }
     return () -> {
       try {
         action.run();
       } catch (Exception e) {
-        throw new IllegalArgumentException("Action threw checked exception", e);
+        throw translateException("Action threw checked exception", e);
       }
     };
   }
 
+  private static RuntimeException translateException(String message, Exception e) {
+    CheckedExceptionStrategy strategy = checkedExceptionStrategy;
+    ExceptionTranslatedEvent.emit(message, e, strategy);
+    switch (strategy) {
+      case PROPAGATE:
+        return Exceptions.propagate(e);
+      case SNEAKY_THROW:
+        throw RxJavaReactorMigrationUtil.<RuntimeException>sneakyThrow(e);
+      case WRAP:
+      default:
+        return new IllegalArgumentException(message, e);
+    }
+  }
+
+  @SuppressWarnings({"TypeParameterUnusedInFormals", "unchecked"})
+  private static <E extends Throwable> E sneakyThrow(Throwable t) throws E {
+    throw (E) t;
+  }
+
+  /**
+   * Subscribes to the given {@link Mono} and blocks until it terminates, like {@link Mono#block()},
+   * emitting a {@code tech.picnic.errorprone.migration.BlockingCall} Java Flight Recorder event if
+   * this takes longer than the configured threshold.
+   *
+   * @param mono The {@link Mono} to block on.
+   * @param <T> The type of the emitted element.
+   * @return The emitted element, or {@code null} if {@code mono} completed empty.
+   */
+  public static <T> T block(Mono<T> mono) {
+    BlockingCallEvent event = new BlockingCallEvent("Mono.block");
+    event.begin();
+    try {
+      return mono.block();
+    } finally {
+      event.commit();
+    }
+  }
+
+  /**
+   * Subscribes to the given {@link Flux} and blocks until it emits its first element or
+   * terminates, like {@link Flux#blockFirst()}, emitting a {@code
+   * tech.picnic.errorprone.migration.BlockingCall} Java Flight Recorder event if this takes longer
+   * than the configured threshold.
+   *
+   * @param flux The {@link Flux} to block on.
+   * @param <T> The type of the emitted elements.
+   * @return The first emitted element, or {@code null} if {@code flux} completed empty.
+   */
+  public static <T> T blockFirst(Flux<T> flux) {
+    BlockingCallEvent event = new BlockingCallEvent("Flux.blockFirst");
+    event.begin();
+    try {
+      return flux.blockFirst();
+    } finally {
+      event.commit();
+    }
+  }
+
   // "Coersion" (find better name):
   // instanceof (support this?)
   // two functional interfaces with:
@@ -165,6 +252,10 @@ public final class RxJavaReactorMigrationUtil {
 
   public static <K, V> GroupedFlowable<K, V> groupedFluxToGroupedFlowable(
       GroupedFlux<K, V> source) {
+    if (source instanceof GroupedFlowableAsGroupedFlux) {
+      return ((GroupedFlowableAsGroupedFlux<K, V>) source).source;
+    }
+    BridgeMetrics.record(BridgeMetrics.AdapterKind.GROUPED_FLUX_TO_GROUPED_FLOWABLE);
     return new GroupedFluxAsGroupedFlowable<>(source);
   }
 
@@ -181,184 +272,55 @@ public final class RxJavaReactorMigrationUtil {
     public void subscribeActual(Subscriber<? super V> s) {
       if (s instanceof ConditionalSubscriber) {
         source.subscribe(
-            new FluxAsFlowableConditionalSubscriber<>((ConditionalSubscriber<? super V>) s));
+            new RxJavaReactorBridge.FluxAsFlowableConditionalSubscriber<>(
+                (ConditionalSubscriber<? super V>) s));
       } else {
-        source.subscribe(new FluxAsFlowableSubscriber<>(s));
+        source.subscribe(new RxJavaReactorBridge.FluxAsFlowableSubscriber<>(s));
       }
     }
+  }
 
-    private static final class FluxAsFlowableSubscriber<T>
-        implements CoreSubscriber<T>, QueueSubscription<T> {
-      private final Subscriber<? super T> actual;
-
-      private Subscription s;
-      private Fuseable.QueueSubscription<T> qs;
-
-      FluxAsFlowableSubscriber(Subscriber<? super T> actual) {
-        this.actual = actual;
-      }
-
-      @Override
-      @SuppressWarnings("unchecked")
-      public void onSubscribe(Subscription s) {
-        if (Operators.validate(this.s, s)) {
-          this.s = s;
-          if (s instanceof Fuseable.QueueSubscription) {
-            this.qs = (Fuseable.QueueSubscription<T>) s;
-          }
-
-          actual.onSubscribe(this);
-        }
-      }
-
-      @Override
-      public void onNext(T t) {
-        actual.onNext(t);
-      }
-
-      @Override
-      public void onError(Throwable t) {
-        actual.onError(t);
-      }
-
-      @Override
-      public void onComplete() {
-        actual.onComplete();
-      }
-
-      @Override
-      public void request(long n) {
-        s.request(n);
-      }
-
-      @Override
-      public void cancel() {
-        s.cancel();
-      }
-
-      @Override
-      public T poll() {
-        return qs.poll();
-      }
-
-      @Override
-      public boolean isEmpty() {
-        return qs.isEmpty();
-      }
-
-      @Override
-      public void clear() {
-        qs.clear();
-      }
-
-      @Override
-      public int requestFusion(int requestedMode) {
-        if (qs != null) {
-          return qs.requestFusion(requestedMode);
-        }
-        return Fuseable.NONE;
-      }
-
-      @Override
-      public boolean offer(T value) {
-        throw new UnsupportedOperationException("Should not be called");
-      }
-
-      @Override
-      public boolean offer(T v1, T v2) {
-        throw new UnsupportedOperationException("Should not be called");
-      }
+  /**
+   * Convert {@link GroupedFlowable} to {@link GroupedFlux}, retaining the group key and support for
+   * queue fusion. A {@link GroupedFlowable} created by {@link #groupedFluxToGroupedFlowable} is
+   * unwrapped rather than adapted again.
+   *
+   * @param source The {@link GroupedFlowable} to convert.
+   * @param <K> The type of the group key.
+   * @param <V> The type of the grouped elements.
+   * @return The {@link GroupedFlux} from which {@code source} was created, or a {@link
+   *     GroupedFlux} with the same key that emits the elements of {@code source}.
+   */
+  public static <K, V> GroupedFlux<K, V> groupedFlowableToGroupedFlux(
+      GroupedFlowable<K, V> source) {
+    if (source instanceof GroupedFluxAsGroupedFlowable) {
+      return ((GroupedFluxAsGroupedFlowable<K, V>) source).source;
     }
+    BridgeMetrics.record(BridgeMetrics.AdapterKind.GROUPED_FLOWABLE_TO_GROUPED_FLUX);
+    return new GroupedFlowableAsGroupedFlux<>(source);
+  }
 
-    private static final class FluxAsFlowableConditionalSubscriber<T>
-        implements Fuseable.ConditionalSubscriber<T>, QueueSubscription<T> {
-      private final ConditionalSubscriber<? super T> actual;
-
-      private Subscription s;
-      private QueueSubscription<T> qs;
-
-      FluxAsFlowableConditionalSubscriber(ConditionalSubscriber<? super T> actual) {
-        this.actual = actual;
-      }
-
-      @Override
-      @SuppressWarnings("unchecked")
-      public void onSubscribe(Subscription s) {
-        if (Operators.validate(this.s, s)) {
-          this.s = s;
-          if (s instanceof io.reactivex.internal.fuseable.QueueSubscription) {
-            this.qs = (QueueSubscription<T>) s;
-          }
-
-          actual.onSubscribe(this);
-        }
-      }
-
-      @Override
-      public void onNext(T t) {
-        actual.onNext(t);
-      }
-
-      @Override
-      public boolean tryOnNext(T t) {
-        return actual.tryOnNext(t);
-      }
-
-      @Override
-      public void onError(Throwable t) {
-        actual.onError(t);
-      }
-
-      @Override
-      public void onComplete() {
-        actual.onComplete();
-      }
-
-      @Override
-      public void request(long n) {
-        s.request(n);
-      }
-
-      @Override
-      public void cancel() {
-        s.cancel();
-      }
-
-      @Override
-      public T poll() {
-        try {
-          return qs.poll();
-        } catch (Throwable ex) {
-          throw Exceptions.bubble(ex);
-        }
-      }
-
-      @Override
-      public boolean isEmpty() {
-        return qs.isEmpty();
-      }
-
-      @Override
-      public void clear() {
-        qs.clear();
-      }
+  private static final class GroupedFlowableAsGroupedFlux<K, V> extends GroupedFlux<K, V>
+      implements Fuseable {
+    private final GroupedFlowable<K, V> source;
 
-      @Override
-      public int requestFusion(int requestedMode) {
-        if (qs != null) {
-          return qs.requestFusion(requestedMode);
-        }
-        return NONE;
-      }
+    GroupedFlowableAsGroupedFlux(GroupedFlowable<K, V> source) {
+      this.source = source;
+    }
 
-      @Override
-      public boolean offer(T v1) {
-        throw new UnsupportedOperationException("Should not be called!");
-      }
+    @Override
+    public K key() {
+      return source.getKey();
+    }
 
-      @Override
-      public boolean offer(T v1, T v2) {
-        throw new UnsupportedOperationException("Should not be called!");
+    @Override
+    public void subscribe(CoreSubscriber<? super V> actual) {
+      if (actual instanceof Fuseable.ConditionalSubscriber) {
+        source.subscribe(
+            new RxJavaReactorBridge.FlowableAsFluxConditionalSubscriber<>(
+                (Fuseable.ConditionalSubscriber<? super V>) actual));
+      } else {
+        source.subscribe(new RxJavaReactorBridge.FlowableAsFluxSubscriber<>(actual));
       }
     }
   }
@@ -0,0 +1,87 @@
+package tech.picnic.errorprone.migration.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import io.reactivex.Flowable;
+import io.reactivex.Observable;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+/**
+ * Tests {@link BridgeMetrics}, which must be enabled for the whole JVM; the surefire configuration
+ * of this module does so.
+ */
+final class BridgeMetricsTest {
+  @BeforeEach
+  void setUp() {
+    assumeTrue(BridgeMetrics.ENABLED, "Bridge metrics are not enabled");
+    BridgeMetrics.reset();
+  }
+
+  @Test
+  void snapshot() {
+    RxJavaReactorBridge.flowableToFlux(Flowable.range(1, 3));
+    RxJavaReactorBridge.flowableToFlux(Flowable.range(1, 3));
+    RxJavaReactorBridge.monoToSingle(Mono.just(1));
+
+    assertThat(BridgeMetrics.snapshot())
+        .hasSize(BridgeMetrics.AdapterKind.values().length)
+        .containsEntry("flowableToFlux", 2L)
+        .containsEntry("monoToSingle", 1L)
+        .containsEntry("fluxToFlowable", 0L);
+  }
+
+  @Test
+  void snapshotExcludesUnwrappedConversions() {
+    Flowable<Integer> flowable = Flowable.range(1, 3);
+    RxJavaReactorBridge.fluxToFlowable(RxJavaReactorBridge.flowableToFlux(flowable));
+
+    assertThat(BridgeMetrics.snapshot())
+        .containsEntry("flowableToFlux", 1L)
+        .containsEntry("fluxToFlowable", 0L);
+  }
+
+  @Test
+  void callSiteSnapshot() {
+    for (int i = 0; i < 2; i++) {
+      RxJavaReactorBridge.fluxToFlowable(Flux.range(1, 3));
+    }
+
+    String expectedCallSite =
+        "fluxToFlowable @ " + BridgeMetricsTest.class.getName() + ".callSiteSnapshot:";
+    Map<String, Long> callSites = BridgeMetrics.callSiteSnapshot();
+    assertThat(callSites).hasSize(1).containsValue(2L);
+    assertThat(callSites.keySet())
+        .allSatisfy(callSite -> assertThat(callSite).startsWith(expectedCallSite));
+  }
+
+  @Test
+  void observableBufferHighWaterMark() {
+    StepVerifier.create(
+            RxJavaReactorBridge.observableToFlux(
+                Observable.range(0, 3), 4, BufferOverflowStrategy.ERROR),
+            0)
+        .thenRequest(3)
+        .expectNextCount(3)
+        .verifyComplete();
+
+    assertThat(BridgeMetrics.observableBufferHighWaterMark()).isPositive();
+  }
+
+  @Test
+  void reset() {
+    RxJavaReactorBridge.flowableToFlux(Flowable.range(1, 3));
+
+    BridgeMetrics.reset();
+
+    assertThat(BridgeMetrics.snapshot().values()).containsOnly(0L);
+    assertThat(BridgeMetrics.callSiteSnapshot()).isEmpty();
+    assertThat(BridgeMetrics.observableBufferHighWaterMark()).isZero();
+  }
+}
@@ -0,0 +1,40 @@
+package tech.picnic.errorprone.migration.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+final class CheckedExceptionStrategyTest {
+  @AfterEach
+  void clearProperty() {
+    System.clearProperty(CheckedExceptionStrategy.PROPERTY);
+  }
+
+  @Test
+  void fromSystemPropertyDefault() {
+    assertThat(CheckedExceptionStrategy.fromSystemProperty())
+        .isEqualTo(CheckedExceptionStrategy.WRAP);
+  }
+
+  @Test
+  void fromSystemPropertyIgnoresCaseAndWhitespace() {
+    System.setProperty(CheckedExceptionStrategy.PROPERTY, " sneaky_throw ");
+    assertThat(CheckedExceptionStrategy.fromSystemProperty())
+        .isEqualTo(CheckedExceptionStrategy.SNEAKY_THROW);
+  }
+
+  @Test
+  void fromSystemPropertyFallsBackOnInvalidValue() {
+    System.setProperty(CheckedExceptionStrategy.PROPERTY, "bogus");
+    assertThat(CheckedExceptionStrategy.fromSystemProperty())
+        .isEqualTo(CheckedExceptionStrategy.WRAP);
+  }
+
+  @Test
+  void fromSystemPropertyFallsBackOnEmptyValue() {
+    System.setProperty(CheckedExceptionStrategy.PROPERTY, "");
+    assertThat(CheckedExceptionStrategy.fromSystemProperty())
+        .isEqualTo(CheckedExceptionStrategy.WRAP);
+  }
+}
@@ -0,0 +1,88 @@
+package tech.picnic.errorprone.migration.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.reactivex.Flowable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+final class FlightRecorderEventsTest {
+  private static final String BRIDGE_CROSSING = "tech.picnic.errorprone.migration.BridgeCrossing";
+  private static final String EXCEPTION_TRANSLATED =
+      "tech.picnic.errorprone.migration.ExceptionTranslated";
+  private static final String BLOCKING_CALL = "tech.picnic.errorprone.migration.BlockingCall";
+
+  @Test
+  void bridgeCrossing() throws IOException {
+    List<RecordedEvent> events =
+        record(BRIDGE_CROSSING, () -> RxJavaReactorBridge.flowableToFlux(Flowable.range(1, 3)));
+
+    assertThat(events).hasSize(1);
+    assertThat(events.get(0).getString("adapter")).isEqualTo("flowableToFlux");
+  }
+
+  @Test
+  void exceptionTranslated() throws IOException {
+    List<RecordedEvent> events =
+        record(
+            EXCEPTION_TRANSLATED,
+            () ->
+                assertThatThrownBy(
+                        () ->
+                            RxJavaReactorMigrationUtil.getUnchecked(
+                                () -> {
+                                  throw new IOException();
+                                }))
+                    .hasCauseInstanceOf(IOException.class));
+
+    assertThat(events).hasSize(1);
+    RecordedEvent event = events.get(0);
+    assertThat(event.getString("converter")).isEqualTo("Callable threw checked exception");
+    assertThat(event.getClass("exceptionType").getName()).isEqualTo(IOException.class.getName());
+    assertThat(event.getString("strategy")).isEqualTo(CheckedExceptionStrategy.WRAP.name());
+  }
+
+  @Test
+  void blockingCallAboveThreshold() throws IOException {
+    List<RecordedEvent> events =
+        record(
+            BLOCKING_CALL,
+            () ->
+                RxJavaReactorMigrationUtil.block(
+                    Mono.just(1).delayElement(Duration.ofMillis(50))));
+
+    assertThat(events).hasSize(1);
+    assertThat(events.get(0).getString("operation")).isEqualTo("Mono.block");
+    assertThat(events.get(0).getDuration()).isGreaterThanOrEqualTo(Duration.ofMillis(20));
+  }
+
+  @Test
+  void blockingCallBelowThreshold() throws IOException {
+    assertThat(record(BLOCKING_CALL, () -> RxJavaReactorMigrationUtil.block(Mono.just(1))))
+        .isEmpty();
+  }
+
+  /** Returns the events with the given name recorded while running the given action. */
+  private static List<RecordedEvent> record(String eventName, Runnable action) throws IOException {
+    Path file = Files.createTempFile("events", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(eventName);
+      recording.start();
+      action.run();
+      recording.stop();
+      recording.dump(file);
+      return RecordingFile.readAllEvents(file);
+    } finally {
+      Files.delete(file);
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package tech.picnic.errorprone.migration.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.reactivex.internal.fuseable.QueueFuseable;
+import org.junit.jupiter.api.Test;
+import reactor.core.Fuseable;
+
+final class FusionModesTest {
+  @Test
+  void toReactor() {
+    assertThat(FusionModes.toReactor(QueueFuseable.NONE)).isEqualTo(Fuseable.NONE);
+    assertThat(FusionModes.toReactor(QueueFuseable.SYNC)).isEqualTo(Fuseable.SYNC);
+    assertThat(FusionModes.toReactor(QueueFuseable.ASYNC)).isEqualTo(Fuseable.ASYNC);
+    assertThat(FusionModes.toReactor(QueueFuseable.ANY)).isEqualTo(Fuseable.ANY);
+    assertThat(FusionModes.toReactor(QueueFuseable.ANY | QueueFuseable.BOUNDARY))
+        .isEqualTo(Fuseable.ANY | Fuseable.THREAD_BARRIER);
+  }
+
+  @Test
+  void toRxJava() {
+    assertThat(FusionModes.toRxJava(Fuseable.NONE)).isEqualTo(QueueFuseable.NONE);
+    assertThat(FusionModes.toRxJava(Fuseable.SYNC)).isEqualTo(QueueFuseable.SYNC);
+    assertThat(FusionModes.toRxJava(Fuseable.ASYNC)).isEqualTo(QueueFuseable.ASYNC);
+    assertThat(FusionModes.toRxJava(Fuseable.ANY)).isEqualTo(QueueFuseable.ANY);
+    assertThat(FusionModes.toRxJava(Fuseable.ANY | Fuseable.THREAD_BARRIER))
+        .isEqualTo(QueueFuseable.ANY | QueueFuseable.BOUNDARY);
+  }
+
+  @Test
+  void negotiateWithoutQueueSubscription() {
+    assertThat(FusionModes.negotiateWithReactor(null, QueueFuseable.ANY))
+        .isEqualTo(QueueFuseable.NONE);
+    assertThat(FusionModes.negotiateWithRxJava(null, Fuseable.ANY)).isEqualTo(Fuseable.NONE);
+  }
+}
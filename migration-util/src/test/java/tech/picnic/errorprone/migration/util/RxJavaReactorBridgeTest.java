@@ -0,0 +1,255 @@
+package tech.picnic.errorprone.migration.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
+import io.reactivex.FlowableSubscriber;
+import io.reactivex.Maybe;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import io.reactivex.internal.fuseable.QueueFuseable;
+import io.reactivex.internal.fuseable.QueueSubscription;
+import io.reactivex.subscribers.TestSubscriber;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.Exceptions;
+import reactor.core.Fuseable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+final class RxJavaReactorBridgeTest {
+  @Test
+  void flowableToFluxNegotiatesSyncFusion() {
+    StepVerifier.create(RxJavaReactorBridge.flowableToFlux(Flowable.range(1, 3).map(i -> i * 2)))
+        .expectFusion(Fuseable.ANY, Fuseable.SYNC)
+        .expectNext(2, 4, 6)
+        .verifyComplete();
+  }
+
+  @Test
+  void flowableToFluxNegotiatesAsyncFusion() {
+    StepVerifier.create(
+            RxJavaReactorBridge.flowableToFlux(Flowable.range(1, 3).onBackpressureBuffer()))
+        .expectFusion(Fuseable.ASYNC, Fuseable.ASYNC)
+        .expectNext(1, 2, 3)
+        .verifyComplete();
+  }
+
+  @Test
+  void flowableToFluxHonoursThreadBarrier() {
+    StepVerifier.create(RxJavaReactorBridge.flowableToFlux(Flowable.range(1, 3).map(i -> i * 2)))
+        .expectFusion(Fuseable.ANY | Fuseable.THREAD_BARRIER, Fuseable.NONE)
+        .expectNext(2, 4, 6)
+        .verifyComplete();
+  }
+
+  @Test
+  void flowableToFluxWithoutFusion() {
+    StepVerifier.create(RxJavaReactorBridge.flowableToFlux(Flowable.range(1, 3)))
+        .expectFusion(Fuseable.NONE, Fuseable.NONE)
+        .expectNext(1, 2, 3)
+        .verifyComplete();
+  }
+
+  @Test
+  void flowableToFluxOfScalar() {
+    StepVerifier.create(RxJavaReactorBridge.flowableToFlux(Flowable.just(1)))
+        .expectNext(1)
+        .verifyComplete();
+    StepVerifier.create(RxJavaReactorBridge.flowableToFlux(Flowable.empty())).verifyComplete();
+  }
+
+  @Test
+  void flowableToFluxOfCallable() {
+    StepVerifier.create(RxJavaReactorBridge.flowableToFlux(Flowable.fromCallable(() -> 1)))
+        .expectNext(1)
+        .verifyComplete();
+    StepVerifier.create(RxJavaReactorBridge.flowableToFlux(Flowable.fromCallable(() -> null)))
+        .verifyError(NullPointerException.class);
+  }
+
+  @Test
+  void fluxToFlowableOfScalarAndCallable() {
+    RxJavaReactorBridge.fluxToFlowable(Flux.just(1)).test().assertResult(1);
+    RxJavaReactorBridge.fluxToFlowable(Flux.empty()).test().assertResult();
+    RxJavaReactorBridge.fluxToFlowable(Mono.fromCallable(() -> 1).flux()).test().assertResult(1);
+    RxJavaReactorBridge.fluxToFlowable(Mono.fromCallable(() -> null).flux()).test().assertResult();
+  }
+
+  @Test
+  void observableToFluxBuffersWithoutBound() {
+    StepVerifier.create(RxJavaReactorBridge.observableToFlux(Observable.range(0, 10_000)), 0)
+        .thenRequest(10_000)
+        .expectNextCount(10_000)
+        .verifyComplete();
+  }
+
+  @Test
+  void observableToFluxWithCapacitySignalsOverflow() {
+    StepVerifier.create(
+            RxJavaReactorBridge.observableToFlux(
+                Observable.range(0, 3), 2, BufferOverflowStrategy.ERROR),
+            0)
+        .thenRequest(3)
+        .expectNext(0, 1)
+        .verifyErrorMatches(Exceptions::isOverflow);
+  }
+
+  @Test
+  void flowableToFluxQueueSubscriptionSizeEstimatesEmptiness() {
+    Flux<Integer> flux = RxJavaReactorBridge.flowableToFlux(Flowable.range(1, 3));
+    List<Fuseable.QueueSubscription<?>> subscriptions = new ArrayList<>();
+    flux.subscribe(
+        new BaseSubscriber<Integer>() {
+          @Override
+          protected void hookOnSubscribe(Subscription subscription) {
+            subscriptions.add((Fuseable.QueueSubscription<?>) subscription);
+          }
+        });
+
+    assertThat(subscriptions).hasSize(1);
+    Fuseable.QueueSubscription<?> subscription = subscriptions.get(0);
+    assertThat(subscription.requestFusion(Fuseable.SYNC)).isEqualTo(Fuseable.SYNC);
+    assertThat(subscription.size()).isEqualTo(1);
+    assertThat(subscription.poll()).isEqualTo(1);
+    assertThat(subscription.poll()).isEqualTo(2);
+    assertThat(subscription.poll()).isEqualTo(3);
+    assertThat(subscription.size()).isZero();
+  }
+
+  @Test
+  void fluxToFlowableNegotiatesSyncFusion() {
+    FusingSubscriber<Integer> subscriber = new FusingSubscriber<>(QueueFuseable.ANY);
+    RxJavaReactorBridge.fluxToFlowable(Flux.range(1, 3).map(i -> i * 2)).subscribe(subscriber);
+
+    assertThat(subscriber.grantedMode).isEqualTo(QueueFuseable.SYNC);
+    assertThat(subscriber.drain()).containsExactly(2, 4, 6);
+  }
+
+  @Test
+  void fluxToFlowableNegotiatesAsyncFusion() {
+    FusingSubscriber<Integer> subscriber = new FusingSubscriber<>(QueueFuseable.ASYNC);
+    RxJavaReactorBridge.fluxToFlowable(Flux.range(1, 3).onBackpressureBuffer())
+        .subscribe(subscriber);
+
+    assertThat(subscriber.grantedMode).isEqualTo(QueueFuseable.ASYNC);
+    subscriber.subscription.request(Long.MAX_VALUE);
+    assertThat(subscriber.drain()).containsExactly(1, 2, 3);
+    assertThat(subscriber.completed).isTrue();
+  }
+
+  @Test
+  void fluxToFlowableHonoursBoundary() {
+    FusingSubscriber<Integer> subscriber =
+        new FusingSubscriber<>(QueueFuseable.ANY | QueueFuseable.BOUNDARY);
+    RxJavaReactorBridge.fluxToFlowable(Flux.range(1, 3).map(i -> i * 2)).subscribe(subscriber);
+
+    assertThat(subscriber.grantedMode).isEqualTo(QueueFuseable.NONE);
+  }
+
+  @Test
+  void roundTripUnwrapsAndDrainsWithoutFusion() {
+    Flowable<Integer> flowable = Flowable.range(1, 3);
+    assertThat(
+            RxJavaReactorBridge.fluxToFlowable(RxJavaReactorBridge.flowableToFlux(flowable)))
+        .isSameAs(flowable);
+
+    TestSubscriber<Integer> subscriber =
+        RxJavaReactorBridge.fluxToFlowable(Flux.range(1, 3).filter(i -> i != 2)).test();
+    subscriber.assertResult(1, 3);
+  }
+
+  @Test
+  void singleRoundTripUnwraps() {
+    Single<Integer> single = Single.just(1);
+    assertThat(RxJavaReactorBridge.monoToSingle(RxJavaReactorBridge.singleToMono(single)))
+        .isSameAs(single);
+
+    StepVerifier.create(RxJavaReactorBridge.singleToMono(Single.just(1).map(i -> i + 1)))
+        .expectNext(2)
+        .verifyComplete();
+    RxJavaReactorBridge.monoToSingle(Mono.just(1).map(i -> i + 1)).test().assertResult(2);
+    RxJavaReactorBridge.monoToSingle(Mono.just(3)).test().assertResult(3);
+  }
+
+  @Test
+  void maybeRoundTripUnwraps() {
+    Mono<Integer> mono = Mono.just(1).map(i -> i + 1);
+    assertThat(RxJavaReactorBridge.maybeToMono(RxJavaReactorBridge.monoToMaybe(mono)))
+        .isSameAs(mono);
+
+    StepVerifier.create(RxJavaReactorBridge.maybeToMono(Maybe.just(1).map(i -> i + 1)))
+        .expectNext(2)
+        .verifyComplete();
+    StepVerifier.create(RxJavaReactorBridge.maybeToMono(Maybe.empty())).verifyComplete();
+    RxJavaReactorBridge.monoToMaybe(mono).test().assertResult(2);
+    RxJavaReactorBridge.monoToMaybe(Mono.empty()).test().assertResult();
+  }
+
+  @Test
+  void completableRoundTripUnwraps() {
+    Completable completable = Completable.complete();
+    assertThat(
+            RxJavaReactorBridge.monoToCompletable(
+                RxJavaReactorBridge.completableToMono(completable)))
+        .isSameAs(completable);
+
+    StepVerifier.create(RxJavaReactorBridge.completableToMono(Completable.complete()))
+        .verifyComplete();
+    StepVerifier.create(
+            RxJavaReactorBridge.completableToMono(Completable.error(new IllegalStateException())))
+        .verifyError(IllegalStateException.class);
+    RxJavaReactorBridge.monoToCompletable(Mono.just(1).map(i -> i + 1)).test().assertResult();
+  }
+
+  /** An RxJava subscriber that requests the given fusion mode upon subscription. */
+  private static final class FusingSubscriber<T> implements FlowableSubscriber<T> {
+    private final int requestedMode;
+
+    private QueueSubscription<T> subscription;
+    private int grantedMode = -1;
+    private boolean completed;
+
+    FusingSubscriber(int requestedMode) {
+      this.requestedMode = requestedMode;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void onSubscribe(Subscription s) {
+      subscription = (QueueSubscription<T>) s;
+      grantedMode = subscription.requestFusion(requestedMode);
+    }
+
+    @Override
+    public void onNext(T t) {}
+
+    @Override
+    public void onError(Throwable t) {
+      throw new AssertionError("Unexpected error", t);
+    }
+
+    @Override
+    public void onComplete() {
+      completed = true;
+    }
+
+    List<T> drain() {
+      List<T> values = new ArrayList<>();
+      try {
+        for (T value = subscription.poll(); value != null; value = subscription.poll()) {
+          values.add(value);
+        }
+      } catch (Exception e) {
+        throw new AssertionError("Failed to poll", e);
+      }
+      return values;
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package tech.picnic.errorprone.migration.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.reactivex.Flowable;
+import io.reactivex.flowables.GroupedFlowable;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.GroupedFlux;
+import reactor.test.StepVerifier;
+
+final class RxJavaReactorMigrationUtilTest {
+  @Test
+  void groupedFluxRoundTripUnwraps() {
+    GroupedFlux<Integer, Integer> group = Flux.range(1, 4).groupBy(i -> i % 2).blockFirst();
+
+    GroupedFlowable<Integer, Integer> flowable =
+        RxJavaReactorMigrationUtil.groupedFluxToGroupedFlowable(group);
+    assertThat(flowable.getKey()).isEqualTo(group.key());
+    assertThat(RxJavaReactorMigrationUtil.groupedFlowableToGroupedFlux(flowable)).isSameAs(group);
+  }
+
+  @Test
+  void groupedFlowableRoundTripUnwraps() {
+    GroupedFlowable<Integer, Integer> group =
+        Flowable.range(1, 4).groupBy(i -> i % 2).blockingFirst();
+
+    GroupedFlux<Integer, Integer> flux =
+        RxJavaReactorMigrationUtil.groupedFlowableToGroupedFlux(group);
+    assertThat(flux.key()).isEqualTo(group.getKey());
+    assertThat(RxJavaReactorMigrationUtil.groupedFluxToGroupedFlowable(flux)).isSameAs(group);
+  }
+
+  @Test
+  void groupedFlowableToGroupedFluxEmitsGroupElements() {
+    StepVerifier.create(
+            RxJavaReactorBridge.flowableToFlux(Flowable.range(1, 4).groupBy(i -> i % 2))
+                .map(RxJavaReactorMigrationUtil::groupedFlowableToGroupedFlux)
+                .flatMap(group -> group.map(i -> group.key() + ":" + i)))
+        .expectNext("1:1", "0:2", "1:3", "0:4")
+        .verifyComplete();
+  }
+}
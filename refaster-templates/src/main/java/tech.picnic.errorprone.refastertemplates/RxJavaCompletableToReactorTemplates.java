@@ -260,7 +260,7 @@ final class RxJavaCompletableToReactorTemplates {
 
     @AfterTemplate
     void after(Completable completable) {
-      RxJava2Adapter.completableToMono(completable).block();
+      RxJavaReactorMigrationUtil.block(RxJava2Adapter.completableToMono(completable));
     }
   }
 
@@ -481,7 +481,7 @@ final class RxJavaFlowableToReactorTemplates {
 
     @AfterTemplate
     Object after(Flowable<T> flowable) {
-      return RxJava2Adapter.flowableToFlux(flowable).blockFirst();
+      return RxJavaReactorMigrationUtil.blockFirst(RxJava2Adapter.flowableToFlux(flowable));
     }
   }
 
@@ -886,6 +886,19 @@ final class RxJavaFlowableToReactorTemplates {
     }
   }
 
+  static final class GroupedFlowableToGroupedFlux<K, V> {
+    @BeforeTemplate
+    Flux<V> before(GroupedFlowable<K, V> group) {
+      return Refaster.anyOf(
+          RxJava2Adapter.flowableToFlux(group), group.as(RxJava2Adapter::flowableToFlux));
+    }
+
+    @AfterTemplate
+    Flux<V> after(GroupedFlowable<K, V> group) {
+      return RxJavaReactorMigrationUtil.groupedFlowableToGroupedFlux(group);
+    }
+  }
+
   // XXX: final Flowable groupBy(Function,boolean)
   // XXX: final Flowable groupBy(Function,Function)
   // XXX: final Flowable groupBy(Function,Function,boolean)
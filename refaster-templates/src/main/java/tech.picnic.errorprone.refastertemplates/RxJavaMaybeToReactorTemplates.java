@@ -313,7 +313,7 @@ final class RxJavaMaybeToReactorTemplates {
 
     @AfterTemplate
     Object after(Maybe<T> maybe) {
-      return RxJava2Adapter.maybeToMono(maybe).block();
+      return RxJavaReactorMigrationUtil.block(RxJava2Adapter.maybeToMono(maybe));
     }
   }
 
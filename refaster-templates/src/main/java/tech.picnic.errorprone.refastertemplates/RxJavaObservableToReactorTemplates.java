@@ -25,9 +25,16 @@ import reactor.adapter.rxjava.RxJava2Adapter;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
+import tech.picnic.errorprone.migration.util.RxJavaReactorBridge;
 import tech.picnic.errorprone.migration.util.RxJavaReactorMigrationUtil;
 
-/** The Refaster templates for the migration of the RxJava Observable type to Reactor */
+/**
+ * The Refaster templates for the migration of the RxJava Observable type to Reactor
+ *
+ * <p>These templates convert via {@link RxJavaReactorBridge#observableToFlux(Observable)}, which
+ * buffers unrequested elements without bound unless its {@link
+ * RxJavaReactorBridge#OBSERVABLE_BUFFER_SIZE_PROPERTY bounded buffer} is opted into at runtime.
+ */
 final class RxJavaObservableToReactorTemplates {
 
   private RxJavaObservableToReactorTemplates() {}
@@ -43,8 +50,7 @@ final class RxJavaObservableToReactorTemplates {
       return RxJava2Adapter.fluxToObservable(
           Flux.<T>firstWithSignal(
               Streams.stream(sources)
-                  .map(e -> e.toFlowable(BackpressureStrategy.BUFFER))
-                  .map(RxJava2Adapter::flowableToFlux)
+                  .map(RxJavaReactorBridge::observableToFlux)
                   .collect(toImmutableList())));
     }
   }
@@ -377,7 +383,6 @@ final class RxJavaObservableToReactorTemplates {
   // XXX: public final Single elementAt(long,Object)
   // XXX: public final Single elementAtOrError(long)
 
-  // XXX: Default BackPressureStrategy.BUFFER is set.
   static final class ObservableFilter<T> {
     @BeforeTemplate
     Observable<T> before(Observable<T> observable, Predicate<T> predicate) {
@@ -387,14 +392,13 @@ final class RxJavaObservableToReactorTemplates {
     @AfterTemplate
     Observable<T> after(Observable<T> observable, Predicate<T> predicate) {
       return RxJava2Adapter.fluxToObservable(
-          RxJava2Adapter.observableToFlux(observable, BackpressureStrategy.BUFFER)
+          RxJavaReactorBridge.observableToFlux(observable)
               .filter(RxJavaReactorMigrationUtil.toJdkPredicate(predicate)));
     }
   }
 
   // XXX: public final Single first(Object)
 
-  // XXX: Default BUFFER is chosen here.
   static final class MaybeFirstElement<T> {
     @BeforeTemplate
     Maybe<T> before(Observable<T> observable) {
@@ -403,8 +407,7 @@ final class RxJavaObservableToReactorTemplates {
 
     @AfterTemplate
     Maybe<T> after(Observable<T> observable) {
-      return RxJava2Adapter.monoToMaybe(
-          RxJava2Adapter.observableToFlux(observable, BackpressureStrategy.BUFFER).next());
+      return RxJava2Adapter.monoToMaybe(RxJavaReactorBridge.observableToFlux(observable).next());
     }
   }
 
@@ -412,7 +415,6 @@ final class RxJavaObservableToReactorTemplates {
   // XXX: public final Observable flatMap(Function)
 
   // XXX: Add test
-  // XXX: Default BUFFER is set here.
   static final class ObservableFlatMap<I, T extends I, O, P extends ObservableSource<O>> {
     @BeforeTemplate
     Observable<O> before(
@@ -425,13 +427,13 @@ final class RxJavaObservableToReactorTemplates {
     @AfterTemplate
     Observable<O> after(Observable<T> observable, Function<I, P> function) {
       return RxJava2Adapter.fluxToObservable(
-          RxJava2Adapter.observableToFlux(observable, BackpressureStrategy.BUFFER)
+          RxJavaReactorBridge.observableToFlux(observable)
               .flatMap(
                   z ->
-                      RxJava2Adapter.observableToFlux(
+                      RxJavaReactorBridge.observableToFlux(
                           Observable.wrap(
-                              RxJavaReactorMigrationUtil.<I, P>toJdkFunction(function).apply(z)),
-                          BackpressureStrategy.BUFFER)));
+                              RxJavaReactorMigrationUtil.<I, P>toJdkFunction(function)
+                                  .apply(z)))));
     }
   }
 
@@ -471,7 +473,7 @@ final class RxJavaObservableToReactorTemplates {
 
     Observable<O> after(Observable<T> observable, Function<T, M> mapper) {
       return RxJava2Adapter.fluxToObservable(
-          RxJava2Adapter.observableToFlux(observable, BackpressureStrategy.BUFFER)
+          RxJavaReactorBridge.observableToFlux(observable)
               .flatMap(
                   t ->
                       RxJava2Adapter.maybeToMono(
@@ -502,9 +504,7 @@ final class RxJavaObservableToReactorTemplates {
     @AfterTemplate
     Completable after(Observable<T> observable) {
       return RxJava2Adapter.monoToCompletable(
-          RxJava2Adapter.observableToFlux(observable, BackpressureStrategy.BUFFER)
-              .ignoreElements()
-              .then());
+          RxJavaReactorBridge.observableToFlux(observable).ignoreElements().then());
     }
   }
 
@@ -716,7 +716,6 @@ final class RxJavaObservableToReactorTemplates {
   // XXX: public final Observable zipWith(ObservableSource,BiFunction,boolean)
   // XXX: public final Observable zipWith(ObservableSource,BiFunction,boolean,int)
 
-  // XXX: Default BackpressureStrategy.BUFFER is set
   static final class ObservableTestAssertResultItem<T> {
     @BeforeTemplate
     void before(Observable<T> observable, T item) throws InterruptedException {
@@ -727,14 +726,13 @@ final class RxJavaObservableToReactorTemplates {
 
     @AfterTemplate
     void after(Observable<T> observable, T item) {
-      RxJava2Adapter.observableToFlux(observable, BackpressureStrategy.BUFFER)
+      RxJavaReactorBridge.observableToFlux(observable)
           .as(StepVerifier::create)
           .expectNext(item)
           .verifyComplete();
     }
   }
 
-  // XXX: Default BackpressureStrategy.BUFFER is set
   @SuppressWarnings("unchecked")
   static final class ObservableTestAssertResult<T> {
     @BeforeTemplate
@@ -744,9 +742,7 @@ final class RxJavaObservableToReactorTemplates {
 
     @AfterTemplate
     void after(Observable<T> observable) {
-      RxJava2Adapter.observableToFlux(observable, BackpressureStrategy.BUFFER)
-          .as(StepVerifier::create)
-          .verifyComplete();
+      RxJavaReactorBridge.observableToFlux(observable).as(StepVerifier::create).verifyComplete();
     }
   }
 
@@ -759,14 +755,13 @@ final class RxJavaObservableToReactorTemplates {
 
     @AfterTemplate
     void after(Observable<T> observable, T t1, T t2) {
-      RxJava2Adapter.observableToFlux(observable, BackpressureStrategy.BUFFER)
+      RxJavaReactorBridge.observableToFlux(observable)
           .as(StepVerifier::create)
           .expectNext(t1, t2)
           .verifyComplete();
     }
   }
 
-  // XXX: Default BackpressureStrategy.BUFFER is set
   static final class ObservableTestAssertValue<T> {
     @BeforeTemplate
     void before(Observable<T> observable, Predicate<T> predicate) throws InterruptedException {
@@ -779,14 +774,13 @@ final class RxJavaObservableToReactorTemplates {
 
     @AfterTemplate
     void after(Observable<T> observable, Predicate<T> predicate) {
-      RxJava2Adapter.observableToFlux(observable, BackpressureStrategy.BUFFER)
+      RxJavaReactorBridge.observableToFlux(observable)
           .as(StepVerifier::create)
           .expectNextMatches(RxJavaReactorMigrationUtil.toJdkPredicate(predicate))
           .verifyComplete();
     }
   }
 
-  // XXX: Default BackpressureStrategy.BUFFER is set
   static final class ObservableTestAssertResultValues<T> {
     @BeforeTemplate
     void before(Observable<T> observable, @Repeated T item) throws InterruptedException {
@@ -797,14 +791,13 @@ final class RxJavaObservableToReactorTemplates {
 
     @AfterTemplate
     void after(Observable<T> observable, @Repeated T item) {
-      RxJava2Adapter.observableToFlux(observable, BackpressureStrategy.BUFFER)
+      RxJavaReactorBridge.observableToFlux(observable)
           .as(StepVerifier::create)
           .expectNext(item)
           .verifyComplete();
     }
   }
 
-  // XXX: Default BackpressureStrategy.BUFFER is set
   static final class ObservableTestAssertComplete<T> {
     @BeforeTemplate
     void before(Observable<T> observable) throws InterruptedException {
@@ -813,13 +806,10 @@ final class RxJavaObservableToReactorTemplates {
 
     @AfterTemplate
     void after(Observable<T> observable) {
-      RxJava2Adapter.observableToFlux(observable, BackpressureStrategy.BUFFER)
-          .as(StepVerifier::create)
-          .verifyComplete();
+      RxJavaReactorBridge.observableToFlux(observable).as(StepVerifier::create).verifyComplete();
     }
   }
 
-  // XXX: Default BackpressureStrategy.BUFFER is set
   static final class ObservableTestAssertErrorClass<T> {
     @BeforeTemplate
     void before(Observable<T> observable, Class<? extends Throwable> errorClass)
@@ -829,13 +819,12 @@ final class RxJavaObservableToReactorTemplates {
 
     @AfterTemplate
     void after(Observable<T> observable, Class<? extends Throwable> errorClass) {
-      RxJava2Adapter.observableToFlux(observable, BackpressureStrategy.BUFFER)
+      RxJavaReactorBridge.observableToFlux(observable)
           .as(StepVerifier::create)
           .verifyError(errorClass);
     }
   }
 
-  // XXX: Default BackpressureStrategy.BUFFER is set
   static final class ObservableTestAssertNoErrors<T> {
     @BeforeTemplate
     void before(Observable<T> observable) throws InterruptedException {
@@ -844,13 +833,10 @@ final class RxJavaObservableToReactorTemplates {
 
     @AfterTemplate
     void after(Observable<T> observable) {
-      RxJava2Adapter.observableToFlux(observable, BackpressureStrategy.BUFFER)
-          .as(StepVerifier::create)
-          .verifyComplete();
+      RxJavaReactorBridge.observableToFlux(observable).as(StepVerifier::create).verifyComplete();
     }
   }
 
-  // XXX: Default BackpressureStrategy.BUFFER is set
   static final class ObservableTestAssertValueCount<T> {
     @BeforeTemplate
     void before(Observable<T> observable, int count) throws InterruptedException {
@@ -859,7 +845,7 @@ final class RxJavaObservableToReactorTemplates {
 
     @AfterTemplate
     void after(Observable<T> observable, int count) {
-      RxJava2Adapter.observableToFlux(observable, BackpressureStrategy.BUFFER)
+      RxJavaReactorBridge.observableToFlux(observable)
           .as(StepVerifier::create)
           .expectNextCount(count)
           .verifyComplete();
@@ -867,7 +853,6 @@ final class RxJavaObservableToReactorTemplates {
   }
 
   // XXX: Add test
-  // XXX: Default BackpressureStrategy.BUFFER is set
   @SuppressWarnings("unchecked")
   static final class ObservableTestAssertFailure<T> {
     @BeforeTemplate
@@ -878,14 +863,11 @@ final class RxJavaObservableToReactorTemplates {
 
     @AfterTemplate
     void after(Observable<T> observable, Class<? extends Throwable> error) {
-      RxJava2Adapter.observableToFlux(observable, BackpressureStrategy.BUFFER)
-          .as(StepVerifier::create)
-          .verifyError(error);
+      RxJavaReactorBridge.observableToFlux(observable).as(StepVerifier::create).verifyError(error);
     }
   }
 
   // XXX: Add test
-  // XXX: Default BackpressureStrategy.BUFFER is set
   static final class ObservableTestAssertNoValues<T> {
     @BeforeTemplate
     void before(Observable<T> observable) throws InterruptedException {
@@ -896,9 +878,7 @@ final class RxJavaObservableToReactorTemplates {
 
     @AfterTemplate
     void after(Observable<T> observable) {
-      RxJava2Adapter.observableToFlux(observable, BackpressureStrategy.BUFFER)
-          .as(StepVerifier::create)
-          .verifyComplete();
+      RxJavaReactorBridge.observableToFlux(observable).as(StepVerifier::create).verifyComplete();
     }
   }
 
@@ -915,7 +895,7 @@ final class RxJavaObservableToReactorTemplates {
     @AfterTemplate
     @UseImportPolicy(ImportPolicy.IMPORT_CLASS_DIRECTLY)
     void after(Observable<T> observable, Class<? extends Throwable> error, String message) {
-      RxJava2Adapter.observableToFlux(observable, BackpressureStrategy.BUFFER)
+      RxJavaReactorBridge.observableToFlux(observable)
           .as(StepVerifier::create)
           .expectErrorSatisfies(
               t -> assertThat(t).isInstanceOf(error).hasMessageContaining(message))
@@ -0,0 +1,130 @@
+package tech.picnic.errorprone.refastertemplates;
+
+import com.google.errorprone.refaster.Refaster;
+import com.google.errorprone.refaster.annotation.AfterTemplate;
+import com.google.errorprone.refaster.annotation.BeforeTemplate;
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import reactor.adapter.rxjava.RxJava2Adapter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.picnic.errorprone.migration.util.RxJavaReactorBridge;
+
+/**
+ * Refaster templates that replace the {@link RxJava2Adapter} conversions left over after migration
+ * with their {@link RxJavaReactorBridge} counterparts, which support operator fusion and record
+ * {@code BridgeMetrics}.
+ *
+ * <p>The other templates match the {@link RxJava2Adapter} forms of these conversions, so these
+ * templates must only be applied once the other ones no longer match; the migration driver applies
+ * them in the final {@code BRIDGE} phase.
+ */
+public final class RxJavaReactorBridgeTemplates {
+  private RxJavaReactorBridgeTemplates() {}
+
+  static final class FluxToFlowable<T> {
+    @BeforeTemplate
+    Flowable<T> before(Flux<T> flux) {
+      return Refaster.anyOf(
+          RxJava2Adapter.fluxToFlowable(flux), flux.as(RxJava2Adapter::fluxToFlowable));
+    }
+
+    @AfterTemplate
+    Flowable<T> after(Flux<T> flux) {
+      return RxJavaReactorBridge.fluxToFlowable(flux);
+    }
+  }
+
+  static final class FlowableToFlux<T> {
+    @BeforeTemplate
+    Flux<T> before(Flowable<T> flowable) {
+      return Refaster.anyOf(
+          RxJava2Adapter.flowableToFlux(flowable), flowable.as(RxJava2Adapter::flowableToFlux));
+    }
+
+    @AfterTemplate
+    Flux<T> after(Flowable<T> flowable) {
+      return RxJavaReactorBridge.flowableToFlux(flowable);
+    }
+  }
+
+  static final class MonoToSingle<T> {
+    @BeforeTemplate
+    Single<T> before(Mono<T> mono) {
+      return Refaster.anyOf(
+          RxJava2Adapter.monoToSingle(mono), mono.as(RxJava2Adapter::monoToSingle));
+    }
+
+    @AfterTemplate
+    Single<T> after(Mono<T> mono) {
+      return RxJavaReactorBridge.monoToSingle(mono);
+    }
+  }
+
+  static final class SingleToMono<T> {
+    @BeforeTemplate
+    Mono<T> before(Single<T> single) {
+      return Refaster.anyOf(
+          RxJava2Adapter.singleToMono(single), single.as(RxJava2Adapter::singleToMono));
+    }
+
+    @AfterTemplate
+    Mono<T> after(Single<T> single) {
+      return RxJavaReactorBridge.singleToMono(single);
+    }
+  }
+
+  static final class MonoToMaybe<T> {
+    @BeforeTemplate
+    Maybe<T> before(Mono<T> mono) {
+      return Refaster.anyOf(RxJava2Adapter.monoToMaybe(mono), mono.as(RxJava2Adapter::monoToMaybe));
+    }
+
+    @AfterTemplate
+    Maybe<T> after(Mono<T> mono) {
+      return RxJavaReactorBridge.monoToMaybe(mono);
+    }
+  }
+
+  static final class MaybeToMono<T> {
+    @BeforeTemplate
+    Mono<T> before(Maybe<T> maybe) {
+      return Refaster.anyOf(
+          RxJava2Adapter.maybeToMono(maybe), maybe.as(RxJava2Adapter::maybeToMono));
+    }
+
+    @AfterTemplate
+    Mono<T> after(Maybe<T> maybe) {
+      return RxJavaReactorBridge.maybeToMono(maybe);
+    }
+  }
+
+  static final class MonoToCompletable<T> {
+    @BeforeTemplate
+    Completable before(Mono<T> mono) {
+      return Refaster.anyOf(
+          RxJava2Adapter.monoToCompletable(mono), mono.as(RxJava2Adapter::monoToCompletable));
+    }
+
+    @AfterTemplate
+    Completable after(Mono<T> mono) {
+      return RxJavaReactorBridge.monoToCompletable(mono);
+    }
+  }
+
+  static final class CompletableToMono {
+    @BeforeTemplate
+    Mono<Void> before(Completable completable) {
+      return Refaster.anyOf(
+          RxJava2Adapter.completableToMono(completable),
+          completable.as(RxJava2Adapter::completableToMono));
+    }
+
+    @AfterTemplate
+    Mono<Void> after(Completable completable) {
+      return RxJavaReactorBridge.completableToMono(completable);
+    }
+  }
+}
@@ -206,7 +206,7 @@ final class RxJavaSingleToReactorTemplates {
 
     @AfterTemplate
     Object after(Single<T> single) {
-      return RxJava2Adapter.singleToMono(single).block();
+      return RxJavaReactorMigrationUtil.block(RxJava2Adapter.singleToMono(single));
     }
   }
 
@@ -0,0 +1,146 @@
+package tech.picnic.errorprone.refastertemplates;
+
+import com.google.errorprone.refaster.annotation.AfterTemplate;
+import com.google.errorprone.refaster.annotation.BeforeTemplate;
+import com.google.errorprone.refaster.annotation.CanTransformToTargetType;
+import io.reactivex.Flowable;
+import io.reactivex.functions.Action;
+import io.reactivex.functions.BiFunction;
+import io.reactivex.functions.Consumer;
+import io.reactivex.functions.Function;
+import io.reactivex.functions.Predicate;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+import org.reactivestreams.Publisher;
+import reactor.adapter.rxjava.RxJava2Adapter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.picnic.errorprone.migration.util.RxJavaReactorMigrationUtil;
+
+/**
+ * Refaster templates that remove {@link RxJavaReactorMigrationUtil} conversions of RxJava
+ * functional interfaces, which only produce compiling code with the Picnic fork of Error Prone.
+ *
+ * <p>These templates rely on {@link CanTransformToTargetType}. Stock Error Prone ignores this
+ * annotation and then also removes the conversion of e.g. a variable of an RxJava functional
+ * interface type, producing code that does not compile. The templates are therefore compiled into a
+ * separate bundle that is not part of the aggregate {@code RxJavaToReactorMigration} bundle. On
+ * stock Error Prone, use the {@code UnnecessaryJdkConversion} check instead.
+ */
+public final class RxJavaToReactorForkTemplates {
+  private RxJavaToReactorForkTemplates() {}
+
+  static final class MonoErrorCallableSupplierUtil<T> {
+    @BeforeTemplate
+    Mono<T> before(@CanTransformToTargetType Callable<? extends Throwable> callable) {
+      return Mono.error(RxJavaReactorMigrationUtil.callableAsSupplier(callable));
+    }
+
+    @AfterTemplate
+    Mono<T> after(Supplier<? extends Throwable> callable) {
+      return Mono.error(callable);
+    }
+  }
+
+  @SuppressWarnings({"NoFunctionalReturnType", "FunctionalInterfaceClash"})
+  static final class RemoveUtilCallable<T> {
+    @BeforeTemplate
+    Supplier<T> before(@CanTransformToTargetType Callable<T> callable) {
+      return RxJavaReactorMigrationUtil.callableAsSupplier(callable);
+    }
+
+    @AfterTemplate
+    Supplier<T> before(Supplier<T> callable) {
+      return callable;
+    }
+  }
+
+  @SuppressWarnings("NoFunctionalReturnType")
+  static final class UnnecessaryFunctionConversion<I, O> {
+    @BeforeTemplate
+    java.util.function.Function<I, O> before(@CanTransformToTargetType Function<I, O> function) {
+      return RxJavaReactorMigrationUtil.toJdkFunction(function);
+    }
+
+    @AfterTemplate
+    java.util.function.Function<I, O> after(java.util.function.Function<I, O> function) {
+      return function;
+    }
+  }
+
+  @SuppressWarnings("NoFunctionalReturnType")
+  static final class UnnecessaryBiFunctionConversion<T, U, R> {
+    @BeforeTemplate
+    java.util.function.BiFunction<? super T, ? super U, ? extends R> before(
+        @CanTransformToTargetType BiFunction<? super T, ? super U, ? extends R> zipper) {
+      return RxJavaReactorMigrationUtil.toJdkBiFunction(zipper);
+    }
+
+    @AfterTemplate
+    java.util.function.BiFunction<? super T, ? super U, ? extends R> after(
+        java.util.function.BiFunction<? super T, ? super U, ? extends R> zipper) {
+      return zipper;
+    }
+  }
+
+  @SuppressWarnings("NoFunctionalReturnType")
+  static final class UnnecessaryConsumerConversion<T> {
+    @BeforeTemplate
+    java.util.function.Consumer<? extends T> before(
+        @CanTransformToTargetType Consumer<? extends T> consumer) {
+      return RxJavaReactorMigrationUtil.toJdkConsumer(consumer);
+    }
+
+    @AfterTemplate
+    java.util.function.Consumer<? extends T> after(
+        java.util.function.Consumer<? extends T> consumer) {
+      return consumer;
+    }
+  }
+
+  static final class UnnecessaryRunnableConversion {
+    @BeforeTemplate
+    Runnable before(@CanTransformToTargetType Action action) {
+      return RxJavaReactorMigrationUtil.toRunnable(action);
+    }
+
+    @AfterTemplate
+    Runnable after(Runnable action) {
+      return action;
+    }
+  }
+
+  @SuppressWarnings("NoFunctionalReturnType")
+  static final class UnnecessaryPredicateConversion<T> {
+    @BeforeTemplate
+    java.util.function.Predicate<? extends T> before(
+        @CanTransformToTargetType Predicate<? extends T> predicate) {
+      return RxJavaReactorMigrationUtil.toJdkPredicate(predicate);
+    }
+
+    @AfterTemplate
+    java.util.function.Predicate<? extends T> after(
+        java.util.function.Predicate<? extends T> predicate) {
+      return predicate;
+    }
+  }
+
+  static final class FlowableBiFunctionRemoveUtil<T, U, R> {
+    @BeforeTemplate
+    Flowable<R> before(
+        Publisher<? extends T> source1,
+        Publisher<? extends U> source2,
+        @CanTransformToTargetType BiFunction<? super T, ? super U, ? extends R> zipper) {
+      return RxJava2Adapter.fluxToFlowable(
+          Flux.<T, U, R>zip(source1, source2, RxJavaReactorMigrationUtil.toJdkBiFunction(zipper)));
+    }
+
+    @AfterTemplate
+    Flowable<R> after(
+        Publisher<? extends T> source1,
+        Publisher<? extends U> source2,
+        java.util.function.BiFunction<? super T, ? super U, ? extends R> zipper) {
+      return RxJava2Adapter.fluxToFlowable(Flux.<T, U, R>zip(source1, source2, zipper));
+    }
+  }
+}
@@ -3,20 +3,14 @@ package tech.picnic.errorprone.refastertemplates;
 import com.google.errorprone.refaster.Refaster;
 import com.google.errorprone.refaster.annotation.AfterTemplate;
 import com.google.errorprone.refaster.annotation.BeforeTemplate;
-import com.google.errorprone.refaster.annotation.CanTransformToTargetType;
 import io.reactivex.BackpressureStrategy;
-import io.reactivex.Flowable;
-import io.reactivex.functions.Action;
-import io.reactivex.functions.BiFunction;
-import io.reactivex.functions.Consumer;
-import io.reactivex.functions.Function;
+import io.reactivex.Observable;
 import io.reactivex.functions.Predicate;
 import java.util.concurrent.Callable;
-import java.util.function.Supplier;
-import org.reactivestreams.Publisher;
 import reactor.adapter.rxjava.RxJava2Adapter;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import tech.picnic.errorprone.migration.util.RxJavaReactorBridge;
 import tech.picnic.errorprone.migration.util.RxJavaReactorMigrationUtil;
 
 /** Assorted Refaster templates for the migration of RxJava to Reactor */
@@ -35,6 +29,8 @@ public final class RxJavaToReactorTemplates {
               .toFlowable(strategy)
               .as(RxJava2Adapter::flowableToFlux),
           RxJava2Adapter.observableToFlux(RxJava2Adapter.fluxToObservable(flux), strategy),
+          RxJavaReactorBridge.observableToFlux(RxJava2Adapter.fluxToObservable(flux)),
+          RxJavaReactorBridge.observableToFlux(flux.as(RxJava2Adapter::fluxToObservable)),
           flux.as(RxJava2Adapter::fluxToFlowable).as(RxJava2Adapter::flowableToFlux));
     }
 
@@ -94,117 +90,129 @@ public final class RxJavaToReactorTemplates {
     }
   }
 
-  static final class MonoErrorCallableSupplierUtil<T> {
+  ///////////////////////////////////////////
+  //////// FINITE OBSERVABLE SOURCES ////////
+  ///////////////////////////////////////////
+
+  // The templates below convert Observable sources that are finite and support backpressure when
+  // expressed as a Flux directly, such that no (unbounded) buffer is introduced by the conversion.
+  // Only conversions that buffer all elements are replaced: other backpressure strategies drop
+  // elements or signal an error when the downstream requests fewer elements than the source emits,
+  // which a backpressure-aware Flux never does.
+
+  static final class ObservableEmptyToFlux<T> {
     @BeforeTemplate
-    Mono<T> before(@CanTransformToTargetType Callable<? extends Throwable> callable) {
-      return Mono.error(RxJavaReactorMigrationUtil.callableAsSupplier(callable));
+    Flux<T> before() {
+      return Refaster.anyOf(
+          RxJavaReactorBridge.observableToFlux(Observable.empty()),
+          RxJava2Adapter.observableToFlux(Observable.empty(), BackpressureStrategy.BUFFER));
     }
 
     @AfterTemplate
-    Mono<T> after(Supplier<? extends Throwable> callable) {
-      return Mono.error(callable);
+    Flux<T> after() {
+      return Flux.empty();
     }
   }
 
-  @SuppressWarnings({"NoFunctionalReturnType", "FunctionalInterfaceClash"})
-  static final class RemoveUtilCallable<T> {
+  static final class ObservableJustToFlux<T> {
     @BeforeTemplate
-    Supplier<T> before(@CanTransformToTargetType Callable<T> callable) {
-      return RxJavaReactorMigrationUtil.callableAsSupplier(callable);
+    Flux<T> before(T t) {
+      return Refaster.anyOf(
+          RxJavaReactorBridge.observableToFlux(Observable.just(t)),
+          RxJava2Adapter.observableToFlux(Observable.just(t), BackpressureStrategy.BUFFER));
     }
 
     @AfterTemplate
-    Supplier<T> before(Supplier<T> callable) {
-      return callable;
+    Flux<T> after(T t) {
+      return Flux.just(t);
     }
   }
 
-  @SuppressWarnings("NoFunctionalReturnType")
-  static final class UnnecessaryFunctionConversion<I, O> {
+  static final class ObservableJustTwoToFlux<T> {
     @BeforeTemplate
-    java.util.function.Function<I, O> before(@CanTransformToTargetType Function<I, O> function) {
-      return RxJavaReactorMigrationUtil.toJdkFunction(function);
+    Flux<T> before(T t, T t2) {
+      return Refaster.anyOf(
+          RxJavaReactorBridge.observableToFlux(Observable.just(t, t2)),
+          RxJava2Adapter.observableToFlux(Observable.just(t, t2), BackpressureStrategy.BUFFER));
     }
 
     @AfterTemplate
-    java.util.function.Function<I, O> after(java.util.function.Function<I, O> function) {
-      return function;
+    Flux<T> after(T t, T t2) {
+      return Flux.just(t, t2);
     }
   }
 
-  @SuppressWarnings("NoFunctionalReturnType")
-  static final class UnnecessaryBiFunctionConversion<T, U, R> {
+  static final class ObservableJustThreeToFlux<T> {
     @BeforeTemplate
-    java.util.function.BiFunction<? super T, ? super U, ? extends R> before(
-        @CanTransformToTargetType BiFunction<? super T, ? super U, ? extends R> zipper) {
-      return RxJavaReactorMigrationUtil.toJdkBiFunction(zipper);
+    Flux<T> before(T t, T t2, T t3) {
+      return Refaster.anyOf(
+          RxJavaReactorBridge.observableToFlux(Observable.just(t, t2, t3)),
+          RxJava2Adapter.observableToFlux(Observable.just(t, t2, t3), BackpressureStrategy.BUFFER));
     }
 
     @AfterTemplate
-    java.util.function.BiFunction<? super T, ? super U, ? extends R> after(
-        java.util.function.BiFunction<? super T, ? super U, ? extends R> zipper) {
-      return zipper;
+    Flux<T> after(T t, T t2, T t3) {
+      return Flux.just(t, t2, t3);
     }
   }
 
-  @SuppressWarnings("NoFunctionalReturnType")
-  static final class UnnecessaryConsumerConversion<T> {
+  static final class ObservableFromArrayToFlux<T> {
     @BeforeTemplate
-    java.util.function.Consumer<? extends T> before(
-        @CanTransformToTargetType Consumer<? extends T> consumer) {
-      return RxJavaReactorMigrationUtil.toJdkConsumer(consumer);
+    Flux<T> before(T[] array) {
+      return Refaster.anyOf(
+          RxJavaReactorBridge.observableToFlux(Observable.fromArray(array)),
+          RxJava2Adapter.observableToFlux(
+              Observable.fromArray(array), BackpressureStrategy.BUFFER));
     }
 
     @AfterTemplate
-    java.util.function.Consumer<? extends T> after(
-        java.util.function.Consumer<? extends T> consumer) {
-      return consumer;
+    Flux<T> after(T[] array) {
+      return Flux.fromArray(array);
     }
   }
 
-  static final class UnnecessaryRunnableConversion {
+  static final class ObservableFromIterableToFlux<T> {
     @BeforeTemplate
-    Runnable before(@CanTransformToTargetType Action action) {
-      return RxJavaReactorMigrationUtil.toRunnable(action);
+    Flux<T> before(Iterable<? extends T> iterable) {
+      return Refaster.anyOf(
+          RxJavaReactorBridge.observableToFlux(Observable.fromIterable(iterable)),
+          RxJava2Adapter.observableToFlux(
+              Observable.fromIterable(iterable), BackpressureStrategy.BUFFER));
     }
 
     @AfterTemplate
-    Runnable after(Runnable action) {
-      return action;
+    Flux<T> after(Iterable<? extends T> iterable) {
+      return Flux.fromIterable(iterable);
     }
   }
 
-  @SuppressWarnings("NoFunctionalReturnType")
-  static final class UnnecessaryPredicateConversion<T> {
+  static final class ObservableFromCallableToFlux<T> {
     @BeforeTemplate
-    java.util.function.Predicate<? extends T> before(
-        @CanTransformToTargetType Predicate<? extends T> predicate) {
-      return RxJavaReactorMigrationUtil.toJdkPredicate(predicate);
+    Flux<T> before(Callable<T> callable) {
+      return Refaster.anyOf(
+          RxJavaReactorBridge.observableToFlux(Observable.fromCallable(callable)),
+          RxJava2Adapter.observableToFlux(
+              Observable.fromCallable(callable), BackpressureStrategy.BUFFER));
     }
 
     @AfterTemplate
-    java.util.function.Predicate<? extends T> after(
-        java.util.function.Predicate<? extends T> predicate) {
-      return predicate;
+    Flux<T> after(Callable<T> callable) {
+      return Mono.fromSupplier(RxJavaReactorMigrationUtil.callableAsSupplier(callable)).flux();
     }
   }
 
-  static final class FlowableBiFunctionRemoveUtil<T, U, R> {
+  static final class ObservableRangeToFlux {
     @BeforeTemplate
-    Flowable<R> before(
-        Publisher<? extends T> source1,
-        Publisher<? extends U> source2,
-        @CanTransformToTargetType BiFunction<? super T, ? super U, ? extends R> zipper) {
-      return RxJava2Adapter.fluxToFlowable(
-          Flux.<T, U, R>zip(source1, source2, RxJavaReactorMigrationUtil.toJdkBiFunction(zipper)));
+    Flux<Integer> before(int start, int count) {
+      return Refaster.anyOf(
+          RxJavaReactorBridge.observableToFlux(Observable.range(start, count)),
+          RxJava2Adapter.observableToFlux(
+              Observable.range(start, count), BackpressureStrategy.BUFFER));
     }
 
     @AfterTemplate
-    Flowable<R> after(
-        Publisher<? extends T> source1,
-        Publisher<? extends U> source2,
-        java.util.function.BiFunction<? super T, ? super U, ? extends R> zipper) {
-      return RxJava2Adapter.fluxToFlowable(Flux.<T, U, R>zip(source1, source2, zipper));
+    Flux<Integer> after(int start, int count) {
+      return Flux.range(start, count);
     }
   }
 
@@ -0,0 +1,97 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.errorprone.BugPattern.LinkType.NONE;
+import static com.google.errorprone.BugPattern.SeverityLevel.SUGGESTION;
+import static com.google.errorprone.BugPattern.StandardTags.REFACTORING;
+import static com.google.errorprone.matchers.method.MethodMatchers.staticMethod;
+import static java.util.stream.Collectors.joining;
+
+import com.google.auto.service.AutoService;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.fixes.SuggestedFix;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.tools.javac.code.Symbol.ClassSymbol;
+import com.sun.tools.javac.code.Symbol.MethodSymbol;
+import java.util.Optional;
+
+/**
+ * A {@link BugChecker} that replaces {@code RxJava2Adapter.singleToMono(service.find(id))} with
+ * {@code service.findMono(id)} when the {@link MigrationIndex} of the module declaring {@code
+ * find} states that it merely delegates to {@code findMono}.
+ *
+ * <p>The index is only read once a candidate conversion is encountered, and at most once per
+ * compilation, so modules that do not call into migrated modules do not pay for it. Methods that
+ * can be overridden are never rewritten, even if a (stale) index lists them.
+ */
+@AutoService(BugChecker.class)
+@BugPattern(
+    name = "CrossModuleAdapterElimination",
+    summary = "Call the Reactor sibling of this method instead of converting its result",
+    linkType = NONE,
+    severity = SUGGESTION,
+    tags = REFACTORING)
+public final class CrossModuleAdapterElimination extends BugChecker
+    implements MethodInvocationTreeMatcher {
+  private static final long serialVersionUID = 1L;
+  private static final Matcher<ExpressionTree> TO_REACTOR_ADAPTER =
+      staticMethod()
+          .onClass("reactor.adapter.rxjava.RxJava2Adapter")
+          .namedAnyOf("flowableToFlux", "maybeToMono", "singleToMono");
+
+  /** Instantiates the default {@link CrossModuleAdapterElimination}. */
+  public CrossModuleAdapterElimination() {}
+
+  @Override
+  public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+    if (!TO_REACTOR_ADAPTER.matches(tree, state)
+        || !(tree.getArguments().get(0) instanceof MethodInvocationTree)) {
+      return Description.NO_MATCH;
+    }
+
+    MethodInvocationTree call = (MethodInvocationTree) tree.getArguments().get(0);
+    MethodSymbol symbol = ASTHelpers.getSymbol(call);
+    if (symbol == null
+        || !call.getTypeArguments().isEmpty()
+        || !MigrationIndex.cannotBeOverridden(symbol)) {
+      return Description.NO_MATCH;
+    }
+
+    return reactorSibling(symbol, state)
+        .map(sibling -> SuggestedFix.replace(tree, invoke(call, sibling, state)))
+        .map(fix -> describeMatch(tree, fix))
+        .orElse(Description.NO_MATCH);
+  }
+
+  private static Optional<String> reactorSibling(MethodSymbol symbol, VisitorState state) {
+    return MigrationIndex.instance(state.context)
+        .reactorSibling(
+            MigrationIndex.key(
+                ((ClassSymbol) symbol.owner).flatName().toString(),
+                symbol.getSimpleName().toString(),
+                symbol.getParameters().stream()
+                    .map(p -> state.getTypes().erasure(p.type).toString())
+                    .collect(toImmutableList())));
+  }
+
+  private static String invoke(MethodInvocationTree call, String method, VisitorState state) {
+    String arguments =
+        call.getArguments().stream().map(state::getSourceForNode).collect(joining(", "));
+    return call.getMethodSelect() instanceof MemberSelectTree
+        ? state.getSourceForNode(((MemberSelectTree) call.getMethodSelect()).getExpression())
+            + '.'
+            + method
+            + '('
+            + arguments
+            + ')'
+        : method + '(' + arguments + ')';
+  }
+}
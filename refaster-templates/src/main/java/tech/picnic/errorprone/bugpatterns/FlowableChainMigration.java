@@ -0,0 +1,233 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.errorprone.BugPattern.LinkType.NONE;
+import static com.google.errorprone.BugPattern.SeverityLevel.SUGGESTION;
+import static com.google.errorprone.BugPattern.StandardTags.REFACTORING;
+import static com.google.errorprone.matchers.method.MethodMatchers.instanceMethod;
+import static com.google.errorprone.matchers.method.MethodMatchers.staticMethod;
+
+import com.google.auto.service.AutoService;
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.fixes.SuggestedFix;
+import com.google.errorprone.fixes.SuggestedFixes;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.ParenthesizedTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.TreePath;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link BugChecker} that migrates a fluent chain of {@code Flowable} operators to a single
+ * Reactor chain.
+ *
+ * <p>The per-operator Refaster templates wrap every operator in its own {@code
+ * fluxToFlowable(flowableToFlux(...))} pair and rely on later cleanup passes to remove the inner
+ * crossings. This check translates the whole chain in one go, so that the result crosses the
+ * RxJava/Reactor boundary at most once at the entry and once at the exit of the chain.
+ */
+@AutoService(BugChecker.class)
+@BugPattern(
+    name = "FlowableChainMigration",
+    summary = "Migrate the `Flowable` operator chain to Reactor in one go",
+    linkType = NONE,
+    severity = SUGGESTION,
+    tags = REFACTORING)
+public final class FlowableChainMigration extends BugChecker
+    implements MethodInvocationTreeMatcher {
+  private static final long serialVersionUID = 1L;
+  private static final String FLOWABLE = "io.reactivex.Flowable";
+  private static final String RX_JAVA_2_ADAPTER = "reactor.adapter.rxjava.RxJava2Adapter";
+  private static final String MIGRATION_UTIL =
+      "tech.picnic.errorprone.migration.util.RxJavaReactorMigrationUtil";
+  private static final int MIN_CHAIN_LENGTH = 2;
+  private static final Matcher<ExpressionTree> FLUX_TO_FLOWABLE =
+      staticMethod().onClass(RX_JAVA_2_ADAPTER).named("fluxToFlowable");
+  private static final Matcher<ExpressionTree> FLOWABLE_TO_FLUX =
+      staticMethod().onClass(RX_JAVA_2_ADAPTER).named("flowableToFlux");
+
+  /** Instantiates the default {@link FlowableChainMigration}. */
+  public FlowableChainMigration() {}
+
+  @Override
+  public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+    if (!isMigratableChain(state.getPath(), state) || isNestedInMigratableChain(state)) {
+      return Description.NO_MATCH;
+    }
+
+    Deque<MethodInvocationTree> operators = new ArrayDeque<>();
+    ExpressionTree root = collectChain(tree, state, operators);
+
+    SuggestedFix.Builder fix = SuggestedFix.builder();
+    String adapter = SuggestedFixes.qualifyType(state, fix, RX_JAVA_2_ADAPTER);
+
+    StringBuilder chain = new StringBuilder();
+    if (FLUX_TO_FLOWABLE.matches(root, state)) {
+      chain.append(state.getSourceForNode(((MethodInvocationTree) root).getArguments().get(0)));
+    } else {
+      chain.append(adapter + ".flowableToFlux(" + state.getSourceForNode(root) + ')');
+    }
+    for (MethodInvocationTree invocation : operators) {
+      ChainOperator op = ChainOperator.of(invocation, state).orElseThrow();
+      chain.append('.').append(op.reactorName).append('(');
+      if (!invocation.getArguments().isEmpty()) {
+        String argument = state.getSourceForNode(invocation.getArguments().get(0));
+        chain.append(
+            op.converter == null
+                ? argument
+                : SuggestedFixes.qualifyType(state, fix, MIGRATION_UTIL)
+                    + '.'
+                    + op.converter
+                    + '('
+                    + argument
+                    + ')');
+      }
+      chain.append(')');
+    }
+
+    Tree parent = parentSkippingParentheses(state.getPath()).getLeaf();
+    if (parent instanceof MethodInvocationTree
+        && FLOWABLE_TO_FLUX.matches((ExpressionTree) parent, state)) {
+      fix.replace(parent, chain.toString());
+    } else {
+      fix.replace(tree, adapter + ".fluxToFlowable(" + chain + ')');
+    }
+
+    return describeMatch(tree, fix.build());
+  }
+
+  /**
+   * Tells whether the given path points to the outermost invocation of a chain of at least {@link
+   * #MIN_CHAIN_LENGTH} supported operators.
+   */
+  private static boolean isMigratableChain(TreePath path, VisitorState state) {
+    Tree tree = path.getLeaf();
+    if (!(tree instanceof ExpressionTree)
+        || ChainOperator.of((ExpressionTree) tree, state).isEmpty()
+        || isChainedFurther(path, state)) {
+      return false;
+    }
+
+    Deque<MethodInvocationTree> operators = new ArrayDeque<>();
+    return collectChain((ExpressionTree) tree, state, operators) != null
+        && operators.size() >= MIN_CHAIN_LENGTH;
+  }
+
+  /**
+   * Tells whether the invocation under inspection is part of the source of an enclosing chain that
+   * is migrated as well, e.g. because it occurs in a lambda expression passed to one of that
+   * chain's operators. As the fix for the enclosing chain replaces this invocation's source, the
+   * two fixes would overlap; the nested chain is instead migrated by a subsequent pass, once the
+   * enclosing chain no longer matches.
+   */
+  private static boolean isNestedInMigratableChain(VisitorState state) {
+    for (TreePath path = state.getPath().getParentPath();
+        path != null;
+        path = path.getParentPath()) {
+      if (path.getLeaf() instanceof MethodInvocationTree && isMigratableChain(path, state)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Pushes the supported operators of the chain ending in the given expression onto the given
+   * deque, outermost first, such that the deque lists them in invocation order.
+   *
+   * @return The receiver of the first operator of the chain, or {@code null} if it has none.
+   */
+  @Nullable
+  private static ExpressionTree collectChain(
+      ExpressionTree tree, VisitorState state, Deque<MethodInvocationTree> operators) {
+    ExpressionTree root = tree;
+    while (ChainOperator.of(root, state).isPresent()) {
+      MethodInvocationTree invocation = (MethodInvocationTree) root;
+      operators.push(invocation);
+      ExpressionTree receiver = ASTHelpers.getReceiver(invocation);
+      root = receiver == null ? null : ASTHelpers.stripParentheses(receiver);
+    }
+    return root;
+  }
+
+  /**
+   * Tells whether the invocation at the given path is itself the receiver of another supported
+   * operator, in which case the outermost invocation is responsible for the whole chain.
+   */
+  private static boolean isChainedFurther(TreePath path, VisitorState state) {
+    TreePath parent = parentSkippingParentheses(path);
+    if (!(parent.getLeaf() instanceof MemberSelectTree)) {
+      return false;
+    }
+
+    Tree grandParent = parent.getParentPath().getLeaf();
+    return grandParent instanceof MethodInvocationTree
+        && ChainOperator.of((ExpressionTree) grandParent, state).isPresent();
+  }
+
+  /** Returns the path of the closest enclosing tree that is not a {@link ParenthesizedTree}. */
+  private static TreePath parentSkippingParentheses(TreePath path) {
+    TreePath parent = path.getParentPath();
+    while (parent.getLeaf() instanceof ParenthesizedTree) {
+      parent = parent.getParentPath();
+    }
+    return parent;
+  }
+
+  /**
+   * The {@code Flowable} operators that this check knows how to translate, mirroring the
+   * corresponding templates in {@code RxJavaFlowableToReactorTemplates}.
+   */
+  private enum ChainOperator {
+    CONCAT_MAP("concatMap", "concatMap", "io.reactivex.functions.Function", "toJdkFunction"),
+    CONCAT_WITH("concatWith", "concatWith", "org.reactivestreams.Publisher", null),
+    DISTINCT("distinct", "distinct", null, null),
+    FILTER("filter", "filter", "io.reactivex.functions.Predicate", "toJdkPredicate"),
+    FLAT_MAP("flatMap", "flatMap", "io.reactivex.functions.Function", "toJdkFunction"),
+    MAP("map", "map", "io.reactivex.functions.Function", "toJdkFunction"),
+    SORTED("sorted", "sort", null, null),
+    SWITCH_IF_EMPTY("switchIfEmpty", "switchIfEmpty", "org.reactivestreams.Publisher", null);
+
+    private static final ImmutableList<ChainOperator> VALUES = ImmutableList.copyOf(values());
+
+    private final String reactorName;
+    @Nullable private final String converter;
+    private final Matcher<ExpressionTree> matcher;
+
+    ChainOperator(
+        String rxJavaName,
+        String reactorName,
+        @Nullable String parameterType,
+        @Nullable String converter) {
+      this.reactorName = reactorName;
+      this.converter = converter;
+      this.matcher =
+          parameterType == null
+              ? instanceMethod().onExactClass(FLOWABLE).named(rxJavaName).withNoParameters()
+              : instanceMethod()
+                  .onExactClass(FLOWABLE)
+                  .named(rxJavaName)
+                  .withParameters(parameterType);
+    }
+
+    static Optional<ChainOperator> of(ExpressionTree tree, VisitorState state) {
+      if (!(tree instanceof MethodInvocationTree)
+          || !((MethodInvocationTree) tree).getTypeArguments().isEmpty()) {
+        return Optional.empty();
+      }
+
+      return VALUES.stream().filter(op -> op.matcher.matches(tree, state)).findFirst();
+    }
+  }
+}
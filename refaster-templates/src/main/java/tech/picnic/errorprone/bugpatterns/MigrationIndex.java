@@ -0,0 +1,203 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableMap;
+import com.sun.tools.javac.util.Context;
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.NoSuchFileException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.tools.FileObject;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * An index of RxJava-returning methods that delegate to a Reactor-returning sibling through a
+ * single {@code RxJava2Adapter} conversion.
+ *
+ * <p>Only methods that {@link #cannotBeOverridden(ExecutableElement) cannot be overridden} are
+ * indexed. The index is written by {@link MigrationIndexPlugin} into the class output of each
+ * module, and read by {@link CrossModuleAdapterElimination} from the class path of downstream
+ * modules. Each line of the index file describes one method:
+ *
+ * <pre>{@code
+ * com.example.Service#find(java.lang.String,int)=findMono
+ * }</pre>
+ *
+ * <p>The left-hand side is the binary name of the declaring class, the method name and the erased
+ * parameter types; the right-hand side is the name of the Reactor-returning sibling, which accepts
+ * the same parameters. Lines starting with {@code #} are ignored.
+ */
+final class MigrationIndex {
+  private static final String DIRECTORY = "META-INF";
+  private static final String FILE_NAME = "rxjava-reactor-migration.idx";
+  private static final String HEADER = "# RxJava to Reactor migration index, version 1";
+  private static final MigrationIndex EMPTY = new MigrationIndex(ImmutableMap.of());
+  private static final Context.Key<MigrationIndex> CONTEXT_KEY = new Context.Key<>();
+
+  private final ImmutableMap<String, String> siblings;
+
+  private MigrationIndex(ImmutableMap<String, String> siblings) {
+    this.siblings = siblings;
+  }
+
+  /**
+   * Returns the index key of the given method.
+   *
+   * @param owner The binary name of the class declaring the method.
+   * @param name The name of the method.
+   * @param parameterTypes The erased types of the method's parameters.
+   * @return The key under which the method is indexed.
+   */
+  static String key(String owner, String name, List<String> parameterTypes) {
+    return owner + '#' + name + '(' + String.join(",", parameterTypes) + ')';
+  }
+
+  /**
+   * Tells whether the given method cannot be overridden, which is a prerequisite for indexing it:
+   * only then is calling its sibling instead guaranteed to be equivalent. For other methods, an
+   * override in a subclass, or a proxy that intercepts the method, e.g. to apply {@code
+   * Transactional} semantics, would be bypassed.
+   *
+   * @param method The method of interest.
+   * @return Whether the method is static or final, or is declared by a final class.
+   */
+  static boolean cannotBeOverridden(ExecutableElement method) {
+    return method.getModifiers().contains(Modifier.STATIC)
+        || method.getModifiers().contains(Modifier.FINAL)
+        || method.getEnclosingElement().getModifiers().contains(Modifier.FINAL);
+  }
+
+  /**
+   * Returns the name of the Reactor-returning sibling of the method with the given key, if any.
+   *
+   * @param key The key of the method, as computed by {@link #key(String, String, List)}.
+   * @return The name of the sibling, or {@link Optional#empty()} if the method is not indexed.
+   */
+  Optional<String> reactorSibling(String key) {
+    return Optional.ofNullable(siblings.get(key));
+  }
+
+  /**
+   * Returns the index of the class path of the given compilation, reading it on first use.
+   *
+   * <p>The index is cached in the compilation's {@link Context}, so that it is read at most once
+   * per compilation and is discarded along with it.
+   *
+   * @param context The context of the compilation.
+   * @return The merged index; empty if no index files are present.
+   */
+  static MigrationIndex instance(Context context) {
+    MigrationIndex index = context.get(CONTEXT_KEY);
+    if (index == null) {
+      index = load(context.get(JavaFileManager.class));
+      context.put(CONTEXT_KEY, index);
+    }
+    return index;
+  }
+
+  /**
+   * Reads and merges all index files found on the class path of the given file manager.
+   *
+   * @param fileManager The file manager of the compilation.
+   * @return The merged index; empty if no index files are present.
+   */
+  private static MigrationIndex load(JavaFileManager fileManager) {
+    if (!fileManager.hasLocation(StandardLocation.CLASS_PATH)) {
+      return EMPTY;
+    }
+
+    Map<String, String> siblings = new HashMap<>();
+    try {
+      for (JavaFileObject file :
+          fileManager.list(
+              StandardLocation.CLASS_PATH, DIRECTORY, Set.of(JavaFileObject.Kind.OTHER), false)) {
+        if (file.getName().endsWith(FILE_NAME)) {
+          read(file, siblings);
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read the migration index", e);
+    }
+
+    return new MigrationIndex(ImmutableMap.copyOf(siblings));
+  }
+
+  /**
+   * Reads the index file previously written to the class output of the given file manager, e.g. by
+   * an earlier incremental compilation of the same module.
+   *
+   * @param fileManager The file manager of the compilation.
+   * @return The index entries, mapping method keys to the names of their siblings; empty if there
+   *     is no such file.
+   * @throws IOException If the index file exists but cannot be read.
+   */
+  static Map<String, String> readOutput(JavaFileManager fileManager) throws IOException {
+    Map<String, String> siblings = new HashMap<>();
+    FileObject file =
+        fileManager.getFileForInput(StandardLocation.CLASS_OUTPUT, "", DIRECTORY + '/' + FILE_NAME);
+    if (file != null) {
+      try {
+        read(file, siblings);
+      } catch (FileNotFoundException | NoSuchFileException e) {
+        /* There is no index from a previous compilation. */
+      }
+    }
+    return siblings;
+  }
+
+  /**
+   * Returns the binary name of the class declaring the method with the given key.
+   *
+   * @param key The key of the method, as computed by {@link #key(String, String, List)}.
+   * @return The binary name of the declaring class.
+   */
+  static String owner(String key) {
+    return key.substring(0, key.indexOf('#'));
+  }
+
+  /**
+   * Writes the given index entries to the class output of the given file manager.
+   *
+   * @param fileManager The file manager of the compilation.
+   * @param siblings The index entries, mapping method keys to the names of their siblings.
+   * @throws IOException If the index file cannot be written.
+   */
+  static void write(JavaFileManager fileManager, Map<String, String> siblings)
+      throws IOException {
+    FileObject file =
+        fileManager.getFileForOutput(
+            StandardLocation.CLASS_OUTPUT, "", DIRECTORY + '/' + FILE_NAME, null);
+    try (Writer writer = file.openWriter()) {
+      writer.write(HEADER);
+      writer.write('\n');
+      for (Map.Entry<String, String> entry : siblings.entrySet()) {
+        writer.write(entry.getKey() + '=' + entry.getValue() + '\n');
+      }
+    }
+  }
+
+  private static void read(FileObject file, Map<String, String> siblings) throws IOException {
+    try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(file.openInputStream(), UTF_8))) {
+      for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+        int separator = line.lastIndexOf('=');
+        if (!line.startsWith("#") && separator > 0) {
+          siblings.put(line.substring(0, separator), line.substring(separator + 1));
+        }
+      }
+    }
+  }
+}
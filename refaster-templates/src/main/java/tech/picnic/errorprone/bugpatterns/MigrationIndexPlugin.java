@@ -0,0 +1,222 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+import com.google.auto.service.AutoService;
+import com.google.common.collect.ImmutableSet;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.ReturnTree;
+import com.sun.source.tree.StatementTree;
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.Plugin;
+import com.sun.source.util.TaskEvent;
+import com.sun.source.util.TaskListener;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreePathScanner;
+import com.sun.source.util.Trees;
+import com.sun.tools.javac.api.BasicJavacTask;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * A javac {@link Plugin} that writes a {@link MigrationIndex} of the compiled module to its class
+ * output.
+ *
+ * <p>A method is indexed if it is public, cannot be overridden (because it is static or final, or
+ * because its class is final) and its body consists of a single statement of the form {@code
+ * return RxJava2Adapter.monoToSingle(fooMono(a, b));}, where {@code fooMono} is declared by the
+ * same class and is passed exactly the method's own parameters. Downstream modules can then call
+ * {@code fooMono} directly instead of converting the result of the RxJava method back to Reactor.
+ *
+ * <p>The index is always written, even if it is empty, and retains the entries written by previous
+ * compilations for classes that are not recompiled, so that it remains complete across incremental
+ * builds.
+ *
+ * <p>Enable the plugin by passing {@code -Xplugin:MigrationIndex} to javac.
+ */
+@AutoService(Plugin.class)
+public final class MigrationIndexPlugin implements Plugin {
+  private static final String RX_JAVA_2_ADAPTER = "reactor.adapter.rxjava.RxJava2Adapter";
+  private static final ImmutableSet<String> TO_RX_JAVA_ADAPTERS =
+      ImmutableSet.of("fluxToFlowable", "monoToMaybe", "monoToSingle");
+
+  /** Instantiates the default {@link MigrationIndexPlugin}. */
+  public MigrationIndexPlugin() {}
+
+  @Override
+  public String getName() {
+    return "MigrationIndex";
+  }
+
+  @Override
+  public void init(JavacTask task, String... args) {
+    Trees trees = Trees.instance(task);
+    Elements elements = task.getElements();
+    Types types = task.getTypes();
+    JavaFileManager fileManager =
+        ((BasicJavacTask) task).getContext().get(JavaFileManager.class);
+    Map<String, String> siblings = new TreeMap<>();
+    Set<String> compiledClasses = new HashSet<>();
+
+    task.addTaskListener(
+        new TaskListener() {
+          @Override
+          public void finished(TaskEvent e) {
+            if (e.getKind() == TaskEvent.Kind.ANALYZE) {
+              index(e.getCompilationUnit(), trees, elements, types, siblings, compiledClasses);
+            } else if (e.getKind() == TaskEvent.Kind.COMPILATION) {
+              try {
+                MigrationIndex.write(fileManager, merge(fileManager, siblings, compiledClasses));
+              } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to write the migration index", ex);
+              }
+            }
+          }
+        });
+  }
+
+  /**
+   * Merges the given entries of the classes compiled by this compilation with the index written by
+   * a previous compilation of the same module, such that incremental compilations do not lose the
+   * entries of classes they do not recompile. Entries of recompiled classes and of classes whose
+   * class file no longer exists are dropped from the previous index.
+   */
+  private static Map<String, String> merge(
+      JavaFileManager fileManager, Map<String, String> siblings, Set<String> compiledClasses)
+      throws IOException {
+    Map<String, String> merged = new TreeMap<>(siblings);
+    for (Map.Entry<String, String> entry : MigrationIndex.readOutput(fileManager).entrySet()) {
+      String owner = MigrationIndex.owner(entry.getKey());
+      if (!compiledClasses.contains(owner)
+          && fileManager.getJavaFileForInput(
+                  StandardLocation.CLASS_OUTPUT, owner, JavaFileObject.Kind.CLASS)
+              != null) {
+        merged.putIfAbsent(entry.getKey(), entry.getValue());
+      }
+    }
+    return merged;
+  }
+
+  private static void index(
+      CompilationUnitTree compilationUnit,
+      Trees trees,
+      Elements elements,
+      Types types,
+      Map<String, String> siblings,
+      Set<String> compiledClasses) {
+    new TreePathScanner<Void, Void>() {
+      @Override
+      public Void visitClass(ClassTree node, Void unused) {
+        Element element = trees.getElement(getCurrentPath());
+        if (element instanceof TypeElement) {
+          compiledClasses.add(elements.getBinaryName((TypeElement) element).toString());
+        }
+        return super.visitClass(node, unused);
+      }
+
+      @Override
+      public Void visitMethod(MethodTree node, Void unused) {
+        Element element = trees.getElement(getCurrentPath());
+        if (element instanceof ExecutableElement
+            && element.getModifiers().contains(Modifier.PUBLIC)
+            && MigrationIndex.cannotBeOverridden((ExecutableElement) element)) {
+          ExecutableElement method = (ExecutableElement) element;
+          reactorSibling(node, method, getCurrentPath(), trees)
+              .ifPresent(
+                  sibling ->
+                      siblings.put(
+                          MigrationIndex.key(
+                              elements
+                                  .getBinaryName((TypeElement) method.getEnclosingElement())
+                                  .toString(),
+                              method.getSimpleName().toString(),
+                              method.getParameters().stream()
+                                  .map(p -> types.erasure(p.asType()).toString())
+                                  .collect(toImmutableList())),
+                          sibling));
+        }
+        return null;
+      }
+    }.scan(compilationUnit, null);
+  }
+
+  private static Optional<String> reactorSibling(
+      MethodTree tree, ExecutableElement method, TreePath path, Trees trees) {
+    if (tree.getBody() == null || tree.getBody().getStatements().size() != 1) {
+      return Optional.empty();
+    }
+
+    StatementTree statement = tree.getBody().getStatements().get(0);
+    if (!(statement instanceof ReturnTree)
+        || !(((ReturnTree) statement).getExpression() instanceof MethodInvocationTree)) {
+      return Optional.empty();
+    }
+
+    MethodInvocationTree adapterCall =
+        (MethodInvocationTree) ((ReturnTree) statement).getExpression();
+    Element adapter = trees.getElement(TreePath.getPath(path, adapterCall));
+    if (adapter == null
+        || !TO_RX_JAVA_ADAPTERS.contains(adapter.getSimpleName().toString())
+        || !((TypeElement) adapter.getEnclosingElement())
+            .getQualifiedName()
+            .contentEquals(RX_JAVA_2_ADAPTER)
+        || adapterCall.getArguments().size() != 1
+        || !(adapterCall.getArguments().get(0) instanceof MethodInvocationTree)) {
+      return Optional.empty();
+    }
+
+    MethodInvocationTree delegateCall = (MethodInvocationTree) adapterCall.getArguments().get(0);
+    Element delegate = trees.getElement(TreePath.getPath(path, delegateCall));
+    if (delegate == null
+        || !delegate.getEnclosingElement().equals(method.getEnclosingElement())
+        || delegate.getSimpleName().equals(method.getSimpleName())
+        || !delegate.getModifiers().contains(Modifier.PUBLIC)
+        || !passesOwnParameters(delegateCall.getArguments(), method, path, trees)) {
+      return Optional.empty();
+    }
+
+    return Optional.of(delegate.getSimpleName().toString());
+  }
+
+  private static boolean passesOwnParameters(
+      List<? extends ExpressionTree> arguments,
+      ExecutableElement method,
+      TreePath path,
+      Trees trees) {
+    if (arguments.size() != method.getParameters().size()) {
+      return false;
+    }
+
+    for (int i = 0; i < arguments.size(); i++) {
+      ExpressionTree argument = arguments.get(i);
+      if (!(argument instanceof IdentifierTree)
+          || !method
+              .getParameters()
+              .get(i)
+              .equals(trees.getElement(TreePath.getPath(path, argument)))) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
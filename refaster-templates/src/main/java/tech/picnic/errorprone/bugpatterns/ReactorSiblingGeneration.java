@@ -0,0 +1,266 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.errorprone.BugPattern.LinkType.NONE;
+import static com.google.errorprone.BugPattern.SeverityLevel.SUGGESTION;
+import static com.google.errorprone.BugPattern.StandardTags.REFACTORING;
+import static com.google.errorprone.matchers.method.MethodMatchers.staticMethod;
+import static java.util.stream.Collectors.joining;
+
+import com.google.auto.service.AutoService;
+import com.google.common.collect.ImmutableSet;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.MethodTreeMatcher;
+import com.google.errorprone.fixes.SuggestedFix;
+import com.google.errorprone.fixes.SuggestedFixes;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.AnnotationTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.ParameterizedTypeTree;
+import com.sun.source.tree.ReturnTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.code.Symbol.MethodSymbol;
+import com.sun.tools.javac.code.Type;
+import com.sun.tools.javac.code.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import javax.lang.model.element.Modifier;
+
+/**
+ * A {@link BugChecker} that splits a public RxJava-returning method into a Reactor-returning
+ * sibling holding the migrated body, and the original method delegating to it through a single
+ * {@code RxJava2Adapter} conversion.
+ *
+ * <p>For example, a method {@code Single<T> foo()} whose return statements are all of the form
+ * {@code return RxJava2Adapter.monoToSingle(...);} gains a sibling {@code Mono<T> fooMono()}, while
+ * {@code foo} becomes {@code return RxJava2Adapter.monoToSingle(fooMono());}. This keeps the public
+ * API intact for external consumers, while migrated callers can call {@code fooMono} directly. The
+ * resulting delegation is recognized by {@link MigrationIndexPlugin}, so that {@link
+ * CrossModuleAdapterElimination} can rewrite such callers in downstream modules.
+ *
+ * <p>Of the annotations of the original method, the sibling only carries the nullness
+ * annotations, {@code @Deprecated} and {@code @SuppressWarnings}. Other annotations, such as
+ * {@code @GetMapping}, {@code @Bean}, {@code @Scheduled} or {@code @EventListener}, would register
+ * the sibling with a framework alongside the original method, and thus remain on the original
+ * method only. Like
+ * {@link MigrationIndex}, this check only considers methods that {@link
+ * MigrationIndex#cannotBeOverridden cannot be overridden}: an override of the original method in a
+ * subclass would otherwise be bypassed by callers of the sibling.
+ */
+@AutoService(BugChecker.class)
+@BugPattern(
+    name = "ReactorSiblingGeneration",
+    summary = "Move the migrated body of this method into a Reactor-returning sibling",
+    linkType = NONE,
+    severity = SUGGESTION,
+    tags = REFACTORING)
+public final class ReactorSiblingGeneration extends BugChecker implements MethodTreeMatcher {
+  private static final long serialVersionUID = 1L;
+  private static final String RX_JAVA_2_ADAPTER = "reactor.adapter.rxjava.RxJava2Adapter";
+  private static final ImmutableSet<String> COPIED_ANNOTATIONS =
+      ImmutableSet.of(
+          "CheckForNull",
+          "Deprecated",
+          "NonNull",
+          "Nonnull",
+          "NotNull",
+          "Nullable",
+          "SuppressWarnings");
+
+  /** Instantiates the default {@link ReactorSiblingGeneration}. */
+  public ReactorSiblingGeneration() {}
+
+  @Override
+  public Description matchMethod(MethodTree tree, VisitorState state) {
+    MethodSymbol symbol = ASTHelpers.getSymbol(tree);
+    Optional<Kind> kind = Kind.of(tree.getReturnType(), state);
+    if (symbol == null
+        || kind.isEmpty()
+        || tree.getBody() == null
+        || !symbol.getModifiers().contains(Modifier.PUBLIC)
+        || symbol.owner.isInterface()
+        || !MigrationIndex.cannotBeOverridden(symbol)) {
+      return Description.NO_MATCH;
+    }
+
+    String siblingName = tree.getName() + kind.get().siblingSuffix;
+    if (declaresSibling(symbol, siblingName, state)) {
+      return Description.NO_MATCH;
+    }
+
+    List<MethodInvocationTree> returned = returnedAdapterCalls(tree, kind.get(), state);
+    if (returned.isEmpty()) {
+      return Description.NO_MATCH;
+    }
+
+    SuggestedFix.Builder fix = SuggestedFix.builder();
+    String adapter = SuggestedFixes.qualifyType(state, fix, RX_JAVA_2_ADAPTER);
+    String reactorType = SuggestedFixes.qualifyType(state, fix, kind.get().reactorType);
+    String arguments =
+        tree.getParameters().stream().map(p -> p.getName().toString()).collect(joining(", "));
+
+    fix.replace(
+        tree.getBody(),
+        String.format(
+            "{ return %s.%s(%s(%s)); }",
+            adapter, kind.get().toRxJavaName, siblingName, arguments));
+    fix.postfixWith(tree, "\n\n" + sibling(tree, siblingName, reactorType, returned, state));
+
+    return describeMatch(tree, fix.build());
+  }
+
+  private static String sibling(
+      MethodTree tree,
+      String name,
+      String reactorType,
+      List<MethodInvocationTree> returned,
+      VisitorState state) {
+    StringBuilder declaration = new StringBuilder();
+    for (AnnotationTree annotation : tree.getModifiers().getAnnotations()) {
+      Type type = ASTHelpers.getType(annotation);
+      if (type != null && COPIED_ANNOTATIONS.contains(type.tsym.getSimpleName().toString())) {
+        declaration.append(state.getSourceForNode(annotation)).append('\n');
+      }
+    }
+    tree.getModifiers().getFlags().stream()
+        .sorted()
+        .forEach(modifier -> declaration.append(modifier).append(' '));
+    if (!tree.getTypeParameters().isEmpty()) {
+      declaration.append(
+          tree.getTypeParameters().stream()
+              .map(state::getSourceForNode)
+              .collect(joining(", ", "<", "> ")));
+    }
+    declaration
+        .append(reactorType)
+        .append(
+            ((ParameterizedTypeTree) tree.getReturnType())
+                .getTypeArguments().stream()
+                    .map(state::getSourceForNode)
+                    .collect(joining(", ", "<", ">")))
+        .append(' ')
+        .append(name)
+        .append(
+            tree.getParameters().stream()
+                .map(state::getSourceForNode)
+                .collect(joining(", ", "(", ")")));
+    if (!tree.getThrows().isEmpty()) {
+      declaration.append(
+          tree.getThrows().stream()
+              .map(state::getSourceForNode)
+              .collect(joining(", ", " throws ", "")));
+    }
+
+    return declaration.append(' ').append(unwrappedBody(tree, returned, state)).toString();
+  }
+
+  /**
+   * Returns the source of the method body in which each of the given adapter invocations, listed in
+   * source order, is replaced with its argument.
+   */
+  private static String unwrappedBody(
+      MethodTree tree, List<MethodInvocationTree> returned, VisitorState state) {
+    CharSequence source = state.getSourceCode();
+    int position = ASTHelpers.getStartPosition(tree.getBody());
+    StringBuilder body = new StringBuilder();
+    for (MethodInvocationTree adapterCall : returned) {
+      ExpressionTree argument = adapterCall.getArguments().get(0);
+      body.append(source, position, ASTHelpers.getStartPosition(adapterCall))
+          .append(source, ASTHelpers.getStartPosition(argument), state.getEndPosition(argument));
+      position = state.getEndPosition(adapterCall);
+    }
+    return body.append(source, position, state.getEndPosition(tree.getBody())).toString();
+  }
+
+  /**
+   * Returns the adapter invocations returned by the given method, or an empty list if not all of
+   * its return statements return such an invocation.
+   */
+  private static List<MethodInvocationTree> returnedAdapterCalls(
+      MethodTree tree, Kind kind, VisitorState state) {
+    List<ExpressionTree> returned = new ArrayList<>();
+    new TreeScanner<Void, Void>() {
+      @Override
+      public Void visitReturn(ReturnTree node, Void unused) {
+        returned.add(node.getExpression());
+        return null;
+      }
+
+      @Override
+      public Void visitLambdaExpression(LambdaExpressionTree node, Void unused) {
+        return null;
+      }
+
+      @Override
+      public Void visitClass(ClassTree node, Void unused) {
+        return null;
+      }
+    }.scan(tree.getBody(), null);
+
+    List<MethodInvocationTree> adapterCalls = new ArrayList<>();
+    for (ExpressionTree expression : returned) {
+      if (expression == null || !kind.toRxJava.matches(expression, state)) {
+        return List.of();
+      }
+      adapterCalls.add((MethodInvocationTree) expression);
+    }
+    return adapterCalls;
+  }
+
+  /**
+   * Tells whether the class declaring the given method already declares a method with the given
+   * name and the same erased parameter types, i.e. a method with the signature of its sibling.
+   */
+  private static boolean declaresSibling(MethodSymbol symbol, String name, VisitorState state) {
+    Types types = state.getTypes();
+    return symbol.owner.getEnclosedElements().stream()
+        .anyMatch(
+            member ->
+                member instanceof MethodSymbol
+                    && member.getSimpleName().contentEquals(name)
+                    && types.isSameTypes(
+                        types.erasure(((MethodSymbol) member).type.getParameterTypes()),
+                        types.erasure(symbol.type.getParameterTypes())));
+  }
+
+  /** The RxJava types for which a sibling is generated, along with their Reactor counterparts. */
+  private enum Kind {
+    FLOWABLE("io.reactivex.Flowable", "reactor.core.publisher.Flux", "fluxToFlowable", "Flux"),
+    MAYBE("io.reactivex.Maybe", "reactor.core.publisher.Mono", "monoToMaybe", "Mono"),
+    SINGLE("io.reactivex.Single", "reactor.core.publisher.Mono", "monoToSingle", "Mono");
+
+    private final String rxJavaType;
+    private final String reactorType;
+    private final String toRxJavaName;
+    private final String siblingSuffix;
+    private final Matcher<ExpressionTree> toRxJava;
+
+    Kind(String rxJavaType, String reactorType, String toRxJavaName, String siblingSuffix) {
+      this.rxJavaType = rxJavaType;
+      this.reactorType = reactorType;
+      this.toRxJavaName = toRxJavaName;
+      this.siblingSuffix = siblingSuffix;
+      this.toRxJava = staticMethod().onClass(RX_JAVA_2_ADAPTER).named(toRxJavaName);
+    }
+
+    static Optional<Kind> of(Tree typeTree, VisitorState state) {
+      Type type = ASTHelpers.getType(typeTree);
+      if (!(typeTree instanceof ParameterizedTypeTree) || type == null) {
+        return Optional.empty();
+      }
+
+      String name = state.getTypes().erasure(type).tsym.getQualifiedName().toString();
+      return Arrays.stream(values()).filter(kind -> kind.rxJavaType.equals(name)).findFirst();
+    }
+  }
+}
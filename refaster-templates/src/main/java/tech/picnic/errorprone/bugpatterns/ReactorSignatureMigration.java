@@ -0,0 +1,322 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.errorprone.BugPattern.LinkType.NONE;
+import static com.google.errorprone.BugPattern.SeverityLevel.SUGGESTION;
+import static com.google.errorprone.BugPattern.StandardTags.REFACTORING;
+import static com.google.errorprone.matchers.method.MethodMatchers.staticMethod;
+
+import com.google.auto.service.AutoService;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ListMultimap;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.CompilationUnitTreeMatcher;
+import com.google.errorprone.fixes.SuggestedFix;
+import com.google.errorprone.fixes.SuggestedFixes;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.MemberReferenceTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.ParameterizedTypeTree;
+import com.sun.source.tree.ReturnTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreePathScanner;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symbol.MethodSymbol;
+import com.sun.tools.javac.code.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+
+/**
+ * A {@link BugChecker} that changes the signature of private methods from RxJava to Reactor types
+ * when the method body and all its callers only cross the RxJava/Reactor boundary to satisfy that
+ * signature.
+ *
+ * <p>After the Refaster templates have been applied, a method declared to return {@code Single<T>}
+ * typically ends in {@code RxJava2Adapter.monoToSingle(...)}, while its callers immediately apply
+ * {@code RxJava2Adapter.singleToMono(...)}. This check drops both crossings by declaring the method
+ * to return {@code Mono<T>} instead. Parameters that are only ever converted to Reactor types are
+ * migrated likewise. Call sites that do not convert the result are given an explicit adapter
+ * call, so that their behavior does not change.
+ *
+ * <p>Only private methods are considered, because only for those all call sites are guaranteed
+ * to be part of the compilation unit under inspection.
+ */
+@AutoService(BugChecker.class)
+@BugPattern(
+    name = "ReactorSignatureMigration",
+    summary = "Migrate the signature of this private method to Reactor types",
+    linkType = NONE,
+    severity = SUGGESTION,
+    tags = REFACTORING)
+public final class ReactorSignatureMigration extends BugChecker
+    implements CompilationUnitTreeMatcher {
+  private static final long serialVersionUID = 1L;
+  private static final String RX_JAVA_2_ADAPTER = "reactor.adapter.rxjava.RxJava2Adapter";
+
+  /** Instantiates the default {@link ReactorSignatureMigration}. */
+  public ReactorSignatureMigration() {}
+
+  @Override
+  public Description matchCompilationUnit(CompilationUnitTree tree, VisitorState state) {
+    Usages usages = Usages.collect(state.getPath());
+    for (MethodTree method : usages.candidates) {
+      migrate(method, usages, state);
+    }
+
+    return Description.NO_MATCH;
+  }
+
+  private void migrate(MethodTree method, Usages usages, VisitorState state) {
+    MethodSymbol symbol = ASTHelpers.getSymbol(method);
+    if (symbol == null || usages.referenced.contains(symbol)) {
+      return;
+    }
+
+    SuggestedFix.Builder fix = SuggestedFix.builder();
+    Optional<Kind> returnKind = migrateReturnType(method, fix, state);
+    ImmutableList<Optional<Kind>> parameterKinds =
+        method.getParameters().stream()
+            .map(parameter -> migrateParameter(parameter, usages, fix, state))
+            .collect(toImmutableList());
+    if (returnKind.isEmpty() && parameterKinds.stream().noneMatch(Optional::isPresent)) {
+      return;
+    }
+
+    for (TreePath call : usages.invocations.get(symbol)) {
+      MethodInvocationTree invocation = (MethodInvocationTree) call.getLeaf();
+      returnKind.ifPresent(kind -> adaptResult(call, kind, fix, state));
+      for (int i = 0; i < parameterKinds.size(); i++) {
+        ExpressionTree argument = invocation.getArguments().get(i);
+        parameterKinds.get(i).ifPresent(kind -> adaptArgument(argument, kind, fix, state));
+      }
+    }
+
+    state.reportMatch(describeMatch(method, fix.build()));
+  }
+
+  /**
+   * Migrates the return type of the given method, provided that each of its return statements
+   * converts a Reactor type to the declared RxJava type.
+   */
+  private static Optional<Kind> migrateReturnType(
+      MethodTree method, SuggestedFix.Builder fix, VisitorState state) {
+    Optional<Kind> kind = Kind.of(method.getReturnType(), state);
+    if (kind.isEmpty() || method.getBody() == null) {
+      return Optional.empty();
+    }
+
+    List<ExpressionTree> returned = new ArrayList<>();
+    new TreeScanner<Void, Void>() {
+      @Override
+      public Void visitReturn(ReturnTree node, Void unused) {
+        returned.add(node.getExpression());
+        return null;
+      }
+
+      @Override
+      public Void visitLambdaExpression(LambdaExpressionTree node, Void unused) {
+        return null;
+      }
+
+      @Override
+      public Void visitClass(ClassTree node, Void unused) {
+        return null;
+      }
+    }.scan(method.getBody(), null);
+
+    if (returned.isEmpty()
+        || !returned.stream().allMatch(e -> e != null && kind.get().toRxJava.matches(e, state))) {
+      return Optional.empty();
+    }
+
+    replaceType(method.getReturnType(), kind.get(), fix, state);
+    returned.forEach(e -> unwrap((MethodInvocationTree) e, fix, state));
+    return kind;
+  }
+
+  /**
+   * Migrates the type of the given parameter, provided that each of its usages converts it to the
+   * corresponding Reactor type.
+   */
+  private static Optional<Kind> migrateParameter(
+      VariableTree parameter, Usages usages, SuggestedFix.Builder fix, VisitorState state) {
+    Optional<Kind> kind = Kind.of(parameter.getType(), state);
+    if (kind.isEmpty()) {
+      return Optional.empty();
+    }
+
+    List<TreePath> uses = usages.identifiers.get(ASTHelpers.getSymbol(parameter));
+    if (uses.isEmpty()
+        || !uses.stream()
+            .map(use -> use.getParentPath().getLeaf())
+            .allMatch(
+                parent ->
+                    parent instanceof MethodInvocationTree
+                        && kind.get().toReactor.matches((ExpressionTree) parent, state))) {
+      return Optional.empty();
+    }
+
+    replaceType(parameter.getType(), kind.get(), fix, state);
+    uses.forEach(use -> unwrap((MethodInvocationTree) use.getParentPath().getLeaf(), fix, state));
+    return kind;
+  }
+
+  /**
+   * Adapts a call site of a method whose return type is migrated, by either dropping the enclosing
+   * conversion to Reactor or by converting the result back to the original RxJava type.
+   */
+  private static void adaptResult(
+      TreePath call, Kind kind, SuggestedFix.Builder fix, VisitorState state) {
+    Tree parent = call.getParentPath().getLeaf();
+    if (parent instanceof MethodInvocationTree
+        && kind.toReactor.matches((ExpressionTree) parent, state)) {
+      unwrap((MethodInvocationTree) parent, fix, state);
+    } else {
+      wrap(call.getLeaf(), kind.toRxJavaName, fix, state);
+    }
+  }
+
+  /**
+   * Adapts an argument passed to a migrated parameter, by either dropping its conversion to RxJava
+   * or by converting it to the corresponding Reactor type.
+   */
+  private static void adaptArgument(
+      ExpressionTree argument, Kind kind, SuggestedFix.Builder fix, VisitorState state) {
+    if (kind.toRxJava.matches(argument, state)) {
+      unwrap((MethodInvocationTree) argument, fix, state);
+    } else {
+      wrap(argument, kind.toReactorName, fix, state);
+    }
+  }
+
+  private static void wrap(
+      Tree tree, String adapterMethod, SuggestedFix.Builder fix, VisitorState state) {
+    String adapter = SuggestedFixes.qualifyType(state, fix, RX_JAVA_2_ADAPTER);
+    fix.prefixWith(tree, adapter + '.' + adapterMethod + '(').postfixWith(tree, ")");
+  }
+
+  /**
+   * Replaces the given single-argument adapter invocation with its argument, without touching the
+   * argument itself so that nested replacements do not overlap.
+   */
+  private static void unwrap(
+      MethodInvocationTree adapterCall, SuggestedFix.Builder fix, VisitorState state) {
+    ExpressionTree argument = adapterCall.getArguments().get(0);
+    fix.replace(ASTHelpers.getStartPosition(adapterCall), ASTHelpers.getStartPosition(argument), "")
+        .replace(state.getEndPosition(argument), state.getEndPosition(adapterCall), "");
+  }
+
+  private static void replaceType(
+      Tree typeTree, Kind kind, SuggestedFix.Builder fix, VisitorState state) {
+    fix.replace(
+        ((ParameterizedTypeTree) typeTree).getType(),
+        SuggestedFixes.qualifyType(state, fix, kind.reactorType));
+  }
+
+  /** The RxJava types that this check migrates, along with their Reactor counterparts. */
+  private enum Kind {
+    FLOWABLE(
+        "io.reactivex.Flowable", "reactor.core.publisher.Flux", "fluxToFlowable", "flowableToFlux"),
+    MAYBE("io.reactivex.Maybe", "reactor.core.publisher.Mono", "monoToMaybe", "maybeToMono"),
+    SINGLE("io.reactivex.Single", "reactor.core.publisher.Mono", "monoToSingle", "singleToMono");
+
+    private final String rxJavaType;
+    private final String reactorType;
+    private final String toRxJavaName;
+    private final String toReactorName;
+    private final Matcher<ExpressionTree> toRxJava;
+    private final Matcher<ExpressionTree> toReactor;
+
+    Kind(String rxJavaType, String reactorType, String toRxJavaName, String toReactorName) {
+      this.rxJavaType = rxJavaType;
+      this.reactorType = reactorType;
+      this.toRxJavaName = toRxJavaName;
+      this.toReactorName = toReactorName;
+      this.toRxJava = staticMethod().onClass(RX_JAVA_2_ADAPTER).named(toRxJavaName);
+      this.toReactor = staticMethod().onClass(RX_JAVA_2_ADAPTER).named(toReactorName);
+    }
+
+    static Optional<Kind> of(Tree typeTree, VisitorState state) {
+      Type type = ASTHelpers.getType(typeTree);
+      if (!(typeTree instanceof ParameterizedTypeTree) || type == null) {
+        return Optional.empty();
+      }
+
+      String name = state.getTypes().erasure(type).tsym.getQualifiedName().toString();
+      return Arrays.stream(values()).filter(kind -> kind.rxJavaType.equals(name)).findFirst();
+    }
+  }
+
+  /** The declarations and usages in a compilation unit that are relevant to this check. */
+  private static final class Usages {
+    private final List<MethodTree> candidates = new ArrayList<>();
+    private final Set<Symbol> referenced = new HashSet<>();
+    private final ListMultimap<Symbol, TreePath> invocations = ArrayListMultimap.create();
+    private final ListMultimap<Symbol, TreePath> identifiers = ArrayListMultimap.create();
+
+    static Usages collect(TreePath compilationUnit) {
+      Usages usages = new Usages();
+      new TreePathScanner<Void, Void>() {
+        @Override
+        public Void visitMethod(MethodTree node, Void unused) {
+          MethodSymbol symbol = ASTHelpers.getSymbol(node);
+          if (symbol != null
+              && symbol.getKind() == ElementKind.METHOD
+              && symbol.getModifiers().contains(Modifier.PRIVATE)
+              && !symbol.isVarArgs()) {
+            usages.candidates.add(node);
+          }
+          return super.visitMethod(node, unused);
+        }
+
+        @Override
+        public Void visitMethodInvocation(MethodInvocationTree node, Void unused) {
+          Symbol symbol = ASTHelpers.getSymbol(node);
+          if (symbol != null) {
+            usages.invocations.put(symbol, getCurrentPath());
+          }
+          return super.visitMethodInvocation(node, unused);
+        }
+
+        @Override
+        public Void visitMemberReference(MemberReferenceTree node, Void unused) {
+          Symbol symbol = ASTHelpers.getSymbol(node);
+          if (symbol != null) {
+            usages.referenced.add(symbol);
+          }
+          return super.visitMemberReference(node, unused);
+        }
+
+        @Override
+        public Void visitIdentifier(IdentifierTree node, Void unused) {
+          Symbol symbol = ASTHelpers.getSymbol(node);
+          if (symbol != null && symbol.getKind() == ElementKind.PARAMETER) {
+            usages.identifiers.put(symbol, getCurrentPath());
+          }
+          return super.visitIdentifier(node, unused);
+        }
+      }.scan(compilationUnit, null);
+      return usages;
+    }
+  }
+}
@@ -0,0 +1,238 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.errorprone.BugPattern.LinkType.NONE;
+import static com.google.errorprone.BugPattern.SeverityLevel.SUGGESTION;
+import static com.google.errorprone.BugPattern.StandardTags.SIMPLIFICATION;
+import static com.google.errorprone.matchers.method.MethodMatchers.staticMethod;
+
+import com.google.auto.service.AutoService;
+import com.google.common.collect.ImmutableMap;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.fixes.SuggestedFix;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.AssignmentTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.MemberReferenceTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.NewClassTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreePath;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symbol.MethodSymbol;
+import com.sun.tools.javac.code.Type;
+import com.sun.tools.javac.code.Types;
+import java.util.Collection;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link BugChecker} that removes {@code RxJavaReactorMigrationUtil} conversions of functional
+ * interfaces to their JDK counterparts where these conversions are not necessary.
+ *
+ * <p>This is the stock Error Prone counterpart of the wrapper removal templates in {@code
+ * RxJavaToReactorTemplates} that rely on {@code @CanTransformToTargetType}, which is only supported
+ * by a fork of Error Prone. A conversion such as {@code toJdkFunction(x -> x + 1)} is replaced with
+ * its argument if either:
+ *
+ * <ul>
+ *   <li>the argument is a lambda expression or method reference that does not throw checked
+ *       exceptions, in which case it can be typed as the JDK interface directly; or
+ *   <li>the argument already implements the JDK interface, as do the {@code Dual*} interfaces of
+ *       the migration utilities.
+ * </ul>
+ *
+ * <p>Moreover, the conversion must be passed to a parameter of the JDK interface type, without
+ * another overload of the invoked method also accepting the argument, or be assigned to a variable
+ * of that type. Either way the per-invocation {@code try}/{@code catch} of the conversion is
+ * dropped.
+ */
+@AutoService(BugChecker.class)
+@BugPattern(
+    name = "UnnecessaryJdkConversion",
+    summary = "This conversion to a JDK functional interface is unnecessary",
+    linkType = NONE,
+    severity = SUGGESTION,
+    tags = SIMPLIFICATION)
+public final class UnnecessaryJdkConversion extends BugChecker
+    implements MethodInvocationTreeMatcher {
+  private static final long serialVersionUID = 1L;
+  private static final ImmutableMap<String, String> TARGET_TYPES =
+      ImmutableMap.<String, String>builder()
+          .put("callableAsSupplier", "java.util.function.Supplier")
+          .put("toJdkBiFunction", "java.util.function.BiFunction")
+          .put("toJdkConsumer", "java.util.function.Consumer")
+          .put("toJdkFunction", "java.util.function.Function")
+          .put("toJdkPredicate", "java.util.function.Predicate")
+          .put("toRunnable", "java.lang.Runnable")
+          .build();
+  private static final Matcher<ExpressionTree> CONVERSION =
+      staticMethod()
+          .onClass("tech.picnic.errorprone.migration.util.RxJavaReactorMigrationUtil")
+          .namedAnyOf(TARGET_TYPES.keySet());
+
+  /** Instantiates the default {@link UnnecessaryJdkConversion}. */
+  public UnnecessaryJdkConversion() {}
+
+  @Override
+  public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+    if (!CONVERSION.matches(tree, state) || tree.getArguments().size() != 1) {
+      return Description.NO_MATCH;
+    }
+
+    ExpressionTree argument = tree.getArguments().get(0);
+    String conversion = ASTHelpers.getSymbol(tree).getSimpleName().toString();
+    Type targetType = state.getTypeFromString(TARGET_TYPES.get(conversion));
+    if (targetType == null
+        || !(implementsTargetType(argument, targetType, state)
+            || throwsNoCheckedExceptions(argument, state))
+        || !isRequiredAsTargetType(state.getPath(), argument, targetType, state)) {
+      return Description.NO_MATCH;
+    }
+
+    return describeMatch(tree, SuggestedFix.replace(tree, state.getSourceForNode(argument)));
+  }
+
+  /**
+   * Tells whether the conversion at the given path is used where exactly the JDK interface is
+   * expected, i.e. as an argument to a parameter of that type or as the value assigned to a
+   * variable of that type, such that its argument can take its place without changing the meaning
+   * of the surrounding code. Elsewhere, e.g. when the conversion is the receiver of {@code
+   * andThen} or is assigned to an {@code Object}, a lambda expression would not compile and
+   * another argument would change the type of the expression.
+   */
+  private static boolean isRequiredAsTargetType(
+      TreePath path, ExpressionTree argument, Type targetType, VisitorState state) {
+    Tree conversion = path.getLeaf();
+    Tree parent = path.getParentPath().getLeaf();
+    if (parent instanceof VariableTree) {
+      VariableTree variable = (VariableTree) parent;
+      return conversion.equals(variable.getInitializer())
+          && !ASTHelpers.hasNoExplicitType(variable, state)
+          && isErasedTargetType(ASTHelpers.getType(variable), targetType, state);
+    }
+
+    if (parent instanceof AssignmentTree) {
+      AssignmentTree assignment = (AssignmentTree) parent;
+      return conversion.equals(assignment.getExpression())
+          && isErasedTargetType(ASTHelpers.getType(assignment.getVariable()), targetType, state);
+    }
+
+    if (parent instanceof MethodInvocationTree || parent instanceof NewClassTree) {
+      List<? extends ExpressionTree> arguments =
+          parent instanceof MethodInvocationTree
+              ? ((MethodInvocationTree) parent).getArguments()
+              : ((NewClassTree) parent).getArguments();
+      Symbol callee = ASTHelpers.getSymbol(parent);
+      int index = arguments.indexOf(conversion);
+      return callee instanceof MethodSymbol
+          && index >= 0
+          && !((MethodSymbol) callee).isVarArgs()
+          && isErasedTargetType(
+              ((MethodSymbol) callee).getParameters().get(index).type, targetType, state)
+          && !hasConflictingOverload((MethodSymbol) callee, index, argument, state);
+    }
+
+    return false;
+  }
+
+  /**
+   * Tells whether another method of the callee's name and arity accepts a different type at the
+   * given position that the argument would also be compatible with. Passing the argument directly
+   * could then make the invocation ambiguous or select the other method.
+   */
+  private static boolean hasConflictingOverload(
+      MethodSymbol callee, int index, ExpressionTree argument, VisitorState state) {
+    Types types = state.getTypes();
+    Type parameterType = types.erasure(callee.getParameters().get(index).type);
+    Type argumentType = ASTHelpers.getType(argument);
+    boolean isFunctionalExpression =
+        argument instanceof LambdaExpressionTree || argument instanceof MemberReferenceTree;
+    Iterable<Symbol> members =
+        types.membersClosure(callee.owner.type, /* skipInterface= */ false)
+            .getSymbolsByName(callee.name);
+    for (Symbol member : members) {
+      if (!(member instanceof MethodSymbol) || member.equals(callee)) {
+        continue;
+      }
+
+      MethodSymbol overload = (MethodSymbol) member;
+      if (overload.isVarArgs()) {
+        return true;
+      }
+      if (overload.getParameters().size() != callee.getParameters().size()) {
+        continue;
+      }
+
+      Type otherType = types.erasure(overload.getParameters().get(index).type);
+      if (!types.isSameType(otherType, parameterType)
+          && (isFunctionalExpression
+              ? isPotentiallyCompatible(argument, otherType, types)
+              : argumentType != null && types.isSubtype(types.erasure(argumentType), otherType))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Tells whether the given lambda expression or method reference may be compatible with the given
+   * type. Only the arity of lambda expressions is taken into account; method references are
+   * conservatively assumed to be compatible with any functional interface.
+   */
+  private static boolean isPotentiallyCompatible(
+      ExpressionTree argument, Type type, Types types) {
+    if (!types.isFunctionalInterface(type)) {
+      return false;
+    }
+
+    return !(argument instanceof LambdaExpressionTree)
+        || types.findDescriptorType(type).getParameterTypes().size()
+            == ((LambdaExpressionTree) argument).getParameters().size();
+  }
+
+  private static boolean isErasedTargetType(
+      @Nullable Type type, Type targetType, VisitorState state) {
+    Types types = state.getTypes();
+    return type != null && types.isSameType(types.erasure(type), types.erasure(targetType));
+  }
+
+  private static boolean implementsTargetType(
+      ExpressionTree argument, Type targetType, VisitorState state) {
+    Type type = ASTHelpers.getType(argument);
+    return type != null && ASTHelpers.isSubtype(type, targetType, state);
+  }
+
+  /**
+   * Tells whether the given argument is a lambda expression or method reference that throws no
+   * checked exceptions, and can thus be retargeted to the JDK interface.
+   */
+  private static boolean throwsNoCheckedExceptions(ExpressionTree argument, VisitorState state) {
+    if (argument instanceof LambdaExpressionTree) {
+      return !anyChecked(
+          ASTHelpers.getThrownExceptions(((LambdaExpressionTree) argument).getBody(), state),
+          state);
+    }
+
+    if (argument instanceof MemberReferenceTree) {
+      Symbol symbol = ASTHelpers.getSymbol(argument);
+      return symbol != null && !anyChecked(symbol.type.getThrownTypes(), state);
+    }
+
+    return false;
+  }
+
+  private static boolean anyChecked(Collection<Type> exceptionTypes, VisitorState state) {
+    return exceptionTypes.stream()
+        .anyMatch(
+            type ->
+                !ASTHelpers.isSubtype(type, state.getSymtab().runtimeExceptionType, state)
+                    && !ASTHelpers.isSubtype(type, state.getSymtab().errorType, state));
+  }
+}
@@ -0,0 +1,60 @@
+package tech.picnic.errorprone.refaster;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.CodeTransformer;
+import com.google.errorprone.refaster.CompositeCodeTransformer;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import tech.picnic.errorprone.migration.driver.TemplateBundles;
+
+/**
+ * Composes the compiled Refaster template bundles of individual template classes into a single
+ * bundle.
+ *
+ * <p>Error Prone's {@code RefasterRuleCompiler} writes the rules of each top-level class it
+ * compiles to the same output file, such that a bundle compiled from multiple template classes at
+ * once only contains the rules of the last of them. The aggregate bundle is therefore composed
+ * from the bundles of the individual template classes instead.
+ */
+public final class TemplateBundleAggregator {
+  private TemplateBundleAggregator() {}
+
+  /**
+   * Composes the given bundles into a single bundle.
+   *
+   * @param args The path of the bundle to write, followed by the paths of the bundles to compose.
+   * @throws IOException If a bundle cannot be read or written.
+   */
+  public static void main(String[] args) throws IOException {
+    checkArgument(args.length >= 2, "Usage: TemplateBundleAggregator <output> <bundle>...");
+    aggregate(
+        Arrays.stream(args, 1, args.length).map(Path::of).collect(toImmutableList()),
+        Path.of(args[0]));
+  }
+
+  /**
+   * Composes the given bundles into a single bundle.
+   *
+   * @param bundles The paths of the bundles to compose.
+   * @param output The path of the bundle to write.
+   * @throws IOException If a bundle cannot be read or written.
+   */
+  static void aggregate(List<Path> bundles, Path output) throws IOException {
+    ImmutableList.Builder<CodeTransformer> rules = ImmutableList.builder();
+    for (Path bundle : bundles) {
+      rules.addAll(TemplateBundles.load(bundle));
+    }
+
+    Files.createDirectories(output.toAbsolutePath().getParent());
+    try (ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(output))) {
+      out.writeObject(CompositeCodeTransformer.compose(rules.build()));
+    }
+  }
+}
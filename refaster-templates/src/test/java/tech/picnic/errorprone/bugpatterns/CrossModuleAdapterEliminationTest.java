@@ -0,0 +1,119 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.errorprone.BugCheckerRefactoringTestHelper;
+import com.google.errorprone.BugCheckerRefactoringTestHelper.TestMode;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+final class CrossModuleAdapterEliminationTest {
+  private final BugCheckerRefactoringTestHelper refactoringTestHelper =
+      BugCheckerRefactoringTestHelper.newInstance(CrossModuleAdapterElimination.class, getClass());
+
+  @Test
+  void replacement(@TempDir Path directory) throws IOException {
+    Path upstream = directory.resolve("upstream");
+    MigrationIndexTest.compile(
+        directory, upstream, ImmutableMap.of("pkg/Service.java", service("final class")));
+
+    refactoringTestHelper
+        .setArgs(classpath(upstream))
+        .addInputLines(
+            "A.java",
+            "import pkg.Service;",
+            "import reactor.adapter.rxjava.RxJava2Adapter;",
+            "",
+            "class A {",
+            "  void m(Service service) {",
+            "    RxJava2Adapter.singleToMono(service.find(\"a\"));",
+            "    RxJava2Adapter.singleToMono(Service.count(1));",
+            "    RxJava2Adapter.singleToMono(service.findUnindexed(\"b\"));",
+            "    service.find(\"c\");",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import pkg.Service;",
+            "import reactor.adapter.rxjava.RxJava2Adapter;",
+            "",
+            "class A {",
+            "  void m(Service service) {",
+            "    service.findMono(\"a\");",
+            "    Service.countMono(1);",
+            "    RxJava2Adapter.singleToMono(service.findUnindexed(\"b\"));",
+            "    service.find(\"c\");",
+            "  }",
+            "}")
+        .doTest(TestMode.AST_MATCH);
+  }
+
+  @Test
+  void identificationOfOverridableMethods(@TempDir Path directory) throws IOException {
+    Path upstream = directory.resolve("upstream");
+    MigrationIndexTest.compile(
+        directory, upstream, ImmutableMap.of("pkg/Service.java", service("class")));
+    /* Simulate a stale index that lists a method which has since become overridable. */
+    Files.writeString(
+        upstream.resolve("META-INF/rxjava-reactor-migration.idx"),
+        "pkg.Service#find(java.lang.String)=findMono\n",
+        UTF_8);
+
+    refactoringTestHelper
+        .setArgs(classpath(upstream))
+        .addInputLines(
+            "A.java",
+            "import pkg.Service;",
+            "import reactor.adapter.rxjava.RxJava2Adapter;",
+            "",
+            "class A {",
+            "  void m(Service service) {",
+            "    RxJava2Adapter.singleToMono(service.find(\"a\"));",
+            "  }",
+            "}")
+        .expectUnchanged()
+        .doTest(TestMode.AST_MATCH);
+  }
+
+  private static String service(String classDeclaration) {
+    return MigrationIndexTest.source(
+        "package pkg;",
+        "",
+        "import io.reactivex.Single;",
+        "import reactor.adapter.rxjava.RxJava2Adapter;",
+        "import reactor.core.publisher.Mono;",
+        "",
+        "public " + classDeclaration + " Service {",
+        "  public Single<String> find(String id) {",
+        "    return RxJava2Adapter.monoToSingle(findMono(id));",
+        "  }",
+        "",
+        "  public Mono<String> findMono(String id) {",
+        "    return Mono.just(id);",
+        "  }",
+        "",
+        "  public Single<String> findUnindexed(String id) {",
+        "    return RxJava2Adapter.monoToSingle(findMono(id + id));",
+        "  }",
+        "",
+        "  public static Single<Integer> count(int i) {",
+        "    return RxJava2Adapter.monoToSingle(countMono(i));",
+        "  }",
+        "",
+        "  public static Mono<Integer> countMono(int i) {",
+        "    return Mono.just(i);",
+        "  }",
+        "}");
+  }
+
+  private static ImmutableList<String> classpath(Path upstream) {
+    return ImmutableList.of(
+        "-classpath", upstream + File.pathSeparator + System.getProperty("java.class.path"));
+  }
+}
@@ -0,0 +1,148 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import com.google.errorprone.BugCheckerRefactoringTestHelper;
+import com.google.errorprone.BugCheckerRefactoringTestHelper.TestMode;
+import org.junit.jupiter.api.Test;
+
+final class FlowableChainMigrationTest {
+  private final BugCheckerRefactoringTestHelper refactoringTestHelper =
+      BugCheckerRefactoringTestHelper.newInstance(FlowableChainMigration.class, getClass());
+
+  @Test
+  void replacementAllOperators() {
+    refactoringTestHelper
+        .addInputLines(
+            "A.java",
+            "import io.reactivex.Flowable;",
+            "",
+            "class A {",
+            "  Flowable<Integer> m(Flowable<Integer> flowable, Flowable<Integer> other) {",
+            "    return flowable",
+            "        .map(i -> i + 1)",
+            "        .filter(i -> i > 0)",
+            "        .distinct()",
+            "        .sorted()",
+            "        .concatMap(Flowable::just)",
+            "        .flatMap(i -> Flowable.just(i))",
+            "        .concatWith(other)",
+            "        .switchIfEmpty(other);",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import io.reactivex.Flowable;",
+            "import reactor.adapter.rxjava.RxJava2Adapter;",
+            "import tech.picnic.errorprone.migration.util.RxJavaReactorMigrationUtil;",
+            "",
+            "class A {",
+            "  Flowable<Integer> m(Flowable<Integer> flowable, Flowable<Integer> other) {",
+            "    return RxJava2Adapter.fluxToFlowable(",
+            "        RxJava2Adapter.flowableToFlux(flowable)",
+            "            .map(RxJavaReactorMigrationUtil.toJdkFunction(i -> i + 1))",
+            "            .filter(RxJavaReactorMigrationUtil.toJdkPredicate(i -> i > 0))",
+            "            .distinct()",
+            "            .sort()",
+            "            .concatMap(RxJavaReactorMigrationUtil.toJdkFunction(Flowable::just))",
+            "            .flatMap(RxJavaReactorMigrationUtil.toJdkFunction(i -> Flowable.just(i)))",
+            "            .concatWith(other)",
+            "            .switchIfEmpty(other));",
+            "  }",
+            "}")
+        .doTest(TestMode.AST_MATCH);
+  }
+
+  @Test
+  void replacementAtBoundaries() {
+    refactoringTestHelper
+        .addInputLines(
+            "A.java",
+            "import io.reactivex.Flowable;",
+            "import reactor.adapter.rxjava.RxJava2Adapter;",
+            "import reactor.core.publisher.Flux;",
+            "",
+            "class A {",
+            "  Flux<Integer> fromFlux(Flux<Integer> flux) {",
+            "    return RxJava2Adapter.flowableToFlux(",
+            "        RxJava2Adapter.fluxToFlowable(flux).distinct().sorted());",
+            "  }",
+            "",
+            "  Flowable<Integer> parenthesized(Flowable<Integer> flowable) {",
+            "    return (flowable.distinct()).sorted();",
+            "  }",
+            "",
+            "  Flux<Integer> parenthesizedInAdapter(Flowable<Integer> flowable) {",
+            "    return RxJava2Adapter.flowableToFlux((flowable.distinct().sorted()));",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import io.reactivex.Flowable;",
+            "import reactor.adapter.rxjava.RxJava2Adapter;",
+            "import reactor.core.publisher.Flux;",
+            "",
+            "class A {",
+            "  Flux<Integer> fromFlux(Flux<Integer> flux) {",
+            "    return flux.distinct().sort();",
+            "  }",
+            "",
+            "  Flowable<Integer> parenthesized(Flowable<Integer> flowable) {",
+            "    return RxJava2Adapter.fluxToFlowable(",
+            "        RxJava2Adapter.flowableToFlux(flowable).distinct().sort());",
+            "  }",
+            "",
+            "  Flux<Integer> parenthesizedInAdapter(Flowable<Integer> flowable) {",
+            "    return RxJava2Adapter.flowableToFlux(flowable).distinct().sort();",
+            "  }",
+            "}")
+        .doTest(TestMode.AST_MATCH);
+  }
+
+  @Test
+  void replacementNestedChain() {
+    refactoringTestHelper
+        .addInputLines(
+            "A.java",
+            "import io.reactivex.Flowable;",
+            "",
+            "class A {",
+            "  Flowable<Integer> m(Flowable<Integer> flowable, Flowable<Integer> other) {",
+            "    return flowable",
+            "        .flatMap(i -> other.map(j -> i + j).filter(j -> j > 0))",
+            "        .distinct();",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import io.reactivex.Flowable;",
+            "import reactor.adapter.rxjava.RxJava2Adapter;",
+            "import tech.picnic.errorprone.migration.util.RxJavaReactorMigrationUtil;",
+            "",
+            "class A {",
+            "  Flowable<Integer> m(Flowable<Integer> flowable, Flowable<Integer> other) {",
+            "    return RxJava2Adapter.fluxToFlowable(",
+            "        RxJava2Adapter.flowableToFlux(flowable)",
+            "            .flatMap(",
+            "                RxJavaReactorMigrationUtil.toJdkFunction(",
+            "                    i -> other.map(j -> i + j).filter(j -> j > 0)))",
+            "            .distinct());",
+            "  }",
+            "}")
+        .doTest(TestMode.AST_MATCH);
+  }
+
+  @Test
+  void shortChainIsLeftAlone() {
+    refactoringTestHelper
+        .addInputLines(
+            "A.java",
+            "import io.reactivex.Flowable;",
+            "",
+            "class A {",
+            "  Flowable<Integer> m(Flowable<Integer> flowable) {",
+            "    return flowable.map(i -> i + 1);",
+            "  }",
+            "}")
+        .expectUnchanged()
+        .doTest(TestMode.AST_MATCH);
+  }
+}
@@ -0,0 +1,230 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.joining;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.sun.source.util.JavacTask;
+import com.sun.tools.javac.api.BasicJavacTask;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+final class MigrationIndexTest {
+  private static final String INDEX_FILE = "META-INF/rxjava-reactor-migration.idx";
+  private static final String HEADER = "# RxJava to Reactor migration index, version 1";
+
+  @Test
+  void pluginIndexesDelegatingMethodsThatCannotBeOverridden(@TempDir Path directory)
+      throws IOException {
+    Path output = directory.resolve("classes");
+    compile(
+        directory,
+        output,
+        ImmutableMap.of(
+            "pkg/Service.java",
+            source(
+                "package pkg;",
+                "",
+                "import io.reactivex.Single;",
+                "import reactor.adapter.rxjava.RxJava2Adapter;",
+                "import reactor.core.publisher.Mono;",
+                "",
+                "public final class Service {",
+                "  public Single<String> find(String id, int limit) {",
+                "    return RxJava2Adapter.monoToSingle(findMono(id, limit));",
+                "  }",
+                "",
+                "  public Mono<String> findMono(String id, int limit) {",
+                "    return Mono.just(id);",
+                "  }",
+                "",
+                "  public Single<String> findOther(String id, int limit) {",
+                "    return RxJava2Adapter.monoToSingle(findMono(\"other\", limit));",
+                "  }",
+                "",
+                "  Single<String> findPackagePrivate(String id, int limit) {",
+                "    return RxJava2Adapter.monoToSingle(findMono(id, limit));",
+                "  }",
+                "}"),
+            "pkg/OpenService.java",
+            source(
+                "package pkg;",
+                "",
+                "import io.reactivex.Single;",
+                "import reactor.adapter.rxjava.RxJava2Adapter;",
+                "import reactor.core.publisher.Mono;",
+                "",
+                "public class OpenService {",
+                "  public Single<String> find(String id) {",
+                "    return RxJava2Adapter.monoToSingle(findMono(id));",
+                "  }",
+                "",
+                "  public Mono<String> findMono(String id) {",
+                "    return Mono.just(id);",
+                "  }",
+                "",
+                "  public static Single<Integer> count(int i) {",
+                "    return RxJava2Adapter.monoToSingle(countMono(i));",
+                "  }",
+                "",
+                "  public static Mono<Integer> countMono(int i) {",
+                "    return Mono.just(i);",
+                "  }",
+                "}")));
+
+    assertThat(Files.readAllLines(output.resolve(INDEX_FILE), UTF_8))
+        .containsExactly(
+            HEADER,
+            "pkg.OpenService#count(int)=countMono",
+            "pkg.Service#find(java.lang.String,int)=findMono");
+  }
+
+  @Test
+  void pluginRetainsEntriesOfClassesThatAreNotRecompiled(@TempDir Path directory)
+      throws IOException {
+    Path output = directory.resolve("classes");
+    compile(
+        directory,
+        output,
+        ImmutableMap.of("pkg/A.java", delegatingClass("A"), "pkg/B.java", delegatingClass("B")));
+    assertThat(Files.readAllLines(output.resolve(INDEX_FILE), UTF_8))
+        .containsExactly(HEADER, "pkg.A#find(int)=findMono", "pkg.B#find(int)=findMono");
+
+    compile(
+        directory,
+        output,
+        ImmutableMap.of("pkg/B.java", source("package pkg;", "", "public final class B {}")),
+        output);
+    assertThat(Files.readAllLines(output.resolve(INDEX_FILE), UTF_8))
+        .containsExactly(HEADER, "pkg.A#find(int)=findMono");
+
+    Files.delete(output.resolve("pkg/A.class"));
+    compile(directory, output, ImmutableMap.of("pkg/B.java", delegatingClass("B")), output);
+    assertThat(Files.readAllLines(output.resolve(INDEX_FILE), UTF_8))
+        .containsExactly(HEADER, "pkg.B#find(int)=findMono");
+  }
+
+  @Test
+  void instanceMergesIndexesOnClassPath(@TempDir Path directory) throws IOException {
+    Path first = directory.resolve("first");
+    Path second = directory.resolve("second");
+    compile(directory, first, ImmutableMap.of("pkg/A.java", delegatingClass("A")));
+    compile(directory, second, ImmutableMap.of("pkg/B.java", delegatingClass("B")));
+
+    JavacTask task =
+        task(
+            directory,
+            directory.resolve("third"),
+            ImmutableMap.of("pkg/C.java", source("package pkg;", "", "final class C {}")),
+            new DiagnosticCollector<>(),
+            first,
+            second);
+    task.parse();
+
+    MigrationIndex index = MigrationIndex.instance(((BasicJavacTask) task).getContext());
+    assertThat(index.reactorSibling(MigrationIndex.key("pkg.A", "find", List.of("int"))))
+        .hasValue("findMono");
+    assertThat(index.reactorSibling(MigrationIndex.key("pkg.B", "find", List.of("int"))))
+        .hasValue("findMono");
+    assertThat(index.reactorSibling(MigrationIndex.key("pkg.B", "find", List.of("long"))))
+        .isEmpty();
+    assertThat(MigrationIndex.instance(((BasicJavacTask) task).getContext())).isSameAs(index);
+  }
+
+  /** Returns a final class with a {@code find} method that delegates to {@code findMono}. */
+  static String delegatingClass(String name) {
+    return source(
+        "package pkg;",
+        "",
+        "import io.reactivex.Single;",
+        "import reactor.adapter.rxjava.RxJava2Adapter;",
+        "import reactor.core.publisher.Mono;",
+        "",
+        "public final class " + name + " {",
+        "  public Single<Integer> find(int i) {",
+        "    return RxJava2Adapter.monoToSingle(findMono(i));",
+        "  }",
+        "",
+        "  public Mono<Integer> findMono(int i) {",
+        "    return Mono.just(i);",
+        "  }",
+        "}");
+  }
+
+  static String source(String... lines) {
+    return Stream.of(lines).collect(joining("\n", "", "\n"));
+  }
+
+  /**
+   * Compiles the given sources into the given output directory using the {@link
+   * MigrationIndexPlugin}, against the test class path extended with the given directories.
+   *
+   * @param directory A directory into which the sources are written.
+   * @param output The class output directory.
+   * @param sources The sources to compile, keyed by their path relative to the source root.
+   * @param classpath Additional class path entries.
+   */
+  static void compile(
+      Path directory, Path output, ImmutableMap<String, String> sources, Path... classpath)
+      throws IOException {
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    JavacTask task = task(directory, output, sources, diagnostics, classpath);
+    new MigrationIndexPlugin().init(task);
+    assertThat(task.call()).as("%s", diagnostics.getDiagnostics()).isTrue();
+  }
+
+  private static JavacTask task(
+      Path directory,
+      Path output,
+      ImmutableMap<String, String> sources,
+      DiagnosticCollector<JavaFileObject> diagnostics,
+      Path... classpath)
+      throws IOException {
+    Path sourceRoot = Files.createDirectories(directory.resolve("src-" + output.getFileName()));
+    List<Path> sourceFiles = new ArrayList<>();
+    for (Map.Entry<String, String> source : sources.entrySet()) {
+      Path file = sourceRoot.resolve(source.getKey());
+      Files.createDirectories(file.getParent());
+      Files.writeString(file, source.getValue(), UTF_8);
+      sourceFiles.add(file);
+    }
+    Files.createDirectories(output);
+
+    List<String> classpathEntries = new ArrayList<>();
+    for (Path entry : classpath) {
+      classpathEntries.add(entry.toString());
+    }
+    classpathEntries.add(System.getProperty("java.class.path"));
+
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, UTF_8);
+    return (JavacTask)
+        compiler.getTask(
+            null,
+            fileManager,
+            diagnostics,
+            ImmutableList.of(
+                "-proc:none",
+                "-d",
+                output.toString(),
+                "-classpath",
+                String.join(File.pathSeparator, classpathEntries)),
+            null,
+            fileManager.getJavaFileObjectsFromPaths(sourceFiles));
+  }
+}
@@ -0,0 +1,224 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import com.google.errorprone.BugCheckerRefactoringTestHelper;
+import com.google.errorprone.BugCheckerRefactoringTestHelper.TestMode;
+import org.junit.jupiter.api.Test;
+
+final class ReactorSiblingGenerationTest {
+  private final BugCheckerRefactoringTestHelper refactoringTestHelper =
+      BugCheckerRefactoringTestHelper.newInstance(ReactorSiblingGeneration.class, getClass());
+
+  @Test
+  void replacement() {
+    refactoringTestHelper
+        .addInputLines(
+            "A.java",
+            "import io.reactivex.Single;",
+            "import java.io.IOException;",
+            "import java.util.function.Supplier;",
+            "import javax.annotation.Nullable;",
+            "import reactor.adapter.rxjava.RxJava2Adapter;",
+            "import reactor.core.publisher.Mono;",
+            "",
+            "final class A implements Supplier<Single<String>> {",
+            "  @Override",
+            "  @Nullable",
+            "  public Single<String> get() {",
+            "    return RxJava2Adapter.monoToSingle(Mono.just(\"a\"));",
+            "  }",
+            "",
+            "  public <T> Single<T> generic(T value) throws IOException {",
+            "    if (value == null) {",
+            "      return RxJava2Adapter.monoToSingle(Mono.empty());",
+            "    }",
+            "    return RxJava2Adapter.monoToSingle(Mono.just(value));",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import io.reactivex.Single;",
+            "import java.io.IOException;",
+            "import java.util.function.Supplier;",
+            "import javax.annotation.Nullable;",
+            "import reactor.adapter.rxjava.RxJava2Adapter;",
+            "import reactor.core.publisher.Mono;",
+            "",
+            "final class A implements Supplier<Single<String>> {",
+            "  @Override",
+            "  @Nullable",
+            "  public Single<String> get() {",
+            "    return RxJava2Adapter.monoToSingle(getMono());",
+            "  }",
+            "",
+            "  @Nullable",
+            "  public Mono<String> getMono() {",
+            "    return Mono.just(\"a\");",
+            "  }",
+            "",
+            "  public <T> Single<T> generic(T value) throws IOException {",
+            "    return RxJava2Adapter.monoToSingle(genericMono(value));",
+            "  }",
+            "",
+            "  public <T> Mono<T> genericMono(T value) throws IOException {",
+            "    if (value == null) {",
+            "      return Mono.empty();",
+            "    }",
+            "    return Mono.just(value);",
+            "  }",
+            "}")
+        .doTest(TestMode.AST_MATCH);
+  }
+
+  @Test
+  void replacementOverloads() {
+    refactoringTestHelper
+        .addInputLines(
+            "A.java",
+            "import io.reactivex.Single;",
+            "import reactor.adapter.rxjava.RxJava2Adapter;",
+            "import reactor.core.publisher.Mono;",
+            "",
+            "final class A {",
+            "  public Single<String> find(String id) {",
+            "    return RxJava2Adapter.monoToSingle(findMono(id));",
+            "  }",
+            "",
+            "  public Mono<String> findMono(String id) {",
+            "    return Mono.just(id);",
+            "  }",
+            "",
+            "  public Single<String> find(int id) {",
+            "    return RxJava2Adapter.monoToSingle(Mono.just(String.valueOf(id)));",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import io.reactivex.Single;",
+            "import reactor.adapter.rxjava.RxJava2Adapter;",
+            "import reactor.core.publisher.Mono;",
+            "",
+            "final class A {",
+            "  public Single<String> find(String id) {",
+            "    return RxJava2Adapter.monoToSingle(findMono(id));",
+            "  }",
+            "",
+            "  public Mono<String> findMono(String id) {",
+            "    return Mono.just(id);",
+            "  }",
+            "",
+            "  public Single<String> find(int id) {",
+            "    return RxJava2Adapter.monoToSingle(findMono(id));",
+            "  }",
+            "",
+            "  public Mono<String> findMono(int id) {",
+            "    return Mono.just(String.valueOf(id));",
+            "  }",
+            "}")
+        .doTest(TestMode.AST_MATCH);
+  }
+
+  @Test
+  void replacementRetainsFrameworkAnnotationsOnOriginalMethod() {
+    refactoringTestHelper
+        .addInputLines(
+            "A.java",
+            "import io.reactivex.Single;",
+            "import io.swagger.v3.oas.annotations.Operation;",
+            "import javax.annotation.Nullable;",
+            "import reactor.adapter.rxjava.RxJava2Adapter;",
+            "import reactor.core.publisher.Mono;",
+            "",
+            "final class A {",
+            "  @Operation(summary = \"Find\")",
+            "  @Deprecated",
+            "  @Nullable",
+            "  @SuppressWarnings(\"unchecked\")",
+            "  public Single<String> find(String id) {",
+            "    return RxJava2Adapter.monoToSingle(Mono.just(id));",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import io.reactivex.Single;",
+            "import io.swagger.v3.oas.annotations.Operation;",
+            "import javax.annotation.Nullable;",
+            "import reactor.adapter.rxjava.RxJava2Adapter;",
+            "import reactor.core.publisher.Mono;",
+            "",
+            "final class A {",
+            "  @Operation(summary = \"Find\")",
+            "  @Deprecated",
+            "  @Nullable",
+            "  @SuppressWarnings(\"unchecked\")",
+            "  public Single<String> find(String id) {",
+            "    return RxJava2Adapter.monoToSingle(findMono(id));",
+            "  }",
+            "",
+            "  @Deprecated",
+            "  @Nullable",
+            "  @SuppressWarnings(\"unchecked\")",
+            "  public Mono<String> findMono(String id) {",
+            "    return Mono.just(id);",
+            "  }",
+            "}")
+        .doTest(TestMode.AST_MATCH);
+  }
+
+  @Test
+  void replacementOnlyNonOverridableMethods() {
+    refactoringTestHelper
+        .addInputLines(
+            "A.java",
+            "import io.reactivex.Flowable;",
+            "import io.reactivex.Maybe;",
+            "import io.reactivex.Single;",
+            "import reactor.adapter.rxjava.RxJava2Adapter;",
+            "import reactor.core.publisher.Flux;",
+            "import reactor.core.publisher.Mono;",
+            "",
+            "class A {",
+            "  public Single<Integer> overridable() {",
+            "    return RxJava2Adapter.monoToSingle(Mono.just(1));",
+            "  }",
+            "",
+            "  public static Flowable<Integer> create() {",
+            "    return RxJava2Adapter.fluxToFlowable(Flux.just(1));",
+            "  }",
+            "",
+            "  public final Maybe<Integer> fixed() {",
+            "    return RxJava2Adapter.monoToMaybe(Mono.just(1));",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import io.reactivex.Flowable;",
+            "import io.reactivex.Maybe;",
+            "import io.reactivex.Single;",
+            "import reactor.adapter.rxjava.RxJava2Adapter;",
+            "import reactor.core.publisher.Flux;",
+            "import reactor.core.publisher.Mono;",
+            "",
+            "class A {",
+            "  public Single<Integer> overridable() {",
+            "    return RxJava2Adapter.monoToSingle(Mono.just(1));",
+            "  }",
+            "",
+            "  public static Flowable<Integer> create() {",
+            "    return RxJava2Adapter.fluxToFlowable(createFlux());",
+            "  }",
+            "",
+            "  public static Flux<Integer> createFlux() {",
+            "    return Flux.just(1);",
+            "  }",
+            "",
+            "  public final Maybe<Integer> fixed() {",
+            "    return RxJava2Adapter.monoToMaybe(fixedMono());",
+            "  }",
+            "",
+            "  public final Mono<Integer> fixedMono() {",
+            "    return Mono.just(1);",
+            "  }",
+            "}")
+        .doTest(TestMode.AST_MATCH);
+  }
+}
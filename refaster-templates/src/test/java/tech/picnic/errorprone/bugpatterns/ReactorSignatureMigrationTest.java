@@ -0,0 +1,178 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import com.google.errorprone.BugCheckerRefactoringTestHelper;
+import com.google.errorprone.BugCheckerRefactoringTestHelper.TestMode;
+import org.junit.jupiter.api.Test;
+
+final class ReactorSignatureMigrationTest {
+  private final BugCheckerRefactoringTestHelper refactoringTestHelper =
+      BugCheckerRefactoringTestHelper.newInstance(ReactorSignatureMigration.class, getClass());
+
+  @Test
+  void replacementReturnType() {
+    refactoringTestHelper
+        .addInputLines(
+            "A.java",
+            "import io.reactivex.Single;",
+            "import reactor.adapter.rxjava.RxJava2Adapter;",
+            "import reactor.core.publisher.Mono;",
+            "",
+            "class A {",
+            "  private Single<Integer> get(boolean flag) {",
+            "    if (flag) {",
+            "      return RxJava2Adapter.monoToSingle(Mono.just(1));",
+            "    }",
+            "    return RxJava2Adapter.monoToSingle(Mono.just(2));",
+            "  }",
+            "",
+            "  Mono<Integer> unwrapped() {",
+            "    return RxJava2Adapter.singleToMono(get(true));",
+            "  }",
+            "",
+            "  Single<Integer> wrapped() {",
+            "    return get(false);",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import io.reactivex.Single;",
+            "import reactor.adapter.rxjava.RxJava2Adapter;",
+            "import reactor.core.publisher.Mono;",
+            "",
+            "class A {",
+            "  private Mono<Integer> get(boolean flag) {",
+            "    if (flag) {",
+            "      return Mono.just(1);",
+            "    }",
+            "    return Mono.just(2);",
+            "  }",
+            "",
+            "  Mono<Integer> unwrapped() {",
+            "    return get(true);",
+            "  }",
+            "",
+            "  Single<Integer> wrapped() {",
+            "    return RxJava2Adapter.monoToSingle(get(false));",
+            "  }",
+            "}")
+        .doTest(TestMode.AST_MATCH);
+  }
+
+  @Test
+  void replacementParameter() {
+    refactoringTestHelper
+        .addInputLines(
+            "A.java",
+            "import io.reactivex.Single;",
+            "import reactor.adapter.rxjava.RxJava2Adapter;",
+            "import reactor.core.publisher.Mono;",
+            "",
+            "class A {",
+            "  private Mono<Integer> increment(Single<Integer> single) {",
+            "    return RxJava2Adapter.singleToMono(single).map(i -> i + 1);",
+            "  }",
+            "",
+            "  Mono<Integer> unwrapped(Mono<Integer> mono) {",
+            "    return increment(RxJava2Adapter.monoToSingle(mono));",
+            "  }",
+            "",
+            "  Mono<Integer> wrapped() {",
+            "    return increment(Single.just(1));",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import io.reactivex.Single;",
+            "import reactor.adapter.rxjava.RxJava2Adapter;",
+            "import reactor.core.publisher.Mono;",
+            "",
+            "class A {",
+            "  private Mono<Integer> increment(Mono<Integer> single) {",
+            "    return single.map(i -> i + 1);",
+            "  }",
+            "",
+            "  Mono<Integer> unwrapped(Mono<Integer> mono) {",
+            "    return increment(mono);",
+            "  }",
+            "",
+            "  Mono<Integer> wrapped() {",
+            "    return increment(RxJava2Adapter.singleToMono(Single.just(1)));",
+            "  }",
+            "}")
+        .doTest(TestMode.AST_MATCH);
+  }
+
+  @Test
+  void replacementReturnTypeAndParameter() {
+    refactoringTestHelper
+        .addInputLines(
+            "A.java",
+            "import io.reactivex.Flowable;",
+            "import reactor.adapter.rxjava.RxJava2Adapter;",
+            "",
+            "class A {",
+            "  private Flowable<Integer> twice(Flowable<Integer> flowable) {",
+            "    return RxJava2Adapter.fluxToFlowable(",
+            "        RxJava2Adapter.flowableToFlux(flowable).repeat(1));",
+            "  }",
+            "",
+            "  Flowable<Integer> caller(Flowable<Integer> flowable) {",
+            "    return twice(flowable);",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import io.reactivex.Flowable;",
+            "import reactor.adapter.rxjava.RxJava2Adapter;",
+            "import reactor.core.publisher.Flux;",
+            "",
+            "class A {",
+            "  private Flux<Integer> twice(Flux<Integer> flowable) {",
+            "    return flowable.repeat(1);",
+            "  }",
+            "",
+            "  Flowable<Integer> caller(Flowable<Integer> flowable) {",
+            "    return RxJava2Adapter.fluxToFlowable(",
+            "        twice(RxJava2Adapter.flowableToFlux(flowable)));",
+            "  }",
+            "}")
+        .doTest(TestMode.AST_MATCH);
+  }
+
+  @Test
+  void identification() {
+    refactoringTestHelper
+        .addInputLines(
+            "A.java",
+            "import io.reactivex.Single;",
+            "import java.util.function.Function;",
+            "import reactor.adapter.rxjava.RxJava2Adapter;",
+            "import reactor.core.publisher.Mono;",
+            "",
+            "class A {",
+            "  private Mono<Integer> otherUse(Single<Integer> single) {",
+            "    single.subscribe();",
+            "    return RxJava2Adapter.singleToMono(single);",
+            "  }",
+            "",
+            "  private Single<Integer> notConverted() {",
+            "    return Single.just(1);",
+            "  }",
+            "",
+            "  private Single<Integer> referenced(Integer value) {",
+            "    return RxJava2Adapter.monoToSingle(Mono.just(value));",
+            "  }",
+            "",
+            "  public Single<Integer> notPrivate() {",
+            "    return RxJava2Adapter.monoToSingle(Mono.just(1));",
+            "  }",
+            "",
+            "  Function<Integer, Single<Integer>> reference() {",
+            "    otherUse(notConverted());",
+            "    return this::referenced;",
+            "  }",
+            "}")
+        .expectUnchanged()
+        .doTest(TestMode.AST_MATCH);
+  }
+}
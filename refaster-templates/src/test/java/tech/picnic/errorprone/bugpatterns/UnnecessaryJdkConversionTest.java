@@ -0,0 +1,102 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import com.google.errorprone.BugCheckerRefactoringTestHelper;
+import com.google.errorprone.BugCheckerRefactoringTestHelper.TestMode;
+import org.junit.jupiter.api.Test;
+
+final class UnnecessaryJdkConversionTest {
+  private final BugCheckerRefactoringTestHelper refactoringTestHelper =
+      BugCheckerRefactoringTestHelper.newInstance(UnnecessaryJdkConversion.class, getClass());
+
+  @Test
+  void replacement() {
+    refactoringTestHelper
+        .addInputLines(
+            "A.java",
+            "import java.util.function.Function;",
+            "import reactor.core.publisher.Flux;",
+            "import reactor.core.publisher.Mono;",
+            "import tech.picnic.errorprone.migration.util.DualFunction;",
+            "import tech.picnic.errorprone.migration.util.RxJavaReactorMigrationUtil;",
+            "",
+            "class A {",
+            "  Function<Integer, Integer> field;",
+            "",
+            "  void m(Flux<Integer> flux, DualFunction<Integer, Integer> dual) {",
+            "    flux.map(RxJavaReactorMigrationUtil.toJdkFunction(i -> i + 1));",
+            "    flux.map(RxJavaReactorMigrationUtil.toJdkFunction(String::valueOf));",
+            "    flux.map(RxJavaReactorMigrationUtil.toJdkFunction(dual));",
+            "    flux.filter(RxJavaReactorMigrationUtil.toJdkPredicate(i -> i > 0));",
+            "    flux.doOnNext(RxJavaReactorMigrationUtil.toJdkConsumer(i -> {}));",
+            "    Mono.fromSupplier(RxJavaReactorMigrationUtil.callableAsSupplier(() -> 1));",
+            "    Mono.fromRunnable(RxJavaReactorMigrationUtil.toRunnable(() -> {}));",
+            "    Function<Integer, Integer> f = RxJavaReactorMigrationUtil.toJdkFunction(i -> i);",
+            "    field = RxJavaReactorMigrationUtil.toJdkFunction(dual);",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import java.util.function.Function;",
+            "import reactor.core.publisher.Flux;",
+            "import reactor.core.publisher.Mono;",
+            "import tech.picnic.errorprone.migration.util.DualFunction;",
+            "import tech.picnic.errorprone.migration.util.RxJavaReactorMigrationUtil;",
+            "",
+            "class A {",
+            "  Function<Integer, Integer> field;",
+            "",
+            "  void m(Flux<Integer> flux, DualFunction<Integer, Integer> dual) {",
+            "    flux.map(i -> i + 1);",
+            "    flux.map(String::valueOf);",
+            "    flux.map(dual);",
+            "    flux.filter(i -> i > 0);",
+            "    flux.doOnNext(i -> {});",
+            "    Mono.fromSupplier(() -> 1);",
+            "    Mono.fromRunnable(() -> {});",
+            "    Function<Integer, Integer> f = i -> i;",
+            "    field = dual;",
+            "  }",
+            "}")
+        .doTest(TestMode.AST_MATCH);
+  }
+
+  @Test
+  void identification() {
+    refactoringTestHelper
+        .addInputLines(
+            "A.java",
+            "import io.reactivex.functions.Function;",
+            "import java.io.IOException;",
+            "import reactor.core.publisher.Flux;",
+            "import tech.picnic.errorprone.migration.util.RxJavaReactorMigrationUtil;",
+            "",
+            "class A {",
+            "  void overloaded(java.util.function.Function<Integer, Integer> function) {}",
+            "",
+            "  void overloaded(Function<Integer, Integer> function) {}",
+            "",
+            "  Integer throwing(Integer i) throws IOException {",
+            "    return i;",
+            "  }",
+            "",
+            "  void m(Flux<Integer> flux, Function<Integer, Integer> rxFunction) {",
+            "    flux.map(",
+            "        RxJavaReactorMigrationUtil.toJdkFunction(",
+            "            i -> {",
+            "              if (i == 0) {",
+            "                throw new IOException();",
+            "              }",
+            "              return i;",
+            "            }));",
+            "    flux.map(RxJavaReactorMigrationUtil.toJdkFunction(this::throwing));",
+            "    flux.map(RxJavaReactorMigrationUtil.toJdkFunction(rxFunction));",
+            "    flux.map(",
+            "        RxJavaReactorMigrationUtil.toJdkFunction((Integer i) -> i).andThen(i -> i));",
+            "    Object object = RxJavaReactorMigrationUtil.toJdkFunction((Integer i) -> i);",
+            "    overloaded(RxJavaReactorMigrationUtil.toJdkFunction(i -> i));",
+            "  }",
+            "}")
+        .expectUnchanged()
+        .doTest(TestMode.AST_MATCH);
+  }
+}
@@ -0,0 +1,70 @@
+package tech.picnic.errorprone.refaster;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.refaster.RefasterRule;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tech.picnic.errorprone.migration.driver.TemplateBundles;
+
+final class TemplateBundleAggregatorTest {
+  private static final Path BUNDLE_DIRECTORY =
+      Path.of(System.getProperty("refaster.directory", "target/refaster"));
+  private static final ImmutableList<String> AGGREGATED_TEMPLATE_CLASSES =
+      ImmutableList.of(
+          "RxJavaCompletableToReactorTemplates",
+          "RxJavaFlowableToReactorTemplates",
+          "RxJavaMaybeToReactorTemplates",
+          "RxJavaObservableToReactorTemplates",
+          "RxJavaSingleToReactorTemplates",
+          "RxJavaToReactorTemplates",
+          "RxJavaUnwrapTemplates");
+  private static final ImmutableList<String> SEPARATE_TEMPLATE_CLASSES =
+      ImmutableList.of("RxJavaReactorBridgeTemplates", "RxJavaToReactorForkTemplates");
+
+  @Test
+  void aggregateContainsRulesOfAggregatedTemplateClasses() throws IOException {
+    int expectedRules = 0;
+    for (String templateClass : AGGREGATED_TEMPLATE_CLASSES) {
+      int rules = countRules(templateClass);
+      assertThat(rules).as(templateClass).isPositive();
+      expectedRules += rules;
+    }
+
+    assertThat(countRules("RxJavaToReactorMigration")).isEqualTo(expectedRules);
+  }
+
+  @Test
+  void separateBundlesAreNotAggregated() throws IOException {
+    for (String templateClass : SEPARATE_TEMPLATE_CLASSES) {
+      assertThat(countRules(templateClass)).as(templateClass).isPositive();
+    }
+    assertThat(TemplateBundles.load(bundle("RxJavaToReactorMigration")))
+        .extracting(rule -> ((RefasterRule<?, ?>) rule).qualifiedTemplateClass())
+        .noneMatch(
+            name -> SEPARATE_TEMPLATE_CLASSES.stream().anyMatch(c -> name.contains("." + c + ".")));
+  }
+
+  @Test
+  void aggregate(@TempDir Path directory) throws IOException {
+    Path completable = bundle("RxJavaCompletableToReactorTemplates");
+    Path maybe = bundle("RxJavaMaybeToReactorTemplates");
+    Path output = directory.resolve("out").resolve("Aggregate.refaster");
+
+    TemplateBundleAggregator.aggregate(ImmutableList.of(completable, maybe), output);
+
+    assertThat(TemplateBundles.load(output))
+        .hasSize(TemplateBundles.load(completable).size() + TemplateBundles.load(maybe).size());
+  }
+
+  private static int countRules(String name) throws IOException {
+    return TemplateBundles.load(bundle(name)).size();
+  }
+
+  private static Path bundle(String name) {
+    return BUNDLE_DIRECTORY.resolve(name).resolve(name + ".refaster");
+  }
+}
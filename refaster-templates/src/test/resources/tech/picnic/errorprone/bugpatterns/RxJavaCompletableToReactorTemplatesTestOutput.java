@@ -103,7 +103,7 @@ final class RxJavaCompletableReactorTemplatesTest implements RefasterTemplateTes
   }
 
   void testCompletableBlockingAwait() {
-    RxJava2Adapter.completableToMono(Completable.complete()).block();
+    RxJavaReactorMigrationUtil.block(RxJava2Adapter.completableToMono(Completable.complete()));
   }
 
   Completable testCompletableDoOnError() {
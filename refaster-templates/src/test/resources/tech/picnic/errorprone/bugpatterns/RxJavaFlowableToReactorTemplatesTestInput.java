@@ -178,6 +178,18 @@ final class RxJavaFlowableToReactorTemplatesTest implements RefasterTemplateTest
             .flatMapMaybe(Functions.identity()));
   }
 
+  ImmutableSet<Flux<Flux<Integer>>> testGroupedFlowableToGroupedFlux() {
+    return ImmutableSet.of(
+        Flux.just(1)
+            .groupBy(i -> i % 2)
+            .map(RxJavaReactorMigrationUtil::groupedFluxToGroupedFlowable)
+            .map(group -> RxJava2Adapter.flowableToFlux(group)),
+        Flux.just(2)
+            .groupBy(i -> i % 2)
+            .map(RxJavaReactorMigrationUtil::groupedFluxToGroupedFlowable)
+            .map(group -> group.as(RxJava2Adapter::flowableToFlux)));
+  }
+
   Flowable<Integer> testFlowableMap() {
     return Flowable.just(1).map(i -> i + 1);
   }
@@ -187,7 +187,7 @@ final class RxJavaFlowableToReactorTemplatesTest implements RefasterTemplateTest
   }
 
   Object testFlowableBlockingFirst() {
-    return RxJava2Adapter.flowableToFlux(Flowable.just(1)).blockFirst();
+    return RxJavaReactorMigrationUtil.blockFirst(RxJava2Adapter.flowableToFlux(Flowable.just(1)));
   }
 
   Flowable<Integer> testFlowableConcatMap() {
@@ -250,6 +250,18 @@ final class RxJavaFlowableToReactorTemplatesTest implements RefasterTemplateTest
                                     .apply(e))))));
   }
 
+  ImmutableSet<Flux<Flux<Integer>>> testGroupedFlowableToGroupedFlux() {
+    return ImmutableSet.of(
+        Flux.just(1)
+            .groupBy(i -> i % 2)
+            .map(RxJavaReactorMigrationUtil::groupedFluxToGroupedFlowable)
+            .map(group -> RxJavaReactorMigrationUtil.groupedFlowableToGroupedFlux(group)),
+        Flux.just(2)
+            .groupBy(i -> i % 2)
+            .map(RxJavaReactorMigrationUtil::groupedFluxToGroupedFlowable)
+            .map(group -> RxJavaReactorMigrationUtil.groupedFlowableToGroupedFlux(group)));
+  }
+
   Flowable<Integer> testFlowableMap() {
     return RxJava2Adapter.fluxToFlowable(
         RxJava2Adapter.flowableToFlux(Flowable.just(1))
@@ -114,7 +114,7 @@ final class RxJavaMaybeToReactorTemplatesTest implements RefasterTemplateTestCas
   }
 
   Integer testMaybeBlockingGet() {
-    return RxJava2Adapter.maybeToMono(Maybe.just(1)).block();
+    return RxJavaReactorMigrationUtil.block(RxJava2Adapter.maybeToMono(Maybe.just(1)));
   }
 
   Maybe<String> testMaybeCastPositive() {
@@ -10,6 +10,7 @@ import io.reactivex.Observable;
 import reactor.adapter.rxjava.RxJava2Adapter;
 import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
+import tech.picnic.errorprone.migration.util.RxJavaReactorBridge;
 import tech.picnic.errorprone.migration.util.RxJavaReactorMigrationUtil;
 
 final class RxJavaObservableToReactorTemplatesTest implements RefasterTemplateTestCase {
@@ -18,8 +19,7 @@ final class RxJavaObservableToReactorTemplatesTest implements RefasterTemplateTe
     return RxJava2Adapter.fluxToObservable(
         Flux.<Integer>firstWithSignal(
             Streams.stream(ImmutableList.of(Observable.just(1), Observable.just(2)))
-                .map(e -> e.toFlowable(BackpressureStrategy.BUFFER))
-                .map(RxJava2Adapter::flowableToFlux)
+                .map(RxJavaReactorBridge::observableToFlux)
                 .collect(ImmutableList.toImmutableList())));
   }
 
@@ -41,20 +41,18 @@ final class RxJavaObservableToReactorTemplatesTest implements RefasterTemplateTe
 
   Maybe<Integer> testMaybeFirstElement() {
     return RxJava2Adapter.monoToMaybe(
-        RxJava2Adapter.observableToFlux(Observable.just(1), BackpressureStrategy.BUFFER).next());
+        RxJavaReactorBridge.observableToFlux(Observable.just(1)).next());
   }
 
   Observable<Integer> testObservableFilter() {
     return RxJava2Adapter.fluxToObservable(
-        RxJava2Adapter.observableToFlux(Observable.just(1), BackpressureStrategy.BUFFER)
+        RxJavaReactorBridge.observableToFlux(Observable.just(1))
             .filter(RxJavaReactorMigrationUtil.toJdkPredicate(i -> i > 1)));
   }
 
   Completable testObservableIgnoreElements() {
     return RxJava2Adapter.monoToCompletable(
-        RxJava2Adapter.observableToFlux(Observable.just(1, 2), BackpressureStrategy.BUFFER)
-            .ignoreElements()
-            .then());
+        RxJavaReactorBridge.observableToFlux(Observable.just(1, 2)).ignoreElements().then());
   }
 
   Flowable<Integer> testCompletableToFlowable() {
@@ -63,64 +61,64 @@ final class RxJavaObservableToReactorTemplatesTest implements RefasterTemplateTe
   }
 
   void testObservableTestAssertResultItem() throws InterruptedException {
-    RxJava2Adapter.observableToFlux(Observable.just(1), BackpressureStrategy.BUFFER)
+    RxJavaReactorBridge.observableToFlux(Observable.just(1))
         .as(StepVerifier::create)
         .expectNext(1)
         .verifyComplete();
-    RxJava2Adapter.observableToFlux(Observable.just(2), BackpressureStrategy.BUFFER)
+    RxJavaReactorBridge.observableToFlux(Observable.just(2))
         .as(StepVerifier::create)
         .expectNext(2)
         .verifyComplete();
   }
 
   void testObservableTestAssertResult() throws InterruptedException {
-    RxJava2Adapter.observableToFlux(Observable.just(1), BackpressureStrategy.BUFFER)
+    RxJavaReactorBridge.observableToFlux(Observable.just(1))
         .as(StepVerifier::create)
         .verifyComplete();
   }
 
   void testObservableTestAssertValue() throws InterruptedException {
-    RxJava2Adapter.observableToFlux(Observable.just(1), BackpressureStrategy.BUFFER)
+    RxJavaReactorBridge.observableToFlux(Observable.just(1))
         .as(StepVerifier::create)
         .expectNextMatches(RxJavaReactorMigrationUtil.toJdkPredicate(i -> i > 2))
         .verifyComplete();
-    RxJava2Adapter.observableToFlux(Observable.just(3), BackpressureStrategy.BUFFER)
+    RxJavaReactorBridge.observableToFlux(Observable.just(3))
         .as(StepVerifier::create)
         .expectNextMatches(RxJavaReactorMigrationUtil.toJdkPredicate(i -> i > 4))
         .verifyComplete();
   }
 
   void testObservableTestAssertResultValues() throws InterruptedException {
-    RxJava2Adapter.observableToFlux(Observable.just(1, 2, 3), BackpressureStrategy.BUFFER)
+    RxJavaReactorBridge.observableToFlux(Observable.just(1, 2, 3))
         .as(StepVerifier::create)
         .expectNext(1, 2, 3)
         .verifyComplete();
-    RxJava2Adapter.observableToFlux(Observable.just(4, 5, 6), BackpressureStrategy.BUFFER)
+    RxJavaReactorBridge.observableToFlux(Observable.just(4, 5, 6))
         .as(StepVerifier::create)
         .expectNext(4, 5, 6)
         .verifyComplete();
   }
 
   void testObservableTestAssertComplete() throws InterruptedException {
-    RxJava2Adapter.observableToFlux(Observable.just(1), BackpressureStrategy.BUFFER)
+    RxJavaReactorBridge.observableToFlux(Observable.just(1))
         .as(StepVerifier::create)
         .verifyComplete();
   }
 
   void testObservableTestAssertErrorClass() throws InterruptedException {
-    RxJava2Adapter.observableToFlux(Observable.just(1), BackpressureStrategy.BUFFER)
+    RxJavaReactorBridge.observableToFlux(Observable.just(1))
         .as(StepVerifier::create)
         .verifyError(InterruptedException.class);
   }
 
   void testObservableTestAssertNoErrors() throws InterruptedException {
-    RxJava2Adapter.observableToFlux(Observable.just(1), BackpressureStrategy.BUFFER)
+    RxJavaReactorBridge.observableToFlux(Observable.just(1))
         .as(StepVerifier::create)
         .verifyComplete();
   }
 
   void testObservableTestAssertValueCount() throws InterruptedException {
-    RxJava2Adapter.observableToFlux(Observable.just(1), BackpressureStrategy.BUFFER)
+    RxJavaReactorBridge.observableToFlux(Observable.just(1))
         .as(StepVerifier::create)
         .expectNextCount(1)
         .verifyComplete();
@@ -0,0 +1,58 @@
+package resources.tech.picnic.errorprone.bugpatterns;
+
+import com.google.common.collect.ImmutableSet;
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import reactor.adapter.rxjava.RxJava2Adapter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.picnic.errorprone.migration.util.RxJavaReactorBridge;
+
+final class RxJavaReactorBridgeTemplatesTest implements RefasterTemplateTestCase {
+  @Override
+  public ImmutableSet<?> elidedTypesAndStaticImports() {
+    return ImmutableSet.of(RxJava2Adapter.class, RxJavaReactorBridge.class);
+  }
+
+  Flowable<Integer> testFluxToFlowable() {
+    RxJava2Adapter.fluxToFlowable(Flux.just(1));
+    return Flux.just(2).as(RxJava2Adapter::fluxToFlowable);
+  }
+
+  Flux<Integer> testFlowableToFlux() {
+    RxJava2Adapter.flowableToFlux(Flowable.just(1));
+    return Flowable.just(2).as(RxJava2Adapter::flowableToFlux);
+  }
+
+  Single<Integer> testMonoToSingle() {
+    RxJava2Adapter.monoToSingle(Mono.just(1));
+    return Mono.just(2).as(RxJava2Adapter::monoToSingle);
+  }
+
+  Mono<Integer> testSingleToMono() {
+    RxJava2Adapter.singleToMono(Single.just(1));
+    return Single.just(2).as(RxJava2Adapter::singleToMono);
+  }
+
+  Maybe<Integer> testMonoToMaybe() {
+    RxJava2Adapter.monoToMaybe(Mono.just(1));
+    return Mono.just(2).as(RxJava2Adapter::monoToMaybe);
+  }
+
+  Mono<Integer> testMaybeToMono() {
+    RxJava2Adapter.maybeToMono(Maybe.just(1));
+    return Maybe.just(2).as(RxJava2Adapter::maybeToMono);
+  }
+
+  Completable testMonoToCompletable() {
+    RxJava2Adapter.monoToCompletable(Mono.just(1));
+    return Mono.empty().as(RxJava2Adapter::monoToCompletable);
+  }
+
+  Mono<Void> testCompletableToMono() {
+    RxJava2Adapter.completableToMono(Completable.complete());
+    return Completable.complete().as(RxJava2Adapter::completableToMono);
+  }
+}
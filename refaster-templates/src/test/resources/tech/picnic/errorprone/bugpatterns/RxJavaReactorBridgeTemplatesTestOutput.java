@@ -0,0 +1,58 @@
+package resources.tech.picnic.errorprone.bugpatterns;
+
+import com.google.common.collect.ImmutableSet;
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import reactor.adapter.rxjava.RxJava2Adapter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.picnic.errorprone.migration.util.RxJavaReactorBridge;
+
+final class RxJavaReactorBridgeTemplatesTest implements RefasterTemplateTestCase {
+  @Override
+  public ImmutableSet<?> elidedTypesAndStaticImports() {
+    return ImmutableSet.of(RxJava2Adapter.class, RxJavaReactorBridge.class);
+  }
+
+  Flowable<Integer> testFluxToFlowable() {
+    RxJavaReactorBridge.fluxToFlowable(Flux.just(1));
+    return RxJavaReactorBridge.fluxToFlowable(Flux.just(2));
+  }
+
+  Flux<Integer> testFlowableToFlux() {
+    RxJavaReactorBridge.flowableToFlux(Flowable.just(1));
+    return RxJavaReactorBridge.flowableToFlux(Flowable.just(2));
+  }
+
+  Single<Integer> testMonoToSingle() {
+    RxJavaReactorBridge.monoToSingle(Mono.just(1));
+    return RxJavaReactorBridge.monoToSingle(Mono.just(2));
+  }
+
+  Mono<Integer> testSingleToMono() {
+    RxJavaReactorBridge.singleToMono(Single.just(1));
+    return RxJavaReactorBridge.singleToMono(Single.just(2));
+  }
+
+  Maybe<Integer> testMonoToMaybe() {
+    RxJavaReactorBridge.monoToMaybe(Mono.just(1));
+    return RxJavaReactorBridge.monoToMaybe(Mono.just(2));
+  }
+
+  Mono<Integer> testMaybeToMono() {
+    RxJavaReactorBridge.maybeToMono(Maybe.just(1));
+    return RxJavaReactorBridge.maybeToMono(Maybe.just(2));
+  }
+
+  Completable testMonoToCompletable() {
+    RxJavaReactorBridge.monoToCompletable(Mono.just(1));
+    return RxJavaReactorBridge.monoToCompletable(Mono.empty());
+  }
+
+  Mono<Void> testCompletableToMono() {
+    RxJavaReactorBridge.completableToMono(Completable.complete());
+    return RxJavaReactorBridge.completableToMono(Completable.complete());
+  }
+}
@@ -55,7 +55,7 @@ final class RxJavaSingleToReactorTemplatesTest implements RefasterTemplateTestCa
   }
 
   Integer testSingleBlockingGet() {
-    return RxJava2Adapter.singleToMono(Single.just(1)).block();
+    return RxJavaReactorMigrationUtil.block(RxJava2Adapter.singleToMono(Single.just(1)));
   }
 
   Flowable<Integer> testSingleConcatWith() {
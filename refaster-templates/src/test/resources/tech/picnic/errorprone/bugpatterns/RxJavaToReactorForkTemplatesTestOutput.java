@@ -0,0 +1,58 @@
+package resources.tech.picnic.errorprone.bugpatterns;
+
+import com.google.common.collect.ImmutableSet;
+import io.reactivex.Flowable;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import reactor.adapter.rxjava.RxJava2Adapter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.picnic.errorprone.migration.util.RxJavaReactorMigrationUtil;
+
+final class RxJavaToReactorForkTemplatesTest implements RefasterTemplateTestCase {
+
+  @Override
+  public ImmutableSet<?> elidedTypesAndStaticImports() {
+    return ImmutableSet.of(RxJavaReactorMigrationUtil.class);
+  }
+
+  Mono<Integer> testMonoErrorCallableSupplierUtil() {
+    return Mono.just(1).switchIfEmpty(Mono.error(() -> new IllegalStateException()));
+  }
+
+  Maybe<Integer> testRemoveUtilCallable() {
+    return RxJava2Adapter.monoToMaybe(
+        Mono.fromSupplier(
+            () -> {
+              String s = "foo";
+              return null;
+            }));
+  }
+
+  Flowable<String> testUnnecessaryFunctionConversion() {
+    return Flowable.just(1)
+        .as(RxJava2Adapter::flowableToFlux)
+        .map(e -> String.valueOf(e))
+        .as(RxJava2Adapter::fluxToFlowable);
+  }
+
+  Flowable<Integer> testUnnecessaryBiFunctionConversion() {
+    return RxJava2Adapter.fluxToFlowable(
+        Flux.<Integer, Integer, Integer>zip(
+            Flowable.just(1), Flowable.just(2), (i1, i2) -> i1 + i2));
+  }
+
+  Single<Integer> testUnnecessaryConsumerConversion() {
+    return Single.just(1)
+        .as(RxJava2Adapter::singleToMono)
+        .doOnSuccess(System.out::println)
+        .as(RxJava2Adapter::monoToSingle);
+  }
+
+  Maybe<Integer> testUnnecessaryPredicateConversion() {
+    return Single.just(1)
+        .as(RxJava2Adapter::singleToMono)
+        .filter(i -> i > 2)
+        .as(RxJava2Adapter::monoToMaybe);
+  }
+}
@@ -1,19 +1,27 @@
 package resources.tech.picnic.errorprone.bugpatterns;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import io.reactivex.BackpressureStrategy;
 import io.reactivex.Flowable;
 import io.reactivex.Maybe;
+import io.reactivex.Observable;
 import io.reactivex.Single;
 import reactor.adapter.rxjava.RxJava2Adapter;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import tech.picnic.errorprone.migration.util.RxJavaReactorBridge;
 import tech.picnic.errorprone.migration.util.RxJavaReactorMigrationUtil;
 
 final class RxJavaToReactorTemplatesTest implements RefasterTemplateTestCase {
 
   @Override
   public ImmutableSet<?> elidedTypesAndStaticImports() {
-    return ImmutableSet.of(RxJavaReactorMigrationUtil.class);
+    return ImmutableSet.of(
+        BackpressureStrategy.class,
+        Observable.class,
+        RxJavaReactorBridge.class,
+        RxJavaReactorMigrationUtil.class);
   }
 
   Flux<Integer> testFluxToFlowableToFlux() {
@@ -25,6 +33,8 @@ final class RxJavaToReactorTemplatesTest implements RefasterTemplateTestCase {
         .flatMap(e -> ImmutableSet::of)
         .as(RxJava2Adapter::fluxToFlowable);
 
+    RxJavaReactorBridge.observableToFlux(Flux.just(3).as(RxJava2Adapter::fluxToObservable));
+
     return Flux.just(2).as(RxJava2Adapter::fluxToFlowable).as(RxJava2Adapter::flowableToFlux);
   }
 
@@ -47,50 +57,42 @@ final class RxJavaToReactorTemplatesTest implements RefasterTemplateTestCase {
     return (Maybe<String>) Maybe.just("foo");
   }
 
-  Mono<Integer> testMonoErrorCallableSupplierUtil() {
-    return Mono.just(1)
-        .switchIfEmpty(
-            Mono.error(
-                RxJavaReactorMigrationUtil.callableAsSupplier(() -> new IllegalStateException())));
+  ImmutableSet<Flux<Integer>> testObservableEmptyToFlux() {
+    return ImmutableSet.of(
+        RxJavaReactorBridge.observableToFlux(Observable.empty()),
+        RxJava2Adapter.observableToFlux(Observable.empty(), BackpressureStrategy.BUFFER));
   }
 
-  Maybe<Integer> testRemoveUtilCallable() {
-    return RxJava2Adapter.monoToMaybe(
-        Mono.fromSupplier(
-            RxJavaReactorMigrationUtil.callableAsSupplier(
-                () -> {
-                  String s = "foo";
-                  return null;
-                })));
+  ImmutableSet<Flux<Integer>> testObservableJustToFlux() {
+    return ImmutableSet.of(
+        RxJavaReactorBridge.observableToFlux(Observable.just(1)),
+        RxJava2Adapter.observableToFlux(Observable.just(2), BackpressureStrategy.BUFFER));
   }
 
-  Flowable<String> testUnnecessaryFunctionConversion() {
-    return Flowable.just(1)
-        .as(RxJava2Adapter::flowableToFlux)
-        .map(RxJavaReactorMigrationUtil.toJdkFunction(e -> String.valueOf(e)))
-        .as(RxJava2Adapter::fluxToFlowable);
+  Flux<Integer> testObservableJustTwoToFlux() {
+    return RxJavaReactorBridge.observableToFlux(Observable.just(1, 2));
   }
 
-  Flowable<Integer> testUnnecessaryBiFunctionConversion() {
-    return RxJava2Adapter.fluxToFlowable(
-        Flux.zip(
-            Flowable.just(1),
-            Flowable.just(2),
-            RxJavaReactorMigrationUtil.toJdkBiFunction((i1, i2) -> i1 + i2)));
+  Flux<Integer> testObservableJustThreeToFlux() {
+    return RxJavaReactorBridge.observableToFlux(Observable.just(1, 2, 3));
   }
 
-  Single<Integer> testUnnecessaryConsumerConversion() {
-    return Single.just(1)
-        .as(RxJava2Adapter::singleToMono)
-        .doOnSuccess(RxJavaReactorMigrationUtil.toJdkConsumer(System.out::println))
-        .as(RxJava2Adapter::monoToSingle);
+  Flux<Integer> testObservableFromArrayToFlux() {
+    return RxJavaReactorBridge.observableToFlux(Observable.fromArray(new Integer[] {1, 2}));
   }
 
-  Maybe<Integer> testUnnecessaryPredicateConversion() {
-    return Single.just(1)
-        .as(RxJava2Adapter::singleToMono)
-        .filter(RxJavaReactorMigrationUtil.toJdkPredicate(i -> i > 2))
-        .as(RxJava2Adapter::monoToMaybe);
+  Flux<Integer> testObservableFromIterableToFlux() {
+    return RxJavaReactorBridge.observableToFlux(Observable.fromIterable(ImmutableList.of(1, 2)));
+  }
+
+  Flux<Integer> testObservableFromCallableToFlux() {
+    return RxJavaReactorBridge.observableToFlux(Observable.fromCallable(() -> 1));
+  }
+
+  ImmutableSet<Flux<Integer>> testObservableRangeToFlux() {
+    return ImmutableSet.of(
+        RxJava2Adapter.observableToFlux(Observable.range(1, 10), BackpressureStrategy.BUFFER),
+        RxJava2Adapter.observableToFlux(Observable.range(1, 10), BackpressureStrategy.LATEST));
   }
 
   Mono<Integer> testMonoFromNestedPublisher() {
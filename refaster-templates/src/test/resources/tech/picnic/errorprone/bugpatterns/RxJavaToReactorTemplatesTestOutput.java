@@ -1,19 +1,27 @@
 package resources.tech.picnic.errorprone.bugpatterns;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import io.reactivex.BackpressureStrategy;
 import io.reactivex.Flowable;
 import io.reactivex.Maybe;
+import io.reactivex.Observable;
 import io.reactivex.Single;
 import reactor.adapter.rxjava.RxJava2Adapter;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import tech.picnic.errorprone.migration.util.RxJavaReactorBridge;
 import tech.picnic.errorprone.migration.util.RxJavaReactorMigrationUtil;
 
 final class RxJavaToReactorTemplatesTest implements RefasterTemplateTestCase {
 
   @Override
   public ImmutableSet<?> elidedTypesAndStaticImports() {
-    return ImmutableSet.of(RxJavaReactorMigrationUtil.class);
+    return ImmutableSet.of(
+        BackpressureStrategy.class,
+        Observable.class,
+        RxJavaReactorBridge.class,
+        RxJavaReactorMigrationUtil.class);
   }
 
   Flux<Integer> testFluxToFlowableToFlux() {
@@ -23,6 +31,8 @@ final class RxJavaToReactorTemplatesTest implements RefasterTemplateTestCase {
         .flatMap(e -> ImmutableSet::of)
         .as(RxJava2Adapter::fluxToFlowable);
 
+    Flux.just(3);
+
     return Flux.just(2);
   }
 
@@ -43,44 +53,38 @@ final class RxJavaToReactorTemplatesTest implements RefasterTemplateTestCase {
     return (Maybe<String>) Maybe.just("foo");
   }
 
-  Mono<Integer> testMonoErrorCallableSupplierUtil() {
-    return Mono.just(1).switchIfEmpty(Mono.error(() -> new IllegalStateException()));
+  ImmutableSet<Flux<Integer>> testObservableEmptyToFlux() {
+    return ImmutableSet.of(Flux.empty(), Flux.empty());
   }
 
-  Maybe<Integer> testRemoveUtilCallable() {
-    return RxJava2Adapter.monoToMaybe(
-        Mono.fromSupplier(
-            () -> {
-              String s = "foo";
-              return null;
-            }));
+  ImmutableSet<Flux<Integer>> testObservableJustToFlux() {
+    return ImmutableSet.of(Flux.just(1), Flux.just(2));
   }
 
-  Flowable<String> testUnnecessaryFunctionConversion() {
-    return Flowable.just(1)
-        .as(RxJava2Adapter::flowableToFlux)
-        .map(e -> String.valueOf(e))
-        .as(RxJava2Adapter::fluxToFlowable);
+  Flux<Integer> testObservableJustTwoToFlux() {
+    return Flux.just(1, 2);
   }
 
-  Flowable<Integer> testUnnecessaryBiFunctionConversion() {
-    return RxJava2Adapter.fluxToFlowable(
-        Flux.<Integer, Integer, Integer>zip(
-            Flowable.just(1), Flowable.just(2), (i1, i2) -> i1 + i2));
+  Flux<Integer> testObservableJustThreeToFlux() {
+    return Flux.just(1, 2, 3);
   }
 
-  Single<Integer> testUnnecessaryConsumerConversion() {
-    return Single.just(1)
-        .as(RxJava2Adapter::singleToMono)
-        .doOnSuccess(System.out::println)
-        .as(RxJava2Adapter::monoToSingle);
+  Flux<Integer> testObservableFromArrayToFlux() {
+    return Flux.fromArray(new Integer[] {1, 2});
   }
 
-  Maybe<Integer> testUnnecessaryPredicateConversion() {
-    return Single.just(1)
-        .as(RxJava2Adapter::singleToMono)
-        .filter(i -> i > 2)
-        .as(RxJava2Adapter::monoToMaybe);
+  Flux<Integer> testObservableFromIterableToFlux() {
+    return Flux.fromIterable(ImmutableList.of(1, 2));
+  }
+
+  Flux<Integer> testObservableFromCallableToFlux() {
+    return Mono.fromSupplier(() -> 1).flux();
+  }
+
+  ImmutableSet<Flux<Integer>> testObservableRangeToFlux() {
+    return ImmutableSet.of(
+        Flux.range(1, 10),
+        RxJava2Adapter.observableToFlux(Observable.range(1, 10), BackpressureStrategy.LATEST));
   }
 
   Mono<Integer> testMonoFromNestedPublisher() {